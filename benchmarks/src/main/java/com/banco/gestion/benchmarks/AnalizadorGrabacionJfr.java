@@ -0,0 +1,167 @@
+package com.banco.gestion.benchmarks;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Resumen de una grabación JFR con los eventos banco.*
+ * Informa las operaciones de cuenta más lentas, las cuentas con la operación más lenta,
+ * las verificaciones de autorización por rol y las escrituras de bitácora por origen y destino.
+ * Argumentos: archivo.jfr [cantidad de filas por tabla, por defecto 10]
+ */
+public final class AnalizadorGrabacionJfr {
+
+    private static final String OPERACION_CUENTA = "banco.OperacionCuenta";
+    private static final String VERIFICACION_AUTORIZACION = "banco.VerificacionAutorizacion";
+    private static final String ESCRITURA_BITACORA = "banco.EscrituraBitacora";
+
+    private AnalizadorGrabacionJfr() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Uso: AnalizadorGrabacionJfr archivo.jfr [filas]");
+            System.exit(1);
+        }
+        int filas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        PriorityQueue<OperacionLenta> masLentas =
+            new PriorityQueue<>(Comparator.comparingLong(OperacionLenta::duracionNanos));
+        Map<Long, Acumulado> porCuenta = new HashMap<>();
+        Map<String, Acumulado> porOperacion = new TreeMap<>();
+        Map<String, Acumulado> porRol = new TreeMap<>();
+        Map<String, Acumulado> porEscritura = new TreeMap<>();
+
+        try (RecordingFile grabacion = new RecordingFile(Path.of(args[0]))) {
+            while (grabacion.hasMoreEvents()) {
+                RecordedEvent evento = grabacion.readEvent();
+                long nanos = evento.getDuration().toNanos();
+                switch (evento.getEventType().getName()) {
+                    case OPERACION_CUENTA -> {
+                        long idCuenta = evento.getLong("idCuenta");
+                        String operacion = evento.getString("operacion");
+                        boolean exitosa = evento.getBoolean("exitosa");
+                        porCuenta.computeIfAbsent(idCuenta, id -> new Acumulado()).agregar(nanos, exitosa, operacion);
+                        porOperacion.computeIfAbsent(operacion, o -> new Acumulado()).agregar(nanos, exitosa, null);
+                        masLentas.add(new OperacionLenta(evento.getStartTime(), idCuenta, operacion,
+                            evento.getLong("rangoMonto"), exitosa, nanos));
+                        if (masLentas.size() > filas) {
+                            masLentas.poll();
+                        }
+                    }
+                    case VERIFICACION_AUTORIZACION -> {
+                        String rol = evento.getString("rol");
+                        porRol.computeIfAbsent(rol == null || rol.isEmpty() ? "(inexistente)" : rol,
+                            r -> new Acumulado()).agregar(nanos, evento.getBoolean("permitida"),
+                            evento.getString("verificacion"));
+                    }
+                    case ESCRITURA_BITACORA -> porEscritura
+                        .computeIfAbsent(evento.getString("origen") + " -> " + evento.getString("destino"),
+                            e -> new Acumulado())
+                        .agregarLote(nanos, evento.getBoolean("exitosa"), evento.getInt("tamanoLote"));
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%nOperaciones de cuenta más lentas%n");
+        System.out.printf("%-26s %12s %-12s %14s %8s %12s%n", "inicio", "cuenta", "operacion", "rango_monto",
+            "exitosa", "ms");
+        List<OperacionLenta> lentas = new ArrayList<>(masLentas);
+        lentas.sort(Comparator.comparingLong(OperacionLenta::duracionNanos).reversed());
+        for (OperacionLenta lenta : lentas) {
+            System.out.printf("%-26s %12d %-12s %14d %8s %12.3f%n", lenta.inicio(), lenta.idCuenta(),
+                lenta.operacion(), lenta.rangoMonto(), lenta.exitosa(), lenta.duracionNanos() / 1e6);
+        }
+
+        System.out.printf("%nCuentas por operación más lenta%n");
+        System.out.printf("%12s %-12s %10s %10s %12s %12s%n", "cuenta", "peor_op", "eventos", "fallidas",
+            "prom_ms", "max_ms");
+        porCuenta.entrySet().stream()
+            .sorted(Map.Entry.<Long, Acumulado>comparingByValue(Comparator.comparingLong(a -> a.maxNanos)).reversed())
+            .limit(filas)
+            .forEach(e -> System.out.printf("%12d %-12s %10d %10d %12.3f %12.3f%n", e.getKey(),
+                e.getValue().detalleMax, e.getValue().eventos, e.getValue().fallidas, e.getValue().promedioMs(),
+                e.getValue().maxNanos / 1e6));
+
+        imprimir("Operaciones de cuenta por tipo", "operacion", "fallidas", porOperacion, false);
+        imprimir("Verificaciones de autorización por rol", "rol", "negadas", porRol, false);
+        imprimir("Escrituras de bitácora", "origen -> destino", "fallidas", porEscritura, true);
+    }
+
+    private static void imprimir(String titulo, String clave, String negativas, Map<String, Acumulado> grupos,
+                                 boolean lotes) {
+        System.out.printf("%n%s%n", titulo);
+        if (grupos.isEmpty()) {
+            System.out.println("(sin eventos)");
+            return;
+        }
+        System.out.printf("%-24s %10s %10s %10s %10s %10s %10s%s%n", clave, "eventos",
+            negativas, "p50_ms", "p99_ms", "max_ms", "prom_ms", lotes ? "  prom_lote" : "");
+        grupos.forEach((nombre, acumulado) -> System.out.printf("%-24s %10d %10d %10.3f %10.3f %10.3f %10.3f%s%n",
+            nombre, acumulado.eventos, acumulado.fallidas, acumulado.percentilMs(0.50), acumulado.percentilMs(0.99),
+            acumulado.maxNanos / 1e6, acumulado.promedioMs(),
+            lotes ? String.format("  %9.1f", acumulado.registros / (double) acumulado.eventos) : ""));
+    }
+
+    /**
+     * Duraciones de un grupo; conserva todas para calcular percentiles exactos
+     */
+    private static final class Acumulado {
+        private long[] duraciones = new long[16];
+        private int eventos;
+        private long fallidas;
+        private long totalNanos;
+        private long maxNanos = -1;
+        private String detalleMax;
+        private long registros;
+
+        private void agregar(long nanos, boolean exitosa, String detalle) {
+            if (eventos == duraciones.length) {
+                duraciones = Arrays.copyOf(duraciones, eventos * 2);
+            }
+            duraciones[eventos++] = nanos;
+            totalNanos += nanos;
+            if (!exitosa) {
+                fallidas++;
+            }
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+                detalleMax = detalle;
+            }
+        }
+
+        private void agregarLote(long nanos, boolean exitosa, int tamanoLote) {
+            agregar(nanos, exitosa, null);
+            registros += tamanoLote;
+        }
+
+        private double promedioMs() {
+            return totalNanos / (double) eventos / 1e6;
+        }
+
+        private double percentilMs(double percentil) {
+            long[] ordenadas = Arrays.copyOf(duraciones, eventos);
+            Arrays.sort(ordenadas);
+            int indice = (int) Math.ceil(percentil * eventos) - 1;
+            return ordenadas[Math.max(0, indice)] / 1e6;
+        }
+    }
+
+    private record OperacionLenta(Instant inicio, long idCuenta, String operacion, long rangoMonto,
+                                  boolean exitosa, long duracionNanos) {
+    }
+}
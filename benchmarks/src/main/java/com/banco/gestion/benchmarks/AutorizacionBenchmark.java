@@ -0,0 +1,96 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.services.CacheAutorizacion;
+import com.banco.gestion.services.UsuarioService;
+import com.banco.gestion.utils.Enums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificaciones de autorización de UsuarioService
+ * Con cacheActiva=false se invalida la instantánea antes de cada verificación,
+ * de modo que cada llamada consulta la base de datos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class AutorizacionBenchmark {
+
+    private static final Set<Enums.RolSistema> ROLES_EMPRESA =
+        Set.of(Enums.RolSistema.EMPLEADO_EMPRESA, Enums.RolSistema.SUPERVISOR_EMPRESA);
+
+    @Param({"true", "false"})
+    public boolean cacheActiva;
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioService usuarioService;
+    private CacheAutorizacion cacheAutorizacion;
+    private Long idUsuario;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        usuarioService = contexto.getBean(UsuarioService.class);
+        cacheAutorizacion = contexto.getBean(CacheAutorizacion.class);
+
+        Usuario usuario = new Usuario();
+        usuario.setNombreUsuario("supervisor.bench");
+        usuario.setContrasena("clave-benchmark");
+        usuario.setNombreCompleto("Supervisor Benchmark");
+        usuario.setCorreoElectronico("supervisor.bench@banco.test");
+        usuario.setTelefono("3001234567");
+        usuario.setFechaNacimiento(LocalDate.of(1985, 5, 20));
+        usuario.setDireccion("Calle 1");
+        usuario.setRolSistema(Enums.RolSistema.SUPERVISOR_EMPRESA);
+        idUsuario = usuarioService.crearUsuario(usuario).getIdUsuario();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public boolean puedeOperar() {
+        omitirCache();
+        return usuarioService.puedeOperar(idUsuario);
+    }
+
+    @Benchmark
+    public boolean tieneRol() {
+        omitirCache();
+        return usuarioService.tieneRol(idUsuario, Enums.RolSistema.SUPERVISOR_EMPRESA);
+    }
+
+    @Benchmark
+    public boolean tieneAlgunRol() {
+        omitirCache();
+        return usuarioService.tieneAlgunRol(idUsuario, ROLES_EMPRESA);
+    }
+
+    private void omitirCache() {
+        if (!cacheActiva) {
+            cacheAutorizacion.invalidar(idUsuario);
+        }
+    }
+}
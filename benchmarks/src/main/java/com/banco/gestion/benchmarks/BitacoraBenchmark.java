@@ -0,0 +1,128 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.banco.gestion.models.DetalleBitacora;
+import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción y serialización de registros de bitácora
+ * Compara el detalle tipado con el mapa genérico histórico al convertir a BSON y a JSON.
+ * No requiere base de datos: usa el mismo conversor de Spring Data que el repositorio
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BitacoraBenchmark {
+
+    private MappingMongoConverter conversor;
+    private ObjectMapper objectMapper;
+    private BitacoraOperacion registroTipado;
+    private BitacoraOperacion registroMapa;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        MongoMappingContext contextoMapeo = new MongoMappingContext();
+        contextoMapeo.setInitialEntitySet(Set.of(BitacoraOperacion.class));
+        for (Class<?> tipo : DetalleBitacora.class.getPermittedSubclasses()) {
+            contextoMapeo.getPersistentEntity(tipo);
+        }
+        contextoMapeo.afterPropertiesSet();
+        conversor = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contextoMapeo);
+        conversor.afterPropertiesSet();
+
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        registroTipado = construirTipado();
+        registroMapa = construirMapa();
+
+        System.out.printf("Tamaño BSON: tipado=%d bytes, mapa=%d bytes%n",
+            tamanoBson(registroTipado), tamanoBson(registroMapa));
+    }
+
+    @Benchmark
+    public BitacoraOperacion construirTipado() {
+        DetalleBitacora detalle = new DetalleBitacora.TransferenciaEjecutada(
+            new BigDecimal("1000000.00"), new BigDecimal("5000000.00"), new BigDecimal("4000000.00"),
+            new BigDecimal("2000000.00"), new BigDecimal("3000000.00"),
+            "CTA00000000000000000018", "CTA00000000000000000026");
+        return new BitacoraOperacion(detalle, 456L, "CLIENTE_PERSONA_NATURAL", "789",
+            "Transferencia ejecutada exitosamente");
+    }
+
+    @Benchmark
+    public BitacoraOperacion construirMapa() {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("monto_involucrado", new BigDecimal("1000000.00"));
+        datos.put("saldo_antes_origen", new BigDecimal("5000000.00"));
+        datos.put("saldo_despues_origen", new BigDecimal("4000000.00"));
+        datos.put("saldo_antes_destino", new BigDecimal("2000000.00"));
+        datos.put("saldo_despues_destino", new BigDecimal("3000000.00"));
+        datos.put("cuenta_origen", "CTA00000000000000000018");
+        datos.put("cuenta_destino", "CTA00000000000000000026");
+        return new BitacoraOperacion(Enums.TipoOperacion.TRANSFERENCIA_EJECUTADA, 456L,
+            "CLIENTE_PERSONA_NATURAL", "789", datos, "Transferencia ejecutada exitosamente");
+    }
+
+    @Benchmark
+    public RawBsonDocument bsonTipado() {
+        return aBson(registroTipado);
+    }
+
+    @Benchmark
+    public RawBsonDocument bsonMapa() {
+        return aBson(registroMapa);
+    }
+
+    @Benchmark
+    public BitacoraOperacion leerBsonTipado() {
+        return conversor.read(BitacoraOperacion.class, new Document(aBson(registroTipado)));
+    }
+
+    @Benchmark
+    public byte[] jsonTipado() throws Exception {
+        return objectMapper.writeValueAsBytes(registroTipado);
+    }
+
+    @Benchmark
+    public byte[] jsonMapa() throws Exception {
+        return objectMapper.writeValueAsBytes(registroMapa);
+    }
+
+    private RawBsonDocument aBson(BitacoraOperacion registro) {
+        Document documento = new Document();
+        conversor.write(registro, documento);
+        return new RawBsonDocument(documento, new DocumentCodec());
+    }
+
+    private int tamanoBson(BitacoraOperacion registro) {
+        return aBson(registro).getByteBuffer().remaining();
+    }
+}
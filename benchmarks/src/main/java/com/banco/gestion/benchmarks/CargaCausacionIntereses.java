@@ -0,0 +1,151 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.dto.ReporteCausacionIntereses;
+import com.banco.gestion.services.CausacionIntereses;
+import com.banco.gestion.utils.Enums;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Carga de la causación diaria de intereses
+ * Inserta cuentas con SQL directo (90% ahorros activas en COP y USD; el resto corrientes o
+ * bloqueadas, que no deben recibir intereses), ejecuta la causación e informa cuentas/s.
+ * Verifica que lo abonado coincide con el interés esperado por moneda, que las cuentas no
+ * elegibles no cambian y que una segunda ejecución de la misma fecha no vuelve a abonar.
+ * Argumentos opcionales: cuentas particiones paralelismo (por defecto 1000000 64 8)
+ */
+public final class CargaCausacionIntereses {
+
+    private static final String INSERTAR_CUENTA =
+        "INSERT INTO cuentas_bancarias (numero_cuenta, tipo_cuenta, id_titular, saldo_actual, moneda, " +
+        "estado_cuenta, fecha_apertura, fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int TAMANO_LOTE_INSERCION = 5_000;
+
+    private CargaCausacionIntereses() {
+    }
+
+    public static void main(String[] args) {
+        int cantidadCuentas = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int particiones = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int paralelismo = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        ConfigurableApplicationContext contexto = ContextoBenchmark.iniciar(
+            "app.intereses.particiones=" + particiones,
+            "app.intereses.paralelismo=" + paralelismo,
+            "spring.datasource.hikari.maximum-pool-size=" + Math.max(paralelismo + 4, 16));
+        int codigoSalida = 0;
+        try {
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            CausacionIntereses causacion = contexto.getBean(CausacionIntereses.class);
+            Long idTitular = ContextoBenchmark.crearCliente(contexto);
+
+            Map<Enums.Moneda, BigDecimal> esperado = new EnumMap<>(Enums.Moneda.class);
+            long inicioCarga = System.nanoTime();
+            insertarCuentas(jdbc, causacion, idTitular, cantidadCuentas, esperado);
+            System.out.printf("Cuentas insertadas=%d en %.1fs%n", cantidadCuentas,
+                (System.nanoTime() - inicioCarga) / 1e9);
+
+            BigDecimal noElegiblesAntes = totalNoElegibles(jdbc);
+            BigDecimal totalAntes = totalSaldos(jdbc);
+            LocalDate fechaCorte = LocalDate.now().minusDays(1);
+
+            ReporteCausacionIntereses reporte = causacion.causar(fechaCorte);
+            System.out.printf("Causación: %d cuentas en %d ms (%.0f cuentas/s), %d abonadas, %d particiones, "
+                    + "montos %s%n", reporte.getCuentasProcesadas(), reporte.getDuracionMs(),
+                reporte.getCuentasPorSegundo(), reporte.getCuentasAbonadas(), reporte.getParticionesProcesadas(),
+                reporte.getMontosPorMoneda());
+
+            BigDecimal abonado = totalSaldos(jdbc).subtract(totalAntes);
+            BigDecimal totalEsperado = esperado.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            for (Map.Entry<Enums.Moneda, BigDecimal> entrada : esperado.entrySet()) {
+                BigDecimal reportado = reporte.getMontosPorMoneda().getOrDefault(entrada.getKey().name(), BigDecimal.ZERO);
+                if (reportado.compareTo(entrada.getValue()) != 0) {
+                    System.out.printf("ERROR: %s esperado=%s reportado=%s%n", entrada.getKey(),
+                        entrada.getValue().toPlainString(), reportado.toPlainString());
+                    codigoSalida = 1;
+                }
+            }
+            if (abonado.compareTo(totalEsperado) != 0 || reporte.getParticionesFallidas() > 0) {
+                System.out.printf("ERROR: abonado=%s esperado=%s fallidas=%d%n", abonado.toPlainString(),
+                    totalEsperado.toPlainString(), reporte.getParticionesFallidas());
+                codigoSalida = 1;
+            }
+            if (totalNoElegibles(jdbc).compareTo(noElegiblesAntes) != 0) {
+                System.out.println("ERROR: cambió el saldo de cuentas corrientes o bloqueadas");
+                codigoSalida = 1;
+            }
+
+            BigDecimal totalTrasPrimera = totalSaldos(jdbc);
+            ReporteCausacionIntereses repeticion = causacion.causar(fechaCorte);
+            System.out.printf("Repetición: %d cuentas procesadas, %d particiones omitidas%n",
+                repeticion.getCuentasProcesadas(), repeticion.getParticionesOmitidas());
+            if (repeticion.getCuentasProcesadas() != 0 || totalSaldos(jdbc).compareTo(totalTrasPrimera) != 0) {
+                System.out.println("ERROR: la segunda ejecución de la misma fecha volvió a abonar intereses");
+                codigoSalida = 1;
+            }
+        } finally {
+            contexto.close();
+        }
+        System.exit(codigoSalida);
+    }
+
+    private static void insertarCuentas(JdbcTemplate jdbc, CausacionIntereses causacion, Long idTitular,
+                                        int cantidad, Map<Enums.Moneda, BigDecimal> esperado) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        LocalDate apertura = LocalDate.now().minusYears(1);
+        for (int desde = 0; desde < cantidad; desde += TAMANO_LOTE_INSERCION) {
+            int inicio = desde;
+            int tamano = Math.min(TAMANO_LOTE_INSERCION, cantidad - desde);
+            jdbc.batchUpdate(INSERTAR_CUENTA, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int n = inicio + i;
+                    int tipo = aleatorio.nextInt(10);
+                    Enums.Moneda moneda = n % 4 == 0 ? Enums.Moneda.USD : Enums.Moneda.COP;
+                    Enums.TipoCuenta tipoCuenta = tipo == 0 ? Enums.TipoCuenta.CORRIENTE : Enums.TipoCuenta.AHORROS;
+                    Enums.EstadoCuenta estado = tipo == 1 ? Enums.EstadoCuenta.BLOQUEADA : Enums.EstadoCuenta.ACTIVA;
+                    BigDecimal saldo = BigDecimal.valueOf(aleatorio.nextLong(0, 500_000_000L), 2);
+                    if (tipoCuenta == Enums.TipoCuenta.AHORROS && estado == Enums.EstadoCuenta.ACTIVA) {
+                        esperado.merge(moneda, causacion.interesDiario(saldo, moneda), BigDecimal::add);
+                    }
+                    ps.setString(1, String.format("CI%014d", n));
+                    ps.setString(2, tipoCuenta.name());
+                    ps.setLong(3, idTitular);
+                    ps.setBigDecimal(4, saldo);
+                    ps.setString(5, moneda.name());
+                    ps.setString(6, estado.name());
+                    ps.setObject(7, apertura);
+                    ps.setTimestamp(8, ahora);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return tamano;
+                }
+            });
+        }
+    }
+
+    private static BigDecimal totalNoElegibles(JdbcTemplate jdbc) {
+        BigDecimal total = jdbc.queryForObject("SELECT COALESCE(SUM(saldo_actual), 0) FROM cuentas_bancarias " +
+            "WHERE tipo_cuenta <> 'AHORROS' OR estado_cuenta <> 'ACTIVA'", BigDecimal.class);
+        return total == null ? BigDecimal.ZERO : total;
+    }
+
+    private static BigDecimal totalSaldos(JdbcTemplate jdbc) {
+        BigDecimal total = jdbc.queryForObject("SELECT COALESCE(SUM(saldo_actual), 0) FROM cuentas_bancarias", BigDecimal.class);
+        return total == null ? BigDecimal.ZERO : total;
+    }
+}
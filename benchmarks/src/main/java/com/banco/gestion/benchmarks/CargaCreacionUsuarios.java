@@ -0,0 +1,88 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.services.HashContrasenas;
+import com.banco.gestion.services.UsuarioService;
+import com.banco.gestion.utils.Enums;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aprovisionamiento de usuarios: crearUsuario uno a uno frente a crearUsuarios en lote
+ * Con el costo de BCrypt indicado, crea N usuarios de cada forma e informa usuarios/s y la
+ * aceleración del lote, que reparte los hashes entre los hilos del pool de contraseñas.
+ * Verifica que cada contraseña guardada corresponda a la original.
+ * Argumentos opcionales: usuarios costo (por defecto 500 10; costo 0 calibra al arrancar)
+ */
+public final class CargaCreacionUsuarios {
+
+    private CargaCreacionUsuarios() {
+    }
+
+    public static void main(String[] args) {
+        int usuarios = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int costo = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        ConfigurableApplicationContext contexto = ContextoBenchmark.iniciar("app.contrasenas.costo=" + costo);
+        int codigoSalida = 0;
+        try {
+            UsuarioService usuarioService = contexto.getBean(UsuarioService.class);
+            PasswordEncoder passwordEncoder = contexto.getBean(PasswordEncoder.class);
+            int hilos = contexto.getBean(HashContrasenas.class).getHilos();
+
+            long inicio = System.nanoTime();
+            List<Usuario> secuenciales = new ArrayList<>(usuarios);
+            for (int i = 0; i < usuarios; i++) {
+                secuenciales.add(usuarioService.crearUsuario(nuevoUsuario("secuencial", i)));
+            }
+            double segundosSecuencial = (System.nanoTime() - inicio) / 1e9;
+
+            List<Usuario> lote = new ArrayList<>(usuarios);
+            for (int i = 0; i < usuarios; i++) {
+                lote.add(nuevoUsuario("lote", i));
+            }
+            inicio = System.nanoTime();
+            List<Usuario> creados = usuarioService.crearUsuarios(lote);
+            double segundosLote = (System.nanoTime() - inicio) / 1e9;
+
+            for (List<Usuario> grupo : List.of(secuenciales, creados)) {
+                for (Usuario usuario : grupo) {
+                    if (!passwordEncoder.matches(contrasena(usuario.getNombreUsuario()), usuario.getContrasena())) {
+                        System.out.println("ERROR: hash incorrecto para " + usuario.getNombreUsuario());
+                        codigoSalida = 1;
+                        break;
+                    }
+                }
+            }
+
+            System.out.printf("costo=%s hilos=%d usuarios=%d%n", costo == 0 ? "calibrado" : costo, hilos, usuarios);
+            System.out.printf("secuencial: %.1f s (%.0f usuarios/s)%n", segundosSecuencial, usuarios / segundosSecuencial);
+            System.out.printf("lote:       %.1f s (%.0f usuarios/s), aceleración %.1fx%n", segundosLote,
+                usuarios / segundosLote, segundosSecuencial / segundosLote);
+        } finally {
+            contexto.close();
+        }
+        System.exit(codigoSalida);
+    }
+
+    private static Usuario nuevoUsuario(String prefijo, int n) {
+        Usuario usuario = new Usuario();
+        usuario.setNombreUsuario(prefijo + "." + n);
+        usuario.setContrasena(contrasena(usuario.getNombreUsuario()));
+        usuario.setNombreCompleto("Usuario Carga " + n);
+        usuario.setCorreoElectronico(prefijo + "." + n + "@banco.test");
+        usuario.setTelefono("3001234567");
+        usuario.setFechaNacimiento(LocalDate.of(1985, 5, 20));
+        usuario.setDireccion("Calle 1");
+        usuario.setRolSistema(Enums.RolSistema.EMPLEADO_VENTANILLA);
+        return usuario;
+    }
+
+    private static String contrasena(String nombreUsuario) {
+        return "clave-" + nombreUsuario;
+    }
+}
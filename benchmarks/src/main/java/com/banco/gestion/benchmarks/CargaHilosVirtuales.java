@@ -0,0 +1,174 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.services.CuentaBancariaService;
+import com.banco.gestion.utils.Enums;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carga HTTP en lazo cerrado: hilos de plataforma frente a hilos virtuales
+ * Arranca la aplicación con Tomcat en cada modo y mantiene N clientes concurrentes, cada uno
+ * enviando un depósito con clave de idempotencia (JDBC bloqueante) apenas recibe la respuesta
+ * anterior. Descarta un calentamiento y luego informa throughput, p50, p99 y p99.9 por modo.
+ * Los clientes usan HttpClient asíncrono, así que miles de clientes no requieren miles de hilos.
+ * El modo virtual requiere Java 21 (mvn -Pjava21 ...).
+ * Argumentos opcionales: modo(plataforma|virtual|ambos) clientes segundos cuentas
+ * (por defecto ambos 1000 30 1000)
+ */
+public final class CargaHilosVirtuales {
+
+    private static final long RESOLUCION_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int CUBETAS = 300_000;
+
+    private CargaHilosVirtuales() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String modo = args.length > 0 ? args[0] : "ambos";
+        int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int cantidadCuentas = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+
+        List<Boolean> modos = switch (modo) {
+            case "plataforma" -> List.of(false);
+            case "virtual" -> List.of(true);
+            case "ambos" -> List.of(false, true);
+            default -> throw new IllegalArgumentException("Modo desconocido: " + modo);
+        };
+        if (modos.contains(true) && Runtime.version().feature() < 21) {
+            System.out.println("ERROR: el modo virtual requiere Java 21; ejecute con -Pjava21 sobre un JDK 21");
+            System.exit(1);
+        }
+
+        int codigoSalida = 0;
+        for (boolean virtual : modos) {
+            Resultado resultado = medir(virtual, clientes, segundos, cantidadCuentas);
+            System.out.printf("modo=%s java=%d clientes=%d: %.0f req/s p50=%.1fms p99=%.1fms p99.9=%.1fms "
+                    + "exitosas=%d errores=%d%n", virtual ? "virtual" : "plataforma", Runtime.version().feature(),
+                clientes, resultado.throughput(), resultado.p50Ms(), resultado.p99Ms(), resultado.p999Ms(),
+                resultado.exitosas(), resultado.errores());
+            if (resultado.exitosas() == 0) {
+                codigoSalida = 1;
+            }
+        }
+        System.exit(codigoSalida);
+    }
+
+    private static Resultado medir(boolean virtual, int clientes, int segundos, int cantidadCuentas)
+            throws InterruptedException {
+        ConfigurableApplicationContext contexto = ContextoBenchmark.iniciarWeb(SeguridadCargaHttp.class,
+            "spring.threads.virtual.enabled=" + virtual,
+            "server.tomcat.max-connections=" + (clientes + 100),
+            "server.tomcat.accept-count=" + clientes);
+        try {
+            CuentaBancariaService cuentaService = contexto.getBean(CuentaBancariaService.class);
+            Long idTitular = ContextoBenchmark.crearCliente(contexto);
+            List<Long> cuentas = new ArrayList<>(cantidadCuentas);
+            for (int i = 0; i < cantidadCuentas; i++) {
+                CuentaBancaria cuenta = new CuentaBancaria();
+                cuenta.setIdTitular(idTitular);
+                cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+                cuentas.add(cuentaService.crearCuenta(cuenta).getIdCuenta());
+            }
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            String base = "http://localhost:" + puerto + "/api/cuentas/";
+
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            long calentamiento = TimeUnit.SECONDS.toNanos(Math.max(1, Math.min(10, segundos / 3)));
+            long inicioMedicion = System.nanoTime() + calentamiento;
+            long fin = inicioMedicion + TimeUnit.SECONDS.toNanos(segundos);
+
+            Medicion medicion = new Medicion(inicioMedicion);
+            CountDownLatch terminados = new CountDownLatch(clientes);
+            for (int c = 0; c < clientes; c++) {
+                enviar(http, base, cuentas, fin, medicion, terminados);
+            }
+            terminados.await();
+            return new Resultado(medicion.exitosas.sum() / (double) segundos, medicion.percentilMs(0.50),
+                medicion.percentilMs(0.99), medicion.percentilMs(0.999), medicion.exitosas.sum(),
+                medicion.errores.sum());
+        } finally {
+            contexto.close();
+        }
+    }
+
+    /**
+     * Un cliente envía su siguiente solicitud al completar la anterior, hasta el fin de la prueba
+     */
+    private static void enviar(HttpClient http, String base, List<Long> cuentas, long fin,
+                               Medicion medicion, CountDownLatch terminados) {
+        long inicio = System.nanoTime();
+        if (inicio >= fin) {
+            terminados.countDown();
+            return;
+        }
+        Long idCuenta = cuentas.get(ThreadLocalRandom.current().nextInt(cuentas.size()));
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create(base + idCuenta + "/depositar?monto=1.00"))
+            .header("Idempotency-Key", UUID.randomUUID().toString())
+            .timeout(Duration.ofSeconds(60))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+        // Asíncrono para que un fallo inmediato no encadene llamadas recursivas en el mismo hilo
+        http.sendAsync(solicitud, HttpResponse.BodyHandlers.discarding()).whenCompleteAsync((respuesta, error) -> {
+            medicion.registrar(inicio, System.nanoTime(), error == null && respuesta.statusCode() == 200);
+            enviar(http, base, cuentas, fin, medicion, terminados);
+        });
+    }
+
+    /**
+     * Histograma de latencias con cubetas de 100 µs hasta 30 s; lo que pasa de 30 s va a la última
+     */
+    private static final class Medicion {
+        private final long inicioMedicion;
+        private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+        private final LongAdder exitosas = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+
+        private Medicion(long inicioMedicion) {
+            this.inicioMedicion = inicioMedicion;
+        }
+
+        private void registrar(long inicio, long fin, boolean exitosa) {
+            if (inicio < inicioMedicion) {
+                return;
+            }
+            if (!exitosa) {
+                errores.increment();
+                return;
+            }
+            exitosas.increment();
+            cubetas.incrementAndGet((int) Math.min(CUBETAS - 1, (fin - inicio) / RESOLUCION_NANOS));
+        }
+
+        private double percentilMs(double percentil) {
+            long objetivo = (long) Math.ceil(exitosas.sum() * percentil);
+            long acumulado = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                acumulado += cubetas.get(i);
+                if (acumulado >= objetivo && acumulado > 0) {
+                    return (i + 1) * RESOLUCION_NANOS / 1e6;
+                }
+            }
+            return 0;
+        }
+    }
+
+    private record Resultado(double throughput, double p50Ms, double p99Ms, double p999Ms,
+                             long exitosas, long errores) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.services.CuentaBancariaService;
+import com.banco.gestion.utils.Enums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósitos concurrentes con 1, 8 y 64 hilos
+ * Con cuentaUnica=true todos los hilos compiten por la misma cuenta (contención máxima);
+ * con false cada hilo usa su propia cuenta y solo comparten el pool de conexiones
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ContencionSaldosBenchmark {
+
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    @Param({"true", "false"})
+    public boolean cuentaUnica;
+
+    ConfigurableApplicationContext contexto;
+    CuentaBancariaService cuentaService;
+    Long idTitular;
+    Long idCuentaCompartida;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        cuentaService = contexto.getBean(CuentaBancariaService.class);
+        idTitular = ContextoBenchmark.crearCliente(contexto);
+        idCuentaCompartida = abrirCuenta();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    Long abrirCuenta() {
+        CuentaBancaria cuenta = new CuentaBancaria();
+        cuenta.setIdTitular(idTitular);
+        cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+        cuenta.setMoneda(Enums.Moneda.COP);
+        return cuentaService.crearCuenta(cuenta).getIdCuenta();
+    }
+
+    @State(Scope.Thread)
+    public static class CuentaHilo {
+
+        Long idCuenta;
+
+        @Setup(Level.Trial)
+        public void asignar(ContencionSaldosBenchmark estado) {
+            idCuenta = estado.cuentaUnica ? estado.idCuentaCompartida : estado.abrirCuenta();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public CuentaBancaria depositar01Hilo(CuentaHilo hilo) {
+        return cuentaService.depositar(hilo.idCuenta, MONTO);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CuentaBancaria depositar08Hilos(CuentaHilo hilo) {
+        return cuentaService.depositar(hilo.idCuenta, MONTO);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public CuentaBancaria depositar64Hilos(CuentaHilo hilo) {
+        return cuentaService.depositar(hilo.idCuenta, MONTO);
+    }
+}
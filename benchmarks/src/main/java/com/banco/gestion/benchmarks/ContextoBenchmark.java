@@ -0,0 +1,92 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.BancoGestionApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arranque del contexto de la aplicación para benchmarks
+ * Sustituye MySQL por H2 en modo MySQL y MongoDB por una instancia embebida
+ */
+public final class ContextoBenchmark {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong();
+
+    private ContextoBenchmark() {
+    }
+
+    public static ConfigurableApplicationContext iniciar(String... propiedadesAdicionales) {
+        return iniciar(WebApplicationType.NONE, new Class<?>[0], propiedadesAdicionales);
+    }
+
+    /**
+     * Arrancar también el servidor web, en un puerto libre (server.port=0) salvo que se indique otro
+     */
+    public static ConfigurableApplicationContext iniciarWeb(Class<?> configuracionAdicional,
+                                                            String... propiedadesAdicionales) {
+        return iniciar(WebApplicationType.SERVLET, new Class<?>[] {configuracionAdicional}, propiedadesAdicionales);
+    }
+
+    private static ConfigurableApplicationContext iniciar(WebApplicationType tipoWeb, Class<?>[] configuraciones,
+                                                          String... propiedadesAdicionales) {
+        return new SpringApplicationBuilder(BancoGestionApplication.class)
+            .sources(configuraciones)
+            .web(tipoWeb)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:banco_bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.hikari.maximum-pool-size=80",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.data.mongodb.uri=mongodb://localhost:27027/banco_bitacora_bench",
+                "spring.data.mongodb.port=27027",
+                "de.flapdoodle.mongodb.embedded.version=6.0.5",
+                "logging.level.root=WARN",
+                "logging.level.com.banco.gestion=WARN",
+                "logging.level.org.springframework.security=WARN",
+                "server.port=0",
+                // Costo bajo: los benchmarks miden los servicios, no el hash de contraseñas
+                "app.contrasenas.costo=4"
+            )
+            .properties(propiedadesAdicionales)
+            .run();
+    }
+
+    /**
+     * Insertar un cliente persona natural activo y devolver su ID
+     * Se usa SQL directo porque las subclases de Cliente no son públicas
+     */
+    public static Long crearCliente(ConfigurableApplicationContext contexto) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        long n = SECUENCIA.incrementAndGet();
+        KeyHolder llave = new GeneratedKeyHolder();
+        jdbc.update(conexion -> {
+            PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO clientes (tipo_cliente, numero_identificacion, correo_electronico, telefono, direccion, " +
+                "estado_cliente, fecha_creacion, fecha_actualizacion, nombre_completo, fecha_nacimiento) " +
+                "VALUES ('PERSONA_NATURAL', ?, ?, '3001234567', 'Calle 1', 'ACTIVO', ?, ?, 'Cliente Benchmark', ?)",
+                Statement.RETURN_GENERATED_KEYS);
+            Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+            ps.setString(1, "BENCH-" + n);
+            ps.setString(2, "cliente" + n + "@banco.test");
+            ps.setTimestamp(3, ahora);
+            ps.setTimestamp(4, ahora);
+            ps.setObject(5, LocalDate.of(1990, 1, 1));
+            return ps;
+        }, llave);
+        return llave.getKey().longValue();
+    }
+}
@@ -0,0 +1,87 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.services.CuentaBancariaService;
+import com.banco.gestion.utils.Enums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apertura de cuentas, depósitos y retiros contra H2 y MongoDB embebido
+ * Incluye la escritura de bitácora que hace cada operación
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CuentaBancariaBenchmark {
+
+    private static final BigDecimal MONTO = new BigDecimal("10.00");
+
+    private ConfigurableApplicationContext contexto;
+    private CuentaBancariaService cuentaService;
+    private Long idTitular;
+    private Long idCuenta;
+    private String numeroCuenta;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        cuentaService = contexto.getBean(CuentaBancariaService.class);
+        idTitular = ContextoBenchmark.crearCliente(contexto);
+        CuentaBancaria cuenta = cuentaService.crearCuenta(nuevaCuenta());
+        idCuenta = cuenta.getIdCuenta();
+        numeroCuenta = cuenta.getNumeroCuenta();
+        // Saldo suficiente para que los retiros no se rechacen durante la medición
+        cuentaService.depositar(idCuenta, new BigDecimal("1000000000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public CuentaBancaria crearCuenta() {
+        return cuentaService.crearCuenta(nuevaCuenta());
+    }
+
+    @Benchmark
+    public CuentaBancaria depositar() {
+        return cuentaService.depositar(idCuenta, MONTO);
+    }
+
+    @Benchmark
+    public CuentaBancaria retirar() {
+        return cuentaService.retirar(idCuenta, MONTO);
+    }
+
+    @Benchmark
+    public boolean tieneSaldoSuficiente() {
+        return cuentaService.tieneSaldoSuficiente(numeroCuenta, MONTO);
+    }
+
+    private CuentaBancaria nuevaCuenta() {
+        CuentaBancaria cuenta = new CuentaBancaria();
+        cuenta.setIdTitular(idTitular);
+        cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+        cuenta.setMoneda(Enums.Moneda.COP);
+        return cuenta;
+    }
+}
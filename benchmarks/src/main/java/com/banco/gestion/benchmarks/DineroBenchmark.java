@@ -0,0 +1,113 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.utils.Dinero;
+import com.banco.gestion.utils.Enums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación y aritmética de montos con Dinero frente a BigDecimal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DineroBenchmark {
+
+    private static final int CANTIDAD = 1024;
+
+    private BigDecimal[] montos;
+    private Dinero[] dineros;
+    private BigDecimal saldo;
+    private Dinero saldoDinero;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        montos = new BigDecimal[CANTIDAD];
+        dineros = new Dinero[CANTIDAD];
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        for (int i = 0; i < CANTIDAD; i++) {
+            montos[i] = BigDecimal.valueOf(aleatorio.nextLong(1, 100_000_000L), 2);
+            dineros[i] = Dinero.de(montos[i], Enums.Moneda.COP);
+        }
+        saldo = new BigDecimal("500000.00");
+        saldoDinero = Dinero.de(saldo, Enums.Moneda.COP);
+    }
+
+    @Benchmark
+    public int validarBigDecimal() {
+        int validos = 0;
+        for (BigDecimal monto : montos) {
+            if (monto.compareTo(BigDecimal.ZERO) > 0 && monto.scale() <= 2) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    public int validarDinero() {
+        int validos = 0;
+        for (BigDecimal monto : montos) {
+            if (Dinero.esMontoValido(monto)) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    public BigDecimal sumarBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal monto : montos) {
+            total = total.add(monto);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Dinero sumarDinero() {
+        Dinero total = Dinero.cero(Enums.Moneda.COP);
+        for (Dinero monto : dineros) {
+            total = total.sumar(monto);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int compararBigDecimal() {
+        int cubiertos = 0;
+        for (BigDecimal monto : montos) {
+            if (saldo.compareTo(monto) >= 0) {
+                cubiertos++;
+            }
+        }
+        return cubiertos;
+    }
+
+    @Benchmark
+    public int compararDinero() {
+        int cubiertos = 0;
+        for (Dinero monto : dineros) {
+            if (saldoDinero.cubre(monto)) {
+                cubiertos++;
+            }
+        }
+        return cubiertos;
+    }
+}
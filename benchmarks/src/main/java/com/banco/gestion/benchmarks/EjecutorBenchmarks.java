@@ -0,0 +1,37 @@
+package com.banco.gestion.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los benchmarks
+ * Acepta los argumentos de línea de comandos de JMH y, si no se indica otro formato,
+ * escribe los resultados en JSON (target/jmh-resultados.json) para compararlos entre versiones
+ */
+public final class EjecutorBenchmarks {
+
+    private EjecutorBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(lineaComandos);
+
+        if (lineaComandos.getIncludes().isEmpty()) {
+            opciones.include(EjecutorBenchmarks.class.getPackageName() + ".*");
+        }
+        if (!lineaComandos.getResultFormat().hasValue()) {
+            opciones.resultFormat(ResultFormatType.JSON);
+        }
+        if (!lineaComandos.getResult().hasValue()) {
+            opciones.result("target/jmh-resultados.json");
+        }
+
+        new Runner(opciones.build()).run();
+    }
+}
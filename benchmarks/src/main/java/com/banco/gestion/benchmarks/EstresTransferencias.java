@@ -0,0 +1,117 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.services.CuentaBancariaService;
+import com.banco.gestion.services.EjecutorTransferencias;
+import com.banco.gestion.utils.Enums;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de estrés de EjecutorTransferencias
+ * Lanza transferencias aleatorias cruzadas (A→B y B→A) entre pocas cuentas desde varios hilos
+ * y verifica al final que el dinero total se conserva; informa el throughput obtenido.
+ * Argumentos opcionales: cuentas hilos segundos (por defecto 8 16 30)
+ */
+public final class EstresTransferencias {
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("100000.00");
+
+    private EstresTransferencias() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int cantidadCuentas = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        ConfigurableApplicationContext contexto = ContextoBenchmark.iniciar();
+        int codigoSalida = 0;
+        try {
+            CuentaBancariaService cuentaService = contexto.getBean(CuentaBancariaService.class);
+            EjecutorTransferencias ejecutor = contexto.getBean(EjecutorTransferencias.class);
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+
+            Long idTitular = ContextoBenchmark.crearCliente(contexto);
+            List<String> numeros = new ArrayList<>(cantidadCuentas);
+            for (int i = 0; i < cantidadCuentas; i++) {
+                CuentaBancaria cuenta = new CuentaBancaria();
+                cuenta.setIdTitular(idTitular);
+                cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+                cuenta.setMoneda(Enums.Moneda.COP);
+                cuenta = cuentaService.crearCuenta(cuenta);
+                cuentaService.depositar(cuenta.getIdCuenta(), SALDO_INICIAL);
+                numeros.add(cuenta.getNumeroCuenta());
+            }
+            BigDecimal totalInicial = totalSaldos(jdbc);
+
+            AtomicLong exitosas = new AtomicLong();
+            AtomicLong rechazadas = new AtomicLong();
+            AtomicLong fallidas = new AtomicLong();
+            long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+            CountDownLatch terminados = new CountDownLatch(hilos);
+            ExecutorService pool = Executors.newFixedThreadPool(hilos);
+            long inicio = System.nanoTime();
+
+            for (int h = 0; h < hilos; h++) {
+                pool.execute(() -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    try {
+                        while (System.nanoTime() < fin) {
+                            int origen = aleatorio.nextInt(cantidadCuentas);
+                            int destino = (origen + 1 + aleatorio.nextInt(cantidadCuentas - 1)) % cantidadCuentas;
+                            Transferencia transferencia = new Transferencia();
+                            transferencia.setCuentaOrigen(numeros.get(origen));
+                            transferencia.setCuentaDestino(numeros.get(destino));
+                            transferencia.setMonto(BigDecimal.valueOf(aleatorio.nextLong(1, 500_000), 2));
+                            transferencia.setIdUsuarioCreador(1L);
+                            try {
+                                ejecutor.ejecutar(transferencia, Enums.RolSistema.CLIENTE_PERSONA_NATURAL.name());
+                                exitosas.incrementAndGet();
+                            } catch (IllegalArgumentException e) {
+                                rechazadas.incrementAndGet();
+                            } catch (RuntimeException e) {
+                                fallidas.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        terminados.countDown();
+                    }
+                });
+            }
+            terminados.await();
+            pool.shutdown();
+            double transcurrido = (System.nanoTime() - inicio) / 1e9;
+
+            BigDecimal totalFinal = totalSaldos(jdbc);
+            System.out.printf("Cuentas=%d hilos=%d duración=%.1fs%n", cantidadCuentas, hilos, transcurrido);
+            System.out.printf("Ejecutadas=%d (%.1f/s) rechazadas=%d fallidas tras reintentos=%d reintentos=%d%n",
+                exitosas.get(), exitosas.get() / transcurrido, rechazadas.get(), fallidas.get(),
+                ejecutor.getReintentadas());
+            System.out.printf("Total inicial=%s total final=%s%n", totalInicial.toPlainString(), totalFinal.toPlainString());
+            if (totalInicial.compareTo(totalFinal) != 0) {
+                System.out.println("ERROR: el dinero total no se conservó");
+                codigoSalida = 1;
+            }
+        } finally {
+            contexto.close();
+        }
+        System.exit(codigoSalida);
+    }
+
+    private static BigDecimal totalSaldos(JdbcTemplate jdbc) {
+        BigDecimal total = jdbc.queryForObject("SELECT COALESCE(SUM(saldo_actual), 0) FROM cuentas_bancarias", BigDecimal.class);
+        return total == null ? BigDecimal.ZERO : total;
+    }
+}
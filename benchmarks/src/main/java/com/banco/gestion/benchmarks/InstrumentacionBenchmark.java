@@ -0,0 +1,74 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.services.CuentaBancariaService;
+import com.banco.gestion.utils.Enums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de los temporizadores por método de servicios y repositorios
+ * Con instrumentado=false se arranca con app.metricas.metodos.habilitado=false; la diferencia
+ * entre ambos valores es el sobrecosto de la instrumentación por operación
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InstrumentacionBenchmark {
+
+    private static final BigDecimal MONTO = new BigDecimal("10.00");
+
+    @Param({"true", "false"})
+    public boolean instrumentado;
+
+    private ConfigurableApplicationContext contexto;
+    private CuentaBancariaService cuentaService;
+    private Long idCuenta;
+    private String numeroCuenta;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("app.metricas.metodos.habilitado=" + instrumentado);
+        cuentaService = contexto.getBean(CuentaBancariaService.class);
+        CuentaBancaria cuenta = new CuentaBancaria();
+        cuenta.setIdTitular(ContextoBenchmark.crearCliente(contexto));
+        cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+        cuenta.setMoneda(Enums.Moneda.COP);
+        cuenta = cuentaService.crearCuenta(cuenta);
+        idCuenta = cuenta.getIdCuenta();
+        numeroCuenta = cuenta.getNumeroCuenta();
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public CuentaBancaria depositar() {
+        return cuentaService.depositar(idCuenta, MONTO);
+    }
+
+    @Benchmark
+    public boolean tieneSaldoSuficiente() {
+        return cuentaService.tieneSaldoSuficiente(numeroCuenta, MONTO);
+    }
+}
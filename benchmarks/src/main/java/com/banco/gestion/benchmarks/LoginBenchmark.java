@@ -0,0 +1,88 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.repositories.UsuarioRepository;
+import com.banco.gestion.services.CacheLogin;
+import com.banco.gestion.services.UsuarioService;
+import com.banco.gestion.utils.Enums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Búsqueda del usuario que inicia sesión, existente e inexistente
+ * Con cacheActiva=true se usa CacheLogin (instantáneas y filtro de Bloom);
+ * con false se consulta UsuarioRepository en cada llamada, como antes de la caché.
+ * Los nombres inexistentes son distintos en cada llamada, como en un ataque de credenciales
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheActiva;
+
+    private ConfigurableApplicationContext contexto;
+    private CacheLogin cacheLogin;
+    private UsuarioRepository usuarioRepository;
+    private final AtomicLong secuenciaInexistentes = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        cacheLogin = contexto.getBean(CacheLogin.class);
+        usuarioRepository = contexto.getBean(UsuarioRepository.class);
+
+        Usuario usuario = new Usuario();
+        usuario.setNombreUsuario("cajero.bench");
+        usuario.setContrasena("clave-benchmark");
+        usuario.setNombreCompleto("Cajero Benchmark");
+        usuario.setCorreoElectronico("cajero.bench@banco.test");
+        usuario.setTelefono("3001234567");
+        usuario.setFechaNacimiento(LocalDate.of(1985, 5, 20));
+        usuario.setDireccion("Calle 1");
+        usuario.setRolSistema(Enums.RolSistema.EMPLEADO_VENTANILLA);
+        contexto.getBean(UsuarioService.class).crearUsuario(usuario);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object usuarioExistente() {
+        return buscar("cajero.bench");
+    }
+
+    @Benchmark
+    public Object usuarioInexistente() {
+        return buscar("intruso." + secuenciaInexistentes.incrementAndGet());
+    }
+
+    private Object buscar(String nombreUsuario) {
+        if (cacheActiva) {
+            return cacheLogin.obtenerPorNombre(nombreUsuario);
+        }
+        return usuarioRepository.findByNombreUsuario(nombreUsuario);
+    }
+}
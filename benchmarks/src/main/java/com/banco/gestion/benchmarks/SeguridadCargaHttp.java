@@ -0,0 +1,23 @@
+package com.banco.gestion.benchmarks;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Seguridad abierta para las pruebas de carga HTTP
+ * La carga mide el servidor y los servicios, no la autenticación; sin esta cadena Spring Boot
+ * exigiría autenticación básica y token CSRF en cada POST
+ */
+@Configuration(proxyBeanMethods = false)
+public class SeguridadCargaHttp {
+
+    @Bean
+    public SecurityFilterChain cadenaCargaHttp(HttpSecurity http) throws Exception {
+        return http
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(solicitudes -> solicitudes.anyRequest().permitAll())
+            .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de las entidades que exponen las respuestas REST
+ * Usa la misma configuración de fechas que el ObjectMapper de Spring Boot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionEntidadesBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CuentaBancaria cuenta;
+    private Transferencia transferencia;
+    private Usuario usuario;
+    private byte[] cuentaJson;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws Exception {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        cuenta = new CuentaBancaria();
+        cuenta.setIdCuenta(1L);
+        cuenta.setNumeroCuenta("CTA00000000000000000018");
+        cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+        cuenta.setIdTitular(10L);
+        cuenta.setSaldoActual(new BigDecimal("1234567.89"));
+
+        transferencia = new Transferencia();
+        transferencia.setIdTransferencia(1L);
+        transferencia.setCuentaOrigen("CTA00000000000000000018");
+        transferencia.setCuentaDestino("CTA00000000000000000026");
+        transferencia.setMonto(new BigDecimal("250000.00"));
+        transferencia.setIdUsuarioCreador(10L);
+
+        usuario = new Usuario();
+        usuario.setIdUsuario(10L);
+        usuario.setNombreUsuario("cliente.bench");
+        usuario.setContrasena("$2a$04$abcdefghijklmnopqrstuv");
+        usuario.setNombreCompleto("Cliente Benchmark");
+        usuario.setCorreoElectronico("cliente.bench@banco.test");
+        usuario.setTelefono("3001234567");
+        usuario.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        usuario.setDireccion("Calle 1");
+        usuario.setRolSistema(Enums.RolSistema.CLIENTE_PERSONA_NATURAL);
+
+        cuentaJson = objectMapper.writeValueAsBytes(cuenta);
+    }
+
+    @Benchmark
+    public byte[] serializarCuenta() throws Exception {
+        return objectMapper.writeValueAsBytes(cuenta);
+    }
+
+    @Benchmark
+    public CuentaBancaria deserializarCuenta() throws Exception {
+        return objectMapper.readValue(cuentaJson, CuentaBancaria.class);
+    }
+
+    @Benchmark
+    public byte[] serializarTransferencia() throws Exception {
+        return objectMapper.writeValueAsBytes(transferencia);
+    }
+
+    @Benchmark
+    public byte[] serializarUsuario() throws Exception {
+        return objectMapper.writeValueAsBytes(usuario);
+    }
+}
@@ -0,0 +1,80 @@
+package com.banco.gestion.benchmarks;
+
+import com.banco.gestion.config.DataSourceLecturaEscritura;
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.services.CuentaBancariaService;
+import com.banco.gestion.utils.Enums;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificación local del enrutamiento de lecturas a réplicas con dos instancias H2
+ * replica-0 apunta a la misma base en memoria que el primario (réplica sin retraso);
+ * replica-1 es una base vacía que nunca recibe el latido, así que debe quedar descartada.
+ * Comprueba que las escrituras van al primario, las lecturas readOnly a replica-0 y que
+ * ninguna lectura llega a la réplica descartada (fallaría por falta de tablas)
+ */
+public final class VerificacionReplicas {
+
+    private static final int LECTURAS = 2_000;
+
+    private VerificacionReplicas() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConfigurableApplicationContext contexto = ContextoBenchmark.iniciar(
+            "app.datasource.replicas.habilitado=true",
+            "app.datasource.replicas.urls=jdbc:h2:mem:banco_bench;MODE=MySQL;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:banco_bench_replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "app.datasource.replicas.intervalo-verificacion-ms=100",
+            "app.datasource.replicas.max-retraso-ms=1000");
+        int codigoSalida = 0;
+        try {
+            DataSourceLecturaEscritura enrutado = contexto.getBean(DataSourceLecturaEscritura.class);
+            CuentaBancariaService cuentaService = contexto.getBean(CuentaBancariaService.class);
+
+            Long idTitular = ContextoBenchmark.crearCliente(contexto);
+            for (int i = 0; i < 10; i++) {
+                CuentaBancaria cuenta = new CuentaBancaria();
+                cuenta.setIdTitular(idTitular);
+                cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+                cuentaService.crearCuenta(cuenta);
+            }
+
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (enrutado.getReplicasDisponibles() == 0 && System.nanoTime() < limite) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+
+            long replicaAntes = enrutado.getLecturasReplica();
+            long primarioAntes = enrutado.getLecturasPrimario();
+            long inicio = System.nanoTime();
+            for (int i = 0; i < LECTURAS; i++) {
+                if (cuentaService.obtenerCuentasCliente(idTitular).size() != 10) {
+                    System.out.println("ERROR: la lectura en réplica no devolvió las cuentas esperadas");
+                    codigoSalida = 1;
+                    break;
+                }
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            long enReplica = enrutado.getLecturasReplica() - replicaAntes;
+            long enPrimario = enrutado.getLecturasPrimario() - primarioAntes;
+            System.out.printf("Réplicas disponibles=%d de 2%n", enrutado.getReplicasDisponibles());
+            System.out.printf("Lecturas readOnly: réplica=%d primario=%d (%.0f/s); escrituras=%d%n",
+                enReplica, enPrimario, LECTURAS / segundos, enrutado.getEscrituras());
+            if (enrutado.getReplicasDisponibles() != 1) {
+                System.out.println("ERROR: la réplica sin latido debía quedar descartada");
+                codigoSalida = 1;
+            }
+            if (enReplica < LECTURAS) {
+                System.out.println("ERROR: las lecturas readOnly debían ir a la réplica disponible");
+                codigoSalida = 1;
+            }
+        } finally {
+            contexto.close();
+        }
+        System.exit(codigoSalida);
+    }
+}
@@ -0,0 +1,75 @@
+package com.banco.gestion.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificador de contraseñas BCrypt
+ * Con app.contrasenas.costo=0 el costo se calibra al arrancar: se mide un hash con el costo mínimo
+ * y se elige el mayor costo cuyo tiempo estimado (cada punto de costo lo duplica) no supere
+ * app.contrasenas.tiempo-objetivo-ms en este equipo. Los hashes existentes guardan su propio costo,
+ * así que siguen verificándose si el costo cambia
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class ConfiguracionContrasenas {
+
+    private static final int COSTO_MINIMO_BCRYPT = 4;
+    private static final int COSTO_MAXIMO_BCRYPT = 31;
+    private static final int MEDICIONES = 3;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.contrasenas.costo:0}") int costo,
+                                           @Value("${app.contrasenas.tiempo-objetivo-ms:250}") long tiempoObjetivoMs,
+                                           @Value("${app.contrasenas.costo-minimo:10}") int costoMinimo,
+                                           @Value("${app.contrasenas.costo-maximo:14}") int costoMaximo) {
+        if (costo != 0) {
+            validarCosto(costo);
+            return new BCryptPasswordEncoder(costo);
+        }
+        validarCosto(costoMinimo);
+        validarCosto(costoMaximo);
+        if (costoMinimo > costoMaximo || tiempoObjetivoMs <= 0) {
+            throw new IllegalArgumentException("Configuración de calibración de BCrypt inválida");
+        }
+        return new BCryptPasswordEncoder(calibrar(tiempoObjetivoMs, costoMinimo, costoMaximo));
+    }
+
+    /**
+     * Mejor de varias mediciones con el costo mínimo (tras una de calentamiento), extrapolada
+     */
+    private static int calibrar(long tiempoObjetivoMs, int costoMinimo, int costoMaximo) {
+        BCryptPasswordEncoder referencia = new BCryptPasswordEncoder(costoMinimo);
+        referencia.encode("calibracion");
+        long mejorNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            referencia.encode("calibracion");
+            mejorNanos = Math.min(mejorNanos, System.nanoTime() - inicio);
+        }
+
+        long objetivoNanos = TimeUnit.MILLISECONDS.toNanos(tiempoObjetivoMs);
+        int costo = costoMinimo;
+        double estimadoNanos = mejorNanos;
+        while (costo < costoMaximo && estimadoNanos * 2 <= objetivoNanos) {
+            costo++;
+            estimadoNanos *= 2;
+        }
+        log.info("Costo BCrypt calibrado: {} (~{} ms por hash; objetivo {} ms, costo {} medido en {} ms)",
+            costo, Math.round(estimadoNanos / 1e6), tiempoObjetivoMs, costoMinimo, Math.round(mejorNanos / 1e6));
+        return costo;
+    }
+
+    private static void validarCosto(int costo) {
+        if (costo < COSTO_MINIMO_BCRYPT || costo > COSTO_MAXIMO_BCRYPT) {
+            throw new IllegalArgumentException("El costo de BCrypt debe estar entre " + COSTO_MINIMO_BCRYPT
+                + " y " + COSTO_MAXIMO_BCRYPT);
+        }
+    }
+}
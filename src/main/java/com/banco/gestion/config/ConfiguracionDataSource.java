@@ -0,0 +1,82 @@
+package com.banco.gestion.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enrutamiento de lecturas a réplicas
+ * Con app.datasource.replicas.habilitado=true reemplaza el DataSource de Spring Boot: el primario
+ * se configura con spring.datasource.* y cada URL de app.datasource.replicas.urls recibe su
+ * propio pool. Los métodos @Transactional(readOnly = true) leen de las réplicas
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.habilitado", havingValue = "true")
+public class ConfiguracionDataSource {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propiedades) {
+        HikariDataSource primario = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean
+    public DataSourceLecturaEscritura dataSourceLecturaEscritura(
+            @Qualifier("dataSourcePrimario") HikariDataSource primario,
+            DataSourceProperties propiedades,
+            @Value("${app.datasource.replicas.urls}") List<String> urls,
+            @Value("${app.datasource.replicas.usuario:${spring.datasource.username:}}") String usuario,
+            @Value("${app.datasource.replicas.contrasena:${spring.datasource.password:}}") String contrasena,
+            @Value("${app.datasource.replicas.tamano-pool:20}") int tamanoPool,
+            @Value("${app.datasource.replicas.verificar-retraso:true}") boolean verificarRetraso,
+            @Value("${app.datasource.replicas.max-retraso-ms:2000}") long maxRetrasoMs,
+            ObjectProvider<MeterRegistry> registry) {
+        if (urls.isEmpty() || tamanoPool <= 0 || maxRetrasoMs <= 0) {
+            throw new IllegalArgumentException("Configuración de réplicas de lectura inválida");
+        }
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(usuario);
+            replica.setPassword(contrasena);
+            if (propiedades.getDriverClassName() != null) {
+                replica.setDriverClassName(propiedades.getDriverClassName());
+            }
+            replica.setMaximumPoolSize(tamanoPool);
+            replica.setReadOnly(true);
+            // Una réplica caída no debe impedir el arranque: queda descartada hasta que responda
+            replica.setInitializationFailTimeout(-1);
+            // Las réplicas no son beans: Actuator no instrumenta sus pools por sí solo
+            registry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+        return new DataSourceLecturaEscritura(primario, replicas, verificarRetraso, maxRetrasoMs);
+    }
+
+    /**
+     * DataSource que usan JPA y JdbcTemplate: difiere la conexión hasta la primera sentencia,
+     * cuando la transacción ya indica si es de solo lectura
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceLecturaEscritura dataSourceLecturaEscritura) {
+        return new LazyConnectionDataSourceProxy(dataSourceLecturaEscritura);
+    }
+}
@@ -0,0 +1,74 @@
+package com.banco.gestion.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Instrumentación con Micrometer
+ * Con app.metricas.metodos.habilitado=true (por defecto) las operaciones de negocio marcadas con
+ * @OperacionMedida registran su latencia en banco.servicio, etiquetada por clase, método y
+ * resultado; con app.metricas.repositorios.habilitado=true (solo para diagnóstico) también cada
+ * método de los repositorios, en banco.repositorio y sin histograma. Además cuenta las
+ * sentencias SQL y los comandos de MongoDB de cada petición HTTP (ver MedidorSolicitudes).
+ * Los pools de Hikari y de MongoDB, las peticiones HTTP y la JVM los instrumenta
+ * Spring Boot Actuator
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConfiguracionMetricas {
+
+    private static final String PROPIEDAD_METODOS = "app.metricas.metodos.habilitado";
+    private static final String PROPIEDAD_REPOSITORIOS = "app.metricas.repositorios.habilitado";
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = PROPIEDAD_METODOS, havingValue = "true", matchIfMissing = true)
+    public static Advisor metricasServicios(ObjectProvider<MeterRegistry> registry) {
+        return asesor("@annotation(com.banco.gestion.config.OperacionMedida)", registry, "banco.servicio");
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = PROPIEDAD_REPOSITORIOS, havingValue = "true")
+    public static Advisor metricasRepositorios(ObjectProvider<MeterRegistry> registry) {
+        return asesor("execution(* org.springframework.data.repository.Repository+.*(..))", registry,
+            "banco.repositorio");
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasSql() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+            MedidorSolicitudes.contarSentenciaSql();
+            return sql;
+        });
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer contadorComandosMongo() {
+        return ajustes -> ajustes.addCommandListener(new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent evento) {
+                MedidorSolicitudes.contarComandoMongo();
+            }
+        });
+    }
+
+    private static Advisor asesor(String expresion, ObjectProvider<MeterRegistry> registry, String nombreMetrica) {
+        AspectJExpressionPointcut corte = new AspectJExpressionPointcut();
+        corte.setExpression(expresion);
+        return new DefaultPointcutAdvisor(corte, new InterceptorMetricasMetodo(registry, nombreMetrica));
+    }
+}
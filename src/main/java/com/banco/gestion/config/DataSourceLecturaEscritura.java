@@ -0,0 +1,210 @@
+package com.banco.gestion.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a réplicas y el resto al primario
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión se pide con la
+ * transacción ya marcada como readOnly. Las réplicas se eligen en rueda entre las disponibles;
+ * una réplica se descarta si no responde o si su retraso supera el máximo, medido con un latido
+ * que el primario escribe en latido_replicacion y que cada réplica debe haber recibido.
+ * Sin réplicas disponibles, o si la conexión a la réplica falla, la lectura va al primario
+ */
+@Slf4j
+public class DataSourceLecturaEscritura extends AbstractDataSource implements AutoCloseable {
+
+    private static final String CREAR_LATIDO =
+        "CREATE TABLE IF NOT EXISTS latido_replicacion (id INT PRIMARY KEY, marca BIGINT NOT NULL)";
+    private static final String ACTUALIZAR_LATIDO = "UPDATE latido_replicacion SET marca = ? WHERE id = 1";
+    private static final String INSERTAR_LATIDO = "INSERT INTO latido_replicacion (id, marca) VALUES (1, ?)";
+    private static final String LEER_LATIDO = "SELECT marca FROM latido_replicacion WHERE id = 1";
+
+    private final HikariDataSource primario;
+    private final List<Replica> replicas;
+    private final boolean verificarRetraso;
+    private final long maxRetrasoMs;
+    private final AtomicInteger siguiente = new AtomicInteger();
+
+    private final LongAdder lecturasReplica = new LongAdder();
+    private final LongAdder lecturasPrimario = new LongAdder();
+    private final LongAdder escrituras = new LongAdder();
+
+    public DataSourceLecturaEscritura(HikariDataSource primario, List<HikariDataSource> replicas,
+                                      boolean verificarRetraso, long maxRetrasoMs) {
+        this.primario = primario;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.verificarRetraso = verificarRetraso;
+        this.maxRetrasoMs = maxRetrasoMs;
+        if (verificarRetraso) {
+            prepararLatido();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!esLectura()) {
+            escrituras.increment();
+            return primario.getConnection();
+        }
+        Replica replica = elegirReplica();
+        if (replica != null) {
+            try {
+                Connection conexion = replica.dataSource.getConnection();
+                lecturasReplica.increment();
+                return conexion;
+            } catch (SQLException e) {
+                replica.disponible = false;
+                log.warn("Réplica {} sin conexión, la lectura va al primario: {}", replica.nombre(), e.getMessage());
+            }
+        }
+        lecturasPrimario.increment();
+        return primario.getConnection();
+    }
+
+    /**
+     * Con credenciales explícitas no se puede elegir réplica: se trata como escritura en el primario
+     */
+    @Override
+    public Connection getConnection(String usuario, String contrasena) throws SQLException {
+        escrituras.increment();
+        return primario.getConnection(usuario, contrasena);
+    }
+
+    /**
+     * Escribir el latido en el primario y actualizar disponibilidad y retraso de cada réplica
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.intervalo-verificacion-ms:500}")
+    public void verificarReplicas() {
+        long ahora = System.currentTimeMillis();
+        if (verificarRetraso) {
+            try (Connection conexion = primario.getConnection();
+                 PreparedStatement sentencia = conexion.prepareStatement(ACTUALIZAR_LATIDO)) {
+                sentencia.setLong(1, ahora);
+                sentencia.executeUpdate();
+            } catch (SQLException e) {
+                log.warn("No fue posible escribir el latido de replicación: {}", e.getMessage());
+            }
+        }
+        for (Replica replica : replicas) {
+            verificar(replica, ahora);
+        }
+    }
+
+    public long getLecturasReplica() {
+        return lecturasReplica.sum();
+    }
+
+    public long getLecturasPrimario() {
+        return lecturasPrimario.sum();
+    }
+
+    public long getEscrituras() {
+        return escrituras.sum();
+    }
+
+    public int getReplicasDisponibles() {
+        int disponibles = 0;
+        for (Replica replica : replicas) {
+            if (replica.disponible) {
+                disponibles++;
+            }
+        }
+        return disponibles;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primario.close();
+    }
+
+    /**
+     * Solo una transacción real marcada readOnly va a réplica; SUPPORTS sin transacción va al primario
+     */
+    private static boolean esLectura() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Replica elegirReplica() {
+        int cantidad = replicas.size();
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), Math.max(cantidad, 1));
+        for (int i = 0; i < cantidad; i++) {
+            Replica replica = replicas.get((inicio + i) % cantidad);
+            if (replica.disponible) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void verificar(Replica replica, long ahora) {
+        boolean disponible;
+        try (Connection conexion = replica.dataSource.getConnection()) {
+            if (verificarRetraso) {
+                try (Statement sentencia = conexion.createStatement();
+                     ResultSet fila = sentencia.executeQuery(LEER_LATIDO)) {
+                    replica.retrasoMs = fila.next() ? Math.max(0, ahora - fila.getLong(1)) : Long.MAX_VALUE;
+                }
+                disponible = replica.retrasoMs <= maxRetrasoMs;
+            } else {
+                disponible = conexion.isValid(1);
+            }
+        } catch (SQLException e) {
+            disponible = false;
+        }
+        if (disponible != replica.disponible) {
+            log.info("Réplica {} {} (retraso {} ms)", replica.nombre(), disponible ? "disponible" : "descartada",
+                replica.retrasoMs == Long.MAX_VALUE ? "desconocido" : replica.retrasoMs);
+        }
+        replica.disponible = disponible;
+    }
+
+    private void prepararLatido() {
+        try (Connection conexion = primario.getConnection();
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(CREAR_LATIDO);
+            try (PreparedStatement actualizar = conexion.prepareStatement(ACTUALIZAR_LATIDO)) {
+                actualizar.setLong(1, System.currentTimeMillis());
+                if (actualizar.executeUpdate() == 0) {
+                    try (PreparedStatement insertar = conexion.prepareStatement(INSERTAR_LATIDO)) {
+                        insertar.setLong(1, System.currentTimeMillis());
+                        insertar.executeUpdate();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No fue posible preparar el latido de replicación", e);
+        }
+    }
+
+    /**
+     * Pool de una réplica con su estado; arranca descartada hasta la primera verificación
+     */
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean disponible;
+        private volatile long retrasoMs = Long.MAX_VALUE;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String nombre() {
+            return dataSource.getPoolName();
+        }
+    }
+}
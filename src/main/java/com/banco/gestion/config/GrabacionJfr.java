@@ -0,0 +1,90 @@
+package com.banco.gestion.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Grabación continua de JDK Flight Recorder (app.jfr.grabacion.activa=true)
+ * Combina el perfil "default" del JDK con jfr/banco.jfc y conserva en disco los últimos
+ * app.jfr.grabacion.edad-maxima-minutos. Al detenerse la aplicación escribe la grabación en
+ * app.jfr.grabacion.directorio; en caliente se obtiene con "jcmd <pid> JFR.dump name=banco"
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.jfr.grabacion.activa", havingValue = "true")
+public class GrabacionJfr {
+
+    private static final String PERFIL = "jfr/banco.jfc";
+    private static final String NOMBRE = "banco";
+
+    private final Recording grabacion;
+    private final Path archivo;
+
+    public GrabacionJfr(@Value("${app.jfr.grabacion.directorio:jfr}") String directorio,
+                        @Value("${app.jfr.grabacion.edad-maxima-minutos:60}") long edadMaximaMinutos,
+                        @Value("${app.jfr.grabacion.tamano-maximo-mb:250}") long tamanoMaximoMb)
+            throws IOException, ParseException {
+        if (edadMaximaMinutos <= 0 || tamanoMaximoMb <= 0) {
+            throw new IllegalArgumentException("La edad y el tamaño máximos de la grabación JFR deben ser positivos");
+        }
+        Path carpeta = Files.createDirectories(Path.of(directorio));
+        this.archivo = carpeta.resolve(NOMBRE + "-"
+            + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+
+        this.grabacion = new Recording(ajustes());
+        grabacion.setName(NOMBRE);
+        grabacion.setToDisk(true);
+        grabacion.setMaxAge(Duration.ofMinutes(edadMaximaMinutos));
+        grabacion.setMaxSize(tamanoMaximoMb * 1024 * 1024);
+        grabacion.setDestination(archivo);
+        grabacion.setDumpOnExit(true);
+    }
+
+    /**
+     * Ajustes del perfil "default" con los de banco.jfc por encima
+     */
+    private static Map<String, String> ajustes() throws IOException, ParseException {
+        Map<String, String> ajustes = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader perfil = new InputStreamReader(new ClassPathResource(PERFIL).getInputStream(),
+                StandardCharsets.UTF_8)) {
+            ajustes.putAll(Configuration.create(perfil).getSettings());
+        }
+        return ajustes;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        grabacion.start();
+        log.info("Grabación JFR '{}' iniciada; se escribirá en {}", NOMBRE, archivo.toAbsolutePath());
+    }
+
+    /**
+     * Detener escribe la grabación en el destino configurado
+     */
+    @PreDestroy
+    void detener() {
+        grabacion.stop();
+        grabacion.close();
+        log.info("Grabación JFR escrita en {}", archivo.toAbsolutePath());
+    }
+}
@@ -0,0 +1,114 @@
+package com.banco.gestion.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temporizador por método para servicios y repositorios
+ * Los Timer de cada clase y método se crean en la primera llamada y se reutilizan: una llamada
+ * solo consulta dos mapas y lee el reloj, sin armar etiquetas. Las llamadas que terminan en
+ * excepción se registran en un Timer aparte (resultado=error). Solo los métodos con
+ * @OperacionMedida(histograma = true) publican histograma
+ */
+public class InterceptorMetricasMetodo implements MethodInterceptor {
+
+    private static final String PAQUETE_APLICACION = "com.banco.gestion.";
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final String nombreMetrica;
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<Method, Temporizadores>> temporizadores =
+        new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    /**
+     * El registro se resuelve en la primera llamada: los asesores se crean antes que el MeterRegistry
+     */
+    public InterceptorMetricasMetodo(ObjectProvider<MeterRegistry> registryProvider, String nombreMetrica) {
+        this.registryProvider = registryProvider;
+        this.nombreMetrica = nombreMetrica;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        Temporizadores medidores = temporizadores(invocacion);
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = invocacion.proceed();
+            medidores.exito().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable e) {
+            medidores.error().record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Temporizadores temporizadores(MethodInvocation invocacion) {
+        Object objetivo = invocacion.getThis();
+        Class<?> clase = objetivo == null ? invocacion.getMethod().getDeclaringClass() : objetivo.getClass();
+        ConcurrentHashMap<Method, Temporizadores> porMetodo = temporizadores.get(clase);
+        if (porMetodo == null) {
+            porMetodo = temporizadores.computeIfAbsent(clase, c -> new ConcurrentHashMap<>());
+        }
+        Temporizadores medidores = porMetodo.get(invocacion.getMethod());
+        if (medidores == null) {
+            medidores = porMetodo.computeIfAbsent(invocacion.getMethod(), metodo -> crear(clase, metodo));
+        }
+        return medidores;
+    }
+
+    private Temporizadores crear(Class<?> clase, Method metodo) {
+        MeterRegistry actual = registry;
+        if (actual == null) {
+            actual = registryProvider.getObject();
+            registry = actual;
+        }
+        String nombreClase = nombreClase(clase);
+        OperacionMedida medida = AnnotatedElementUtils.findMergedAnnotation(metodo, OperacionMedida.class);
+        boolean histograma = medida != null && medida.histograma();
+        return new Temporizadores(
+            temporizador(actual, nombreClase, metodo.getName(), "exito", histograma),
+            temporizador(actual, nombreClase, metodo.getName(), "error", histograma));
+    }
+
+    private Timer temporizador(MeterRegistry actual, String clase, String metodo, String resultado, boolean histograma) {
+        Timer.Builder constructor = Timer.builder(nombreMetrica)
+            .tag("clase", clase)
+            .tag("metodo", metodo)
+            .tag("resultado", resultado);
+        if (histograma) {
+            constructor.publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(30));
+        }
+        return constructor.register(actual);
+    }
+
+    /**
+     * Nombre de la clase de la aplicación: la interfaz del repositorio detrás del proxy de
+     * Spring Data, o la clase del servicio detrás del proxy CGLIB
+     */
+    private static String nombreClase(Class<?> clase) {
+        if (Repository.class.isAssignableFrom(clase)) {
+            for (Class<?> interfaz : ClassUtils.getAllInterfacesForClassAsSet(clase)) {
+                if (interfaz.getName().startsWith(PAQUETE_APLICACION) && Repository.class.isAssignableFrom(interfaz)) {
+                    return interfaz.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(clase).getSimpleName();
+    }
+
+    private record Temporizadores(Timer exito, Timer error) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.banco.gestion.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Cantidad de sentencias SQL (Hibernate) y comandos de MongoDB que genera cada petición HTTP
+ * Los contadores viven en el hilo de la petición; el inspector de sentencias de Hibernate y el
+ * listener de comandos de MongoDB los incrementan. El trabajo que se hace en otros hilos (escritor
+ * de bitácora, relevo del outbox) no se atribuye a la petición. Las sentencias de JdbcTemplate
+ * (lotes, causación) no pasan por Hibernate y no se cuentan
+ */
+@Component
+public class MedidorSolicitudes extends OncePerRequestFilter {
+
+    private static final ThreadLocal<Contadores> ACTUAL = new ThreadLocal<>();
+
+    private final DistributionSummary sentenciasSql;
+    private final DistributionSummary comandosMongo;
+
+    public MedidorSolicitudes(MeterRegistry registry) {
+        this.sentenciasSql = resumen(registry, "sql");
+        this.comandosMongo = resumen(registry, "mongo");
+    }
+
+    public static void contarSentenciaSql() {
+        Contadores contadores = ACTUAL.get();
+        if (contadores != null) {
+            contadores.sql++;
+        }
+    }
+
+    public static void contarComandoMongo() {
+        Contadores contadores = ACTUAL.get();
+        if (contadores != null) {
+            contadores.mongo++;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Contadores contadores = new Contadores();
+        ACTUAL.set(contadores);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ACTUAL.remove();
+            sentenciasSql.record(contadores.sql);
+            comandosMongo.record(contadores.mongo);
+        }
+    }
+
+    private static DistributionSummary resumen(MeterRegistry registry, String origen) {
+        return DistributionSummary.builder("banco.solicitud.consultas")
+            .description("Sentencias SQL o comandos de MongoDB por petición HTTP")
+            .baseUnit("consultas")
+            .tag("origen", origen)
+            .serviceLevelObjectives(0, 1, 2, 5, 10, 20, 50, 100)
+            .register(registry);
+    }
+
+    private static final class Contadores {
+        private int sql;
+        private int mongo;
+    }
+}
@@ -0,0 +1,164 @@
+package com.banco.gestion.config;
+
+import com.banco.gestion.dto.ReporteCausacionIntereses;
+import com.banco.gestion.services.CacheAutorizacion;
+import com.banco.gestion.services.CacheCuentas;
+import com.banco.gestion.services.CacheLogin;
+import com.banco.gestion.services.CausacionIntereses;
+import com.banco.gestion.services.ColaAprobaciones;
+import com.banco.gestion.services.DiarioBitacora;
+import com.banco.gestion.services.EjecutorTransferencias;
+import com.banco.gestion.services.EscritorBitacora;
+import com.banco.gestion.services.ExpiracionTransferenciasService;
+import com.banco.gestion.services.HashContrasenas;
+import com.banco.gestion.services.LiquidacionNetaTransferencias;
+import com.banco.gestion.services.RegistroIdempotencia;
+import com.banco.gestion.services.RelevoBitacora;
+import com.banco.gestion.utils.CacheLocal;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Expone como métricas los contadores que los componentes ya llevan: colas en memoria, bitácora,
+ * transferencias, aprobaciones, causación de intereses, hash de contraseñas, cachés y réplicas
+ * Se leen solo cuando se consulta /actuator/prometheus, sin costo en el camino de las operaciones
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricasAplicacion implements MeterBinder {
+
+    private final EscritorBitacora escritorBitacora;
+    private final RelevoBitacora relevoBitacora;
+    private final DiarioBitacora diarioBitacora;
+    private final EjecutorTransferencias ejecutorTransferencias;
+    private final LiquidacionNetaTransferencias liquidacionNeta;
+    private final ExpiracionTransferenciasService expiracionTransferencias;
+    private final ColaAprobaciones colaAprobaciones;
+    private final CausacionIntereses causacionIntereses;
+    private final CacheCuentas cacheCuentas;
+    private final CacheAutorizacion cacheAutorizacion;
+    private final RegistroIdempotencia registroIdempotencia;
+    private final HashContrasenas hashContrasenas;
+    private final CacheLogin cacheLogin;
+    private final ObjectProvider<DataSourceLecturaEscritura> dataSourceLecturaEscritura;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        medidor(registry, "banco.bitacora.escritor.pendientes", escritorBitacora, EscritorBitacora::getPendientes);
+        medidor(registry, "banco.bitacora.escritor.retenidos", escritorBitacora, EscritorBitacora::getRetenidos);
+        contador(registry, "banco.bitacora.escritor", "encolados", escritorBitacora, EscritorBitacora::getEncolados);
+        contador(registry, "banco.bitacora.escritor", "persistidos", escritorBitacora, EscritorBitacora::getPersistidos);
+        contador(registry, "banco.bitacora.escritor", "descartados", escritorBitacora, EscritorBitacora::getDescartados);
+        contador(registry, "banco.bitacora.escritor", "desviados", escritorBitacora, EscritorBitacora::getDesviados);
+        contador(registry, "banco.bitacora.escritor", "fallidos", escritorBitacora, EscritorBitacora::getFallidos);
+
+        medidor(registry, "banco.bitacora.outbox.pendientes", relevoBitacora, RelevoBitacora::getPendientes);
+        contador(registry, "banco.bitacora.outbox", "entregados", relevoBitacora, RelevoBitacora::getEntregados);
+
+        contador(registry, "banco.bitacora.diario", "anexados", diarioBitacora, DiarioBitacora::getAnexados);
+        contador(registry, "banco.bitacora.diario", "reproducidos", diarioBitacora, DiarioBitacora::getReproducidos);
+        contador(registry, "banco.bitacora.diario", "corruptos", diarioBitacora, DiarioBitacora::getCorruptos);
+
+        contador(registry, "banco.transferencias.ejecutor", "ejecutadas", ejecutorTransferencias,
+            EjecutorTransferencias::getEjecutadas);
+        contador(registry, "banco.transferencias.ejecutor", "reintentadas", ejecutorTransferencias,
+            EjecutorTransferencias::getReintentadas);
+        medidor(registry, "banco.transferencias.liquidacion.encoladas", liquidacionNeta,
+            LiquidacionNetaTransferencias::getEncoladas);
+        contador(registry, "banco.transferencias.liquidacion", "ventanas", liquidacionNeta,
+            LiquidacionNetaTransferencias::getVentanas);
+        contador(registry, "banco.transferencias.liquidacion", "liquidadas", liquidacionNeta,
+            LiquidacionNetaTransferencias::getLiquidadas);
+        contador(registry, "banco.transferencias.liquidacion", "rechazadas", liquidacionNeta,
+            LiquidacionNetaTransferencias::getRechazadas);
+        contador(registry, "banco.transferencias.liquidacion", "individuales", liquidacionNeta,
+            LiquidacionNetaTransferencias::getIndividuales);
+        medidor(registry, "banco.transferencias.expiracion.programadas", expiracionTransferencias,
+            ExpiracionTransferenciasService::getProgramadas);
+
+        Gauge.builder("banco.aprobaciones.pendientes", colaAprobaciones, ColaAprobaciones::getTransferenciasPendientes)
+            .tag("tipo", "transferencia").register(registry);
+        Gauge.builder("banco.aprobaciones.pendientes", colaAprobaciones, ColaAprobaciones::getPrestamosPendientes)
+            .tag("tipo", "prestamo").register(registry);
+        medidor(registry, "banco.aprobaciones.suscriptores", colaAprobaciones, ColaAprobaciones::getSuscriptores);
+        FunctionCounter.builder("banco.aprobaciones.suscriptores.desconectados", colaAprobaciones,
+            ColaAprobaciones::getDesconectadosPorRetraso).register(registry);
+
+        medidor(registry, "banco.intereses.en.ejecucion", causacionIntereses, c -> c.isEnEjecucion() ? 1 : 0);
+        medidor(registry, "banco.intereses.ultima.cuentas.procesadas", causacionIntereses,
+            c -> ultimoReporte(c, ReporteCausacionIntereses::getCuentasProcesadas));
+        medidor(registry, "banco.intereses.ultima.particiones.fallidas", causacionIntereses,
+            c -> ultimoReporte(c, ReporteCausacionIntereses::getParticionesFallidas));
+        medidor(registry, "banco.intereses.ultima.duracion.ms", causacionIntereses,
+            c -> ultimoReporte(c, ReporteCausacionIntereses::getDuracionMs));
+
+        medidor(registry, "banco.contrasenas.hash.cola", hashContrasenas, HashContrasenas::getEnCola);
+        medidor(registry, "banco.contrasenas.hash.activos", hashContrasenas, HashContrasenas::getActivos);
+        medidor(registry, "banco.contrasenas.hash.hilos", hashContrasenas, HashContrasenas::getHilos);
+        contador(registry, "banco.contrasenas.hash", "completados", hashContrasenas, HashContrasenas::getCompletados);
+        contador(registry, "banco.contrasenas.hash", "rechazados", hashContrasenas, HashContrasenas::getRechazados);
+
+        caches(registry, cacheCuentas, CacheCuentas::estadisticas);
+        caches(registry, cacheAutorizacion, c -> List.of(c.estadisticas()));
+        caches(registry, registroIdempotencia, RegistroIdempotencia::estadisticas);
+        caches(registry, cacheLogin, CacheLogin::estadisticas);
+        contador(registry, "banco.login.filtro", "descartados", cacheLogin, CacheLogin::getDescartadosPorFiltro);
+        medidor(registry, "banco.login.filtro.falso.positivo", cacheLogin, CacheLogin::getProbabilidadFalsoPositivo);
+
+        dataSourceLecturaEscritura.ifAvailable(ds -> {
+            contador(registry, "banco.datasource.conexiones", "lectura-replica", ds,
+                DataSourceLecturaEscritura::getLecturasReplica);
+            contador(registry, "banco.datasource.conexiones", "lectura-primario", ds,
+                DataSourceLecturaEscritura::getLecturasPrimario);
+            contador(registry, "banco.datasource.conexiones", "escritura", ds,
+                DataSourceLecturaEscritura::getEscrituras);
+            medidor(registry, "banco.datasource.replicas.disponibles", ds,
+                DataSourceLecturaEscritura::getReplicasDisponibles);
+        });
+    }
+
+    /**
+     * Un medidor por caché y estadística; el nombre de cada caché sale de la primera instantánea.
+     * El objeto medido es el componente dueño de la caché, que vive tanto como el contexto
+     */
+    private static <T> void caches(MeterRegistry registry, T fuente,
+                                   Function<T, List<CacheLocal.Estadisticas>> estadisticas) {
+        List<CacheLocal.Estadisticas> inicial = estadisticas.apply(fuente);
+        for (int i = 0; i < inicial.size(); i++) {
+            int indice = i;
+            String nombre = inicial.get(i).nombre();
+            Function<T, CacheLocal.Estadisticas> cache = f -> estadisticas.apply(f).get(indice);
+            FunctionCounter.builder("banco.cache.consultas", fuente, f -> cache.apply(f).aciertos())
+                .tag("cache", nombre).tag("resultado", "acierto").register(registry);
+            FunctionCounter.builder("banco.cache.consultas", fuente, f -> cache.apply(f).fallos())
+                .tag("cache", nombre).tag("resultado", "fallo").register(registry);
+            FunctionCounter.builder("banco.cache.desalojos", fuente, f -> cache.apply(f).desalojos())
+                .tag("cache", nombre).register(registry);
+            Gauge.builder("banco.cache.tamano", fuente, f -> cache.apply(f).tamano())
+                .tag("cache", nombre).register(registry);
+        }
+    }
+
+    private static <T> void medidor(MeterRegistry registry, String nombre, T objeto, ToDoubleFunction<T> valor) {
+        Gauge.builder(nombre, objeto, valor).register(registry);
+    }
+
+    private static <T> void contador(MeterRegistry registry, String nombre, String evento, T objeto,
+                                     ToDoubleFunction<T> valor) {
+        FunctionCounter.builder(nombre, objeto, valor).tag("evento", evento).register(registry);
+    }
+
+    private static double ultimoReporte(CausacionIntereses causacion, ToDoubleFunction<ReporteCausacionIntereses> valor) {
+        ReporteCausacionIntereses reporte = causacion.getUltimoReporte();
+        return reporte == null ? 0 : valor.applyAsDouble(reporte);
+    }
+}
@@ -0,0 +1,43 @@
+package com.banco.gestion.config;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.banco.gestion.utils.Enums;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Contadores de registros de bitácora por tipo de operación
+ * Se registra un Counter por valor de Enums.TipoOperacion al arrancar; contar es una búsqueda
+ * en un EnumMap
+ */
+@Component
+public class MetricasOperaciones {
+
+    private final EnumMap<Enums.TipoOperacion, Counter> operaciones = new EnumMap<>(Enums.TipoOperacion.class);
+
+    public MetricasOperaciones(MeterRegistry registry) {
+        for (Enums.TipoOperacion tipo : Enums.TipoOperacion.values()) {
+            operaciones.put(tipo, Counter.builder("banco.bitacora.operaciones")
+                .description("Registros de bitácora publicados por tipo de operación")
+                .tag("tipo", tipo.name())
+                .register(registry));
+        }
+    }
+
+    public void contar(BitacoraOperacion bitacora) {
+        Enums.TipoOperacion tipo = bitacora.getDetalle() != null
+            ? bitacora.getDetalle().tipo()
+            : Enums.TipoOperacion.valueOf(bitacora.getTipoOperacion());
+        operaciones.get(tipo).increment();
+    }
+
+    public void contar(List<BitacoraOperacion> bitacoras) {
+        for (BitacoraOperacion bitacora : bitacoras) {
+            contar(bitacora);
+        }
+    }
+}
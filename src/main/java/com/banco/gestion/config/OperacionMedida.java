@@ -0,0 +1,20 @@
+package com.banco.gestion.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Operación de negocio cuya latencia se registra en banco.servicio (ver ConfiguracionMetricas)
+ * Solo se miden los métodos marcados; con histograma=true se publican además los buckets para
+ * calcular percentiles, reservados a las operaciones con objetivo de latencia
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OperacionMedida {
+
+    boolean histograma() default false;
+}
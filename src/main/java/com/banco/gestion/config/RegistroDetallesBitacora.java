@@ -0,0 +1,25 @@
+package com.banco.gestion.config;
+
+import com.banco.gestion.models.DetalleBitacora;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Registra en el contexto de mapeo los tipos de DetalleBitacora
+ * para que sus alias cortos (@TypeAlias) se resuelvan al leer documentos
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RegistroDetallesBitacora {
+
+    private final MongoMappingContext mappingContext;
+
+    @PostConstruct
+    void registrar() {
+        for (Class<?> tipo : DetalleBitacora.class.getPermittedSubclasses()) {
+            mappingContext.getPersistentEntity(tipo);
+        }
+    }
+}
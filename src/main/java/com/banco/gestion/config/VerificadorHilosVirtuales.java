@@ -0,0 +1,67 @@
+package com.banco.gestion.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Verificador del modo de hilos virtuales (spring.threads.virtual.enabled=true)
+ * Avisa si la JVM es anterior a Java 21, donde Spring Boot ignora la propiedad, y detiene el
+ * arranque si el driver de MySQL es anterior a Connector/J 9: sus bloques synchronized alrededor
+ * de la E/S del socket fijan el hilo portador y, con tantas consultas en curso como núcleos,
+ * dejan sin portadores a todos los demás hilos virtuales
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VerificadorHilosVirtuales {
+
+    private static final int VERSION_MINIMA_JAVA = 21;
+    private static final int VERSION_MINIMA_CONNECTOR_J = 9;
+
+    private final DataSource dataSource;
+    private final boolean exigirDriverCompatible;
+
+    public VerificadorHilosVirtuales(DataSource dataSource,
+                                     @Value("${app.hilos-virtuales.exigir-driver-compatible:true}") boolean exigirDriverCompatible) {
+        this.dataSource = dataSource;
+        this.exigirDriverCompatible = exigirDriverCompatible;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificar() {
+        int versionJava = Runtime.version().feature();
+        if (versionJava < VERSION_MINIMA_JAVA) {
+            log.warn("Hilos virtuales solicitados en Java {}: se requiere Java {} (perfil Maven java21); "
+                + "se usan hilos de plataforma", versionJava, VERSION_MINIMA_JAVA);
+            return;
+        }
+
+        try (Connection conexion = dataSource.getConnection()) {
+            DatabaseMetaData metadatos = conexion.getMetaData();
+            if (metadatos.getDriverName().contains("MySQL")
+                    && metadatos.getDriverMajorVersion() < VERSION_MINIMA_CONNECTOR_J) {
+                String mensaje = "El driver " + metadatos.getDriverName() + " " + metadatos.getDriverVersion()
+                    + " usa synchronized en la E/S y fija los hilos virtuales; use Connector/J "
+                    + VERSION_MINIMA_CONNECTOR_J + " o superior (perfil Maven java21)";
+                if (exigirDriverCompatible) {
+                    throw new IllegalStateException(mensaje);
+                }
+                log.warn(mensaje);
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("No fue posible verificar el driver JDBC para hilos virtuales: {}", e.getMessage());
+            return;
+        }
+        log.info("Peticiones web y tareas programadas en hilos virtuales (Java {})", versionJava);
+    }
+}
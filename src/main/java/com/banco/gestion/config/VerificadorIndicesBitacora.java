@@ -0,0 +1,121 @@
+package com.banco.gestion.config;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.banco.gestion.repositories.BitacoraRepository;
+import com.mongodb.client.MongoCollection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verificador de índices de la bitácora
+ * Al arrancar ejecuta explain() sobre cada @Query de BitacoraRepository y detiene
+ * la aplicación si alguna consulta se resuelve con un escaneo completo (COLLSCAN)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.bitacora.verificar-indices", havingValue = "true")
+public class VerificadorIndicesBitacora {
+
+    private static final Pattern PARAMETRO = Pattern.compile("\\?(\\d+)");
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificar() {
+        List<String> sinIndice = consultasConEscaneoCompleto();
+        if (!sinIndice.isEmpty()) {
+            throw new IllegalStateException("Consultas de bitácora sin índice (COLLSCAN): " + sinIndice);
+        }
+        log.info("Todas las consultas @Query de BitacoraRepository usan índices");
+    }
+
+    /**
+     * Nombres de los métodos cuyo plan ganador contiene una etapa COLLSCAN
+     */
+    public List<String> consultasConEscaneoCompleto() {
+        MongoCollection<Document> coleccion = mongoTemplate.getCollection(
+            mongoTemplate.getCollectionName(BitacoraOperacion.class));
+
+        List<String> sinIndice = new ArrayList<>();
+        for (Method metodo : BitacoraRepository.class.getDeclaredMethods()) {
+            Query consulta = metodo.getAnnotation(Query.class);
+            if (consulta == null || consulta.value().isBlank()) {
+                continue;
+            }
+            Document filtro = Document.parse(sustituirParametros(consulta.value(), metodo.getParameterTypes()));
+            Document plan = coleccion.find(filtro).explain();
+            Object planGanador = plan.get("queryPlanner", Document.class).get("winningPlan");
+            if (contieneEscaneoCompleto(planGanador)) {
+                log.error("La consulta {} se resuelve con COLLSCAN: {}", metodo.getName(), filtro.toJson());
+                sinIndice.add(metodo.getName());
+            }
+        }
+        return sinIndice;
+    }
+
+    /**
+     * Reemplaza los marcadores ?n por valores de ejemplo en JSON extendido según el tipo del parámetro
+     */
+    private String sustituirParametros(String consulta, Class<?>[] tipos) {
+        Matcher matcher = PARAMETRO.matcher(consulta);
+        StringBuilder resultado = new StringBuilder();
+        while (matcher.find()) {
+            int indice = Integer.parseInt(matcher.group(1));
+            matcher.appendReplacement(resultado, Matcher.quoteReplacement(valorDeEjemplo(tipos[indice])));
+        }
+        matcher.appendTail(resultado);
+        return resultado.toString();
+    }
+
+    private String valorDeEjemplo(Class<?> tipo) {
+        if (tipo == Long.class || tipo == long.class) {
+            return "{ \"$numberLong\": \"1\" }";
+        }
+        if (tipo == Integer.class || tipo == int.class) {
+            return "1";
+        }
+        if (tipo == LocalDateTime.class) {
+            return "{ \"$date\": \"2024-01-01T00:00:00Z\" }";
+        }
+        if (tipo == String.class) {
+            return "\"VERIFICACION\"";
+        }
+        return "null";
+    }
+
+    private boolean contieneEscaneoCompleto(Object nodo) {
+        if (nodo instanceof Map<?, ?> mapa) {
+            if ("COLLSCAN".equals(mapa.get("stage"))) {
+                return true;
+            }
+            for (Object valor : mapa.values()) {
+                if (contieneEscaneoCompleto(valor)) {
+                    return true;
+                }
+            }
+        } else if (nodo instanceof List<?> lista) {
+            for (Object valor : lista) {
+                if (contieneEscaneoCompleto(valor)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,160 @@
+package com.banco.gestion.controllers;
+
+import com.banco.gestion.dto.BitacoraResumen;
+import com.banco.gestion.dto.PaginaBitacora;
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.services.BitacoraService;
+import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Controlador de consulta de bitácora
+ * Todas las consultas son paginadas: la respuesta trae siguiente_token, que se envía como
+ * parámetro token para pedir la página siguiente. La exportación completa se entrega como
+ * NDJSON leído por cursor, sin cargar las operaciones en memoria
+ */
+@RestController
+@RequestMapping("/bitacora")
+@RequiredArgsConstructor
+public class BitacoraController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final Set<Enums.RolSistema> ANALISTAS = EnumSet.of(Enums.RolSistema.ANALISTA_INTERNO);
+
+    private final BitacoraService bitacoraService;
+    private final UsuarioAutenticado usuarioAutenticado;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Todas las operaciones, las más antiguas primero (Analista)
+     */
+    @GetMapping
+    public PaginaBitacora todas(@RequestParam(required = false) String token,
+                                @RequestParam(defaultValue = "100") int tamano,
+                                Principal principal) {
+        usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return bitacoraService.obtenerPagina(token, tamano);
+    }
+
+    /**
+     * Operaciones de un usuario (Analista, o el propio usuario)
+     */
+    @GetMapping("/usuario/{idUsuario}")
+    public PaginaBitacora porUsuario(@PathVariable Long idUsuario,
+                                     @RequestParam(required = false) String token,
+                                     @RequestParam(defaultValue = "100") int tamano,
+                                     Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigir(principal);
+        if (!usuario.getIdUsuario().equals(idUsuario) && !usuarioAutenticado.tieneAlgunRol(usuario, ANALISTAS)) {
+            throw new AccessDeniedException("Solo puede consultar sus propias operaciones");
+        }
+        return bitacoraService.obtenerPaginaPorUsuario(idUsuario, token, tamano);
+    }
+
+    /**
+     * Operaciones de un tipo (Analista)
+     */
+    @GetMapping("/tipo/{tipo}")
+    public PaginaBitacora porTipo(@PathVariable String tipo,
+                                  @RequestParam(required = false) String token,
+                                  @RequestParam(defaultValue = "100") int tamano,
+                                  Principal principal) {
+        usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return bitacoraService.obtenerPaginaPorTipo(tipo, token, tamano);
+    }
+
+    /**
+     * Operaciones sobre un producto (Analista)
+     */
+    @GetMapping("/producto/{idProducto}")
+    public PaginaBitacora porProducto(@PathVariable String idProducto,
+                                      @RequestParam(required = false) String token,
+                                      @RequestParam(defaultValue = "100") int tamano,
+                                      Principal principal) {
+        usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return bitacoraService.obtenerPaginaPorProducto(idProducto, token, tamano);
+    }
+
+    /**
+     * Operaciones entre dos fechas, inclusive (Analista)
+     */
+    @GetMapping("/rango")
+    public PaginaBitacora porRango(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+                                   @RequestParam(required = false) String token,
+                                   @RequestParam(defaultValue = "100") int tamano,
+                                   Principal principal) {
+        usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return bitacoraService.obtenerPaginaPorRango(desde, hasta, token, tamano);
+    }
+
+    /**
+     * Exportación en NDJSON (un resumen por línea) de todas las operaciones o de las de un
+     * usuario, un tipo o un rango de fechas; a lo sumo un filtro (Analista)
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false) Long idUsuario,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            Principal principal) {
+        usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        if ((desde == null) != (hasta == null)) {
+            throw new IllegalArgumentException("El rango de exportación requiere desde y hasta");
+        }
+        int filtros = (idUsuario != null ? 1 : 0) + (tipo != null ? 1 : 0) + (desde != null ? 1 : 0);
+        if (filtros > 1) {
+            throw new IllegalArgumentException("La exportación admite un solo filtro: usuario, tipo o rango");
+        }
+
+        Supplier<Stream<BitacoraResumen>> origen;
+        if (idUsuario != null) {
+            origen = () -> bitacoraService.exportarPorUsuario(idUsuario);
+        } else if (tipo != null) {
+            origen = () -> bitacoraService.exportarPorTipo(tipo);
+        } else if (desde != null) {
+            origen = () -> bitacoraService.exportarPorRango(desde, hasta);
+        } else {
+            origen = bitacoraService::exportarTodas;
+        }
+        return ResponseEntity.ok().contentType(NDJSON).body(salida -> escribirLineas(origen, salida));
+    }
+
+    /**
+     * El cursor de MongoDB se abre al empezar a escribir y se cierra al terminar o si el cliente corta
+     */
+    private void escribirLineas(Supplier<Stream<BitacoraResumen>> origen, OutputStream salida) throws IOException {
+        ObjectWriter escritor = objectMapper.writerFor(BitacoraResumen.class);
+        try (Stream<BitacoraResumen> resumenes = origen.get()) {
+            Iterator<BitacoraResumen> iterador = resumenes.iterator();
+            while (iterador.hasNext()) {
+                salida.write(escritor.writeValueAsBytes(iterador.next()));
+                salida.write('\n');
+            }
+        }
+        salida.flush();
+    }
+}
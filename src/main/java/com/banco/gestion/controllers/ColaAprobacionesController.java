@@ -0,0 +1,118 @@
+package com.banco.gestion.controllers;
+
+import com.banco.gestion.dto.ElementoAprobacion;
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.services.ColaAprobaciones;
+import com.banco.gestion.utils.Enums;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Controlador de colas de aprobación
+ * Supervisores de empresa: transferencias en espera de su empresa.
+ * Analistas internos: préstamos en estudio, con asignación exclusiva
+ */
+@RestController
+@RequestMapping("/aprobaciones")
+@RequiredArgsConstructor
+public class ColaAprobacionesController {
+
+    private static final int LIMITE_MAXIMO = 1000;
+    private static final Set<Enums.RolSistema> SUPERVISORES = EnumSet.of(Enums.RolSistema.SUPERVISOR_EMPRESA);
+    private static final Set<Enums.RolSistema> ANALISTAS = EnumSet.of(Enums.RolSistema.ANALISTA_INTERNO);
+
+    private final ColaAprobaciones colaAprobaciones;
+    private final UsuarioAutenticado usuarioAutenticado;
+
+    /**
+     * Transferencias en espera de la empresa del supervisor, las más antiguas primero
+     */
+    @GetMapping("/transferencias")
+    public List<ElementoAprobacion> transferencias(@RequestParam(defaultValue = "100") int limite,
+                                                   Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, SUPERVISORES);
+        return colaAprobaciones.pendientesTransferencias(usuario.getIdClienteRelacionado(), acotar(limite));
+    }
+
+    /**
+     * Flujo SSE de la cola de transferencias: "instantanea" al conectar y luego "alta"/"baja"
+     */
+    @GetMapping(value = "/transferencias/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter transferenciasStream(Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, SUPERVISORES);
+        return colaAprobaciones.suscribirTransferencias(usuario.getIdClienteRelacionado());
+    }
+
+    /**
+     * Préstamos en estudio, opcionalmente de un cliente
+     */
+    @GetMapping("/prestamos")
+    public List<ElementoAprobacion> prestamos(@RequestParam(required = false) Long idCliente,
+                                              @RequestParam(defaultValue = "100") int limite,
+                                              Principal principal) {
+        usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return colaAprobaciones.pendientesPrestamos(idCliente, acotar(limite));
+    }
+
+    /**
+     * Flujo SSE de la cola de préstamos: "instantanea" al conectar y luego "alta"/"asignado"/"baja"
+     */
+    @GetMapping(value = "/prestamos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter prestamosStream(@RequestParam(required = false) Long idCliente,
+                                      Principal principal) {
+        usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return colaAprobaciones.suscribirPrestamos(idCliente);
+    }
+
+    /**
+     * Tomar un préstamo concreto para estudiarlo
+     */
+    @PostMapping("/prestamos/{idPrestamo}/reclamar")
+    public ElementoAprobacion reclamarPrestamo(@PathVariable Long idPrestamo,
+                                               Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return colaAprobaciones.reclamarPrestamo(idPrestamo, usuario.getIdUsuario());
+    }
+
+    /**
+     * Tomar el préstamo sin asignar más antiguo; 204 si no hay ninguno disponible
+     */
+    @PostMapping("/prestamos/siguiente")
+    public ResponseEntity<ElementoAprobacion> reclamarSiguientePrestamo(Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        return colaAprobaciones.reclamarSiguientePrestamo(usuario.getIdUsuario())
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Devolver a la cola un préstamo tomado
+     */
+    @PostMapping("/prestamos/{idPrestamo}/liberar")
+    public ResponseEntity<Void> liberarPrestamo(@PathVariable Long idPrestamo,
+                                                Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, ANALISTAS);
+        colaAprobaciones.liberarPrestamo(idPrestamo, usuario.getIdUsuario());
+        return ResponseEntity.noContent().build();
+    }
+
+    private static int acotar(int limite) {
+        if (limite <= 0 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
+}
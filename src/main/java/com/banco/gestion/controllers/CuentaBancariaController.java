@@ -0,0 +1,112 @@
+package com.banco.gestion.controllers;
+
+import com.banco.gestion.dto.ReporteLoteDeposito;
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.services.CuentaBancariaService;
+import com.banco.gestion.utils.Enums;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Controlador de Cuentas Bancarias
+ * Depósitos y retiros con clave de idempotencia y depósitos en lote (nómina)
+ */
+@RestController
+@RequestMapping("/cuentas")
+@RequiredArgsConstructor
+public class CuentaBancariaController {
+
+    /**
+     * Los depósitos en lote acreditan cuentas de terceros: solo personal del banco
+     */
+    private static final Set<Enums.RolSistema> ROLES_DEPOSITO_LOTE =
+        EnumSet.of(Enums.RolSistema.EMPLEADO_VENTANILLA, Enums.RolSistema.ANALISTA_INTERNO);
+
+    /**
+     * Depósitos y retiros: ventanilla en cualquier cuenta, los clientes solo en las suyas
+     */
+    private static final Set<Enums.RolSistema> ROLES_MOVIMIENTO_CUALQUIER_CUENTA =
+        EnumSet.of(Enums.RolSistema.EMPLEADO_VENTANILLA);
+    private static final Set<Enums.RolSistema> ROLES_MOVIMIENTO_CUENTA_PROPIA =
+        EnumSet.of(Enums.RolSistema.CLIENTE_PERSONA_NATURAL, Enums.RolSistema.CLIENTE_EMPRESA);
+
+    private final CuentaBancariaService cuentaService;
+    private final UsuarioAutenticado usuarioAutenticado;
+
+    /**
+     * Depósito; con el encabezado Idempotency-Key un reintento devuelve el resultado original
+     */
+    @PostMapping("/{idCuenta}/depositar")
+    public CuentaBancaria depositar(@PathVariable Long idCuenta,
+                                    @RequestParam BigDecimal monto,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+                                    Principal principal) {
+        Usuario usuario = exigirAccesoCuenta(principal, idCuenta);
+        return cuentaService.depositar(idCuenta, monto, usuario.getIdUsuario(), claveIdempotencia);
+    }
+
+    /**
+     * Retiro; con el encabezado Idempotency-Key un reintento devuelve el resultado original
+     */
+    @PostMapping("/{idCuenta}/retirar")
+    public CuentaBancaria retirar(@PathVariable Long idCuenta,
+                                  @RequestParam BigDecimal monto,
+                                  @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+                                  Principal principal) {
+        Usuario usuario = exigirAccesoCuenta(principal, idCuenta);
+        return cuentaService.retirar(idCuenta, monto, usuario.getIdUsuario(), claveIdempotencia);
+    }
+
+    /**
+     * Depósito en lote en JSON (arreglo de líneas), leído en flujo; el número de línea es la
+     * posición en el arreglo (desde 1)
+     */
+    @PostMapping(value = "/depositos-lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ReporteLoteDeposito depositarLote(InputStream cuerpo, Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, ROLES_DEPOSITO_LOTE);
+        return cuentaService.depositarLoteJson(cuerpo, usuario.getIdUsuario(), usuario.getRolSistema().name());
+    }
+
+    /**
+     * Depósito en lote desde un archivo CSV "numero_cuenta,monto"; se procesa en flujo
+     */
+    @PostMapping(value = "/depositos-lote/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ReporteLoteDeposito depositarLoteCsv(@RequestParam("archivo") MultipartFile archivo,
+                                                Principal principal) throws IOException {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, ROLES_DEPOSITO_LOTE);
+        return cuentaService.depositarLoteCsv(
+            new InputStreamReader(archivo.getInputStream(), StandardCharsets.UTF_8),
+            usuario.getIdUsuario(),
+            usuario.getRolSistema().name());
+    }
+
+    private Usuario exigirAccesoCuenta(Principal principal, Long idCuenta) {
+        Usuario usuario = usuarioAutenticado.exigir(principal);
+        if (usuarioAutenticado.tieneAlgunRol(usuario, ROLES_MOVIMIENTO_CUALQUIER_CUENTA)) {
+            return usuario;
+        }
+        if (!usuarioAutenticado.tieneAlgunRol(usuario, ROLES_MOVIMIENTO_CUENTA_PROPIA)
+                || !cuentaService.esTitular(idCuenta, usuario.getIdClienteRelacionado())) {
+            throw new AccessDeniedException("No tiene permisos para operar esta cuenta");
+        }
+        return usuario;
+    }
+}
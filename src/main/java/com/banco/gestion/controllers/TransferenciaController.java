@@ -0,0 +1,110 @@
+package com.banco.gestion.controllers;
+
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.services.TransferenciaService;
+import com.banco.gestion.utils.Enums;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.security.Principal;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador de Transferencias
+ * Se transfiere desde cuentas propias: las del cliente, o las de la empresa para sus empleados.
+ * La respuesta llega cuando la transferencia se ejecutó, de inmediato o al cerrar su ventana
+ * de liquidación, o cuando quedó en espera de aprobación
+ */
+@RestController
+@RequestMapping("/transferencias")
+@RequiredArgsConstructor
+public class TransferenciaController {
+
+    private static final Set<Enums.RolSistema> ROLES_CREACION = EnumSet.of(
+        Enums.RolSistema.CLIENTE_PERSONA_NATURAL, Enums.RolSistema.CLIENTE_EMPRESA, Enums.RolSistema.EMPLEADO_EMPRESA);
+    private static final Set<Enums.RolSistema> SUPERVISORES = EnumSet.of(Enums.RolSistema.SUPERVISOR_EMPRESA);
+    private static final Set<Enums.RolSistema> ANALISTAS = EnumSet.of(Enums.RolSistema.ANALISTA_INTERNO);
+
+    private final TransferenciaService transferenciaService;
+    private final UsuarioAutenticado usuarioAutenticado;
+
+    /**
+     * Crear transferencia desde una cuenta propia o de la empresa del usuario
+     */
+    @PostMapping
+    public CompletableFuture<Transferencia> crear(@RequestParam String cuentaOrigen,
+                                                  @RequestParam String cuentaDestino,
+                                                  @RequestParam BigDecimal monto,
+                                                  Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, ROLES_CREACION);
+        exigirTitularOrigen(usuario, cuentaOrigen);
+        return transferenciaService.crear(cuentaOrigen, cuentaDestino, monto,
+            usuario.getIdUsuario(), usuario.getRolSistema().name());
+    }
+
+    /**
+     * Obtener transferencia (creador, titular de la cuenta origen o Analista)
+     */
+    @GetMapping("/{idTransferencia}")
+    public Transferencia obtener(@PathVariable Long idTransferencia, Principal principal) {
+        Usuario usuario = usuarioAutenticado.exigir(principal);
+        Transferencia transferencia = transferenciaService.obtenerPorId(idTransferencia)
+            .orElseThrow(() -> new IllegalArgumentException("Transferencia no encontrada"));
+        if (!usuario.getIdUsuario().equals(transferencia.getIdUsuarioCreador())
+                && !esTitular(usuario, transferencia.getCuentaOrigen())
+                && !usuarioAutenticado.tieneAlgunRol(usuario, ANALISTAS)) {
+            throw new AccessDeniedException("No tiene permisos para consultar esta transferencia");
+        }
+        return transferencia;
+    }
+
+    /**
+     * Aprobar y ejecutar una transferencia en espera de la empresa del supervisor
+     */
+    @PutMapping("/{idTransferencia}/aprobar")
+    public CompletableFuture<Transferencia> aprobar(@PathVariable Long idTransferencia, Principal principal) {
+        Usuario usuario = exigirSupervisorDe(principal, idTransferencia);
+        return transferenciaService.aprobar(idTransferencia, usuario.getIdUsuario(), usuario.getRolSistema().name());
+    }
+
+    /**
+     * Rechazar una transferencia en espera de la empresa del supervisor
+     */
+    @PutMapping("/{idTransferencia}/rechazar")
+    public Transferencia rechazar(@PathVariable Long idTransferencia,
+                                  @RequestParam String razon,
+                                  Principal principal) {
+        Usuario usuario = exigirSupervisorDe(principal, idTransferencia);
+        return transferenciaService.rechazar(idTransferencia, usuario.getIdUsuario(), usuario.getRolSistema().name(), razon);
+    }
+
+    private Usuario exigirSupervisorDe(Principal principal, Long idTransferencia) {
+        Usuario usuario = usuarioAutenticado.exigirRol(principal, SUPERVISORES);
+        Transferencia transferencia = transferenciaService.obtenerPorId(idTransferencia)
+            .orElseThrow(() -> new IllegalArgumentException("Transferencia no encontrada"));
+        exigirTitularOrigen(usuario, transferencia.getCuentaOrigen());
+        return usuario;
+    }
+
+    private void exigirTitularOrigen(Usuario usuario, String cuentaOrigen) {
+        if (!esTitular(usuario, cuentaOrigen)) {
+            throw new AccessDeniedException("No tiene permisos para operar la cuenta origen");
+        }
+    }
+
+    private boolean esTitular(Usuario usuario, String numeroCuenta) {
+        Long titular = transferenciaService.titularDeCuenta(numeroCuenta);
+        return titular != null && titular.equals(usuario.getIdClienteRelacionado());
+    }
+}
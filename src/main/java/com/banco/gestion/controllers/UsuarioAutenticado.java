@@ -0,0 +1,59 @@
+package com.banco.gestion.controllers;
+
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.services.UsuarioService;
+import com.banco.gestion.utils.Enums;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Usuario que realiza la petición
+ * El principal autenticado no siempre es un Usuario (depende del mecanismo de autenticación),
+ * así que se resuelve por el nombre autenticado; rol y estado se verifican con UsuarioService
+ */
+@Component
+@RequiredArgsConstructor
+public class UsuarioAutenticado {
+
+    private final UsuarioService usuarioService;
+
+    /**
+     * Usuario autenticado y habilitado para operar
+     */
+    public Usuario exigir(Principal principal) {
+        if (principal == null) {
+            throw new AccessDeniedException("Se requiere autenticación");
+        }
+        Usuario usuario = usuarioService.obtenerPorNombreUsuario(principal.getName())
+            .orElseThrow(() -> new AccessDeniedException("Usuario autenticado no registrado"));
+        if (!usuarioService.puedeOperar(usuario.getIdUsuario())) {
+            throw new AccessDeniedException("El usuario no está habilitado para operar");
+        }
+        return usuario;
+    }
+
+    /**
+     * Usuario autenticado con alguno de los roles indicados
+     */
+    public Usuario exigirRol(Principal principal, Set<Enums.RolSistema> roles) {
+        Usuario usuario = exigir(principal);
+        if (!tieneAlgunRol(usuario, roles)) {
+            throw new AccessDeniedException("Operación permitida solo para " + roles.stream()
+                .map(Enums.RolSistema::getDescripcion)
+                .collect(Collectors.joining(", ")));
+        }
+        return usuario;
+    }
+
+    /**
+     * Rol vigente del usuario (caché de autorización), no el del objeto resuelto
+     */
+    public boolean tieneAlgunRol(Usuario usuario, Set<Enums.RolSistema> roles) {
+        return usuarioService.tieneAlgunRol(usuario.getIdUsuario(), roles);
+    }
+}
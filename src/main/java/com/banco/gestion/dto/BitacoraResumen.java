@@ -0,0 +1,24 @@
+package com.banco.gestion.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de BitacoraOperacion sin datos de detalle
+ * Usada en recorridos por cursor y exportaciones para reducir el tamaño transferido
+ */
+public interface BitacoraResumen {
+
+    String getIdBitacora();
+
+    String getTipoOperacion();
+
+    LocalDateTime getFechaHoraOperacion();
+
+    Long getIdUsuario();
+
+    String getRolUsuario();
+
+    String getIdProductoAfectado();
+
+    String getDescripcion();
+}
@@ -0,0 +1,58 @@
+package com.banco.gestion.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por conjunto de claves (fecha_hora_operacion + _id)
+ * Se expone a los clientes REST como un token opaco en Base64 URL
+ */
+@Getter
+@AllArgsConstructor
+public class CursorBitacora {
+
+    private static final char SEPARADOR = '|';
+
+    private final LocalDateTime fechaHoraOperacion;
+    private final String idBitacora;
+
+    /**
+     * Valor del _id para comparar en MongoDB (ObjectId cuando el identificador lo es)
+     */
+    public Object idComoValor() {
+        return ObjectId.isValid(idBitacora) ? new ObjectId(idBitacora) : idBitacora;
+    }
+
+    /**
+     * Codificar el cursor como token de página
+     */
+    public String codificar() {
+        String valor = fechaHoraOperacion.toString() + SEPARADOR + idBitacora;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodificar un token de página; null o vacío indica la primera página
+     */
+    public static CursorBitacora decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador <= 0 || separador == valor.length() - 1) {
+                throw new IllegalArgumentException("Token de página inválido");
+            }
+            return new CursorBitacora(LocalDateTime.parse(valor.substring(0, separador)), valor.substring(separador + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Token de página inválido", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.banco.gestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Elemento pendiente de aprobación en la cola de supervisores o analistas
+ * Para transferencias id_empresa es el titular de la cuenta origen; para préstamos, el solicitante
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ElementoAprobacion {
+
+    @JsonProperty("tipo")
+    private final String tipo;
+
+    @JsonProperty("id")
+    private final Long id;
+
+    @JsonProperty("id_empresa")
+    private final Long idEmpresa;
+
+    @JsonProperty("monto")
+    private final BigDecimal monto;
+
+    @JsonProperty("fecha_creacion")
+    private final LocalDateTime fechaCreacion;
+
+    @JsonProperty("cuenta_origen")
+    private final String cuentaOrigen;
+
+    @JsonProperty("cuenta_destino")
+    private final String cuentaDestino;
+
+    @JsonProperty("tipo_prestamo")
+    private final String tipoPrestamo;
+
+    @JsonProperty("id_analista_asignado")
+    private final Long idAnalistaAsignado;
+}
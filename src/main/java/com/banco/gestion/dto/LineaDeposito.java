@@ -0,0 +1,27 @@
+package com.banco.gestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Línea de un depósito en lote (por ejemplo, un pago de nómina)
+ * linea identifica la línea en el reporte de resultados
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaDeposito {
+
+    @JsonProperty("linea")
+    private int linea;
+
+    @JsonProperty("numero_cuenta")
+    private String numeroCuenta;
+
+    @JsonProperty("monto")
+    private BigDecimal monto;
+}
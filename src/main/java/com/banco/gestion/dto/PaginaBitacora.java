@@ -0,0 +1,23 @@
+package com.banco.gestion.dto;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página de operaciones de bitácora
+ * siguiente_token es null cuando no hay más resultados
+ */
+@Getter
+@AllArgsConstructor
+public class PaginaBitacora {
+
+    @JsonProperty("elementos")
+    private final List<BitacoraOperacion> elementos;
+
+    @JsonProperty("siguiente_token")
+    private final String siguienteToken;
+}
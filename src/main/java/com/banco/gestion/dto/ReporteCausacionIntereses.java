@@ -0,0 +1,48 @@
+package com.banco.gestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Reporte de una ejecución de la causación diaria de intereses
+ * Las cifras de cuentas y montos son las de esta ejecución; las particiones completadas en una
+ * ejecución anterior para la misma fecha de corte solo se cuentan como omitidas
+ */
+@Getter
+@AllArgsConstructor
+public class ReporteCausacionIntereses {
+
+    @JsonProperty("fecha_corte")
+    private final LocalDate fechaCorte;
+
+    @JsonProperty("particiones_procesadas")
+    private final int particionesProcesadas;
+
+    @JsonProperty("particiones_omitidas")
+    private final int particionesOmitidas;
+
+    @JsonProperty("particiones_fallidas")
+    private final int particionesFallidas;
+
+    @JsonProperty("cuentas_procesadas")
+    private final long cuentasProcesadas;
+
+    @JsonProperty("cuentas_abonadas")
+    private final long cuentasAbonadas;
+
+    @JsonProperty("montos_por_moneda")
+    private final Map<String, BigDecimal> montosPorMoneda;
+
+    @JsonProperty("duracion_ms")
+    private final long duracionMs;
+
+    @JsonProperty("cuentas_por_segundo")
+    public double getCuentasPorSegundo() {
+        return duracionMs == 0 ? cuentasProcesadas : cuentasProcesadas * 1000.0 / duracionMs;
+    }
+}
@@ -0,0 +1,52 @@
+package com.banco.gestion.dto;
+
+import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Reporte de un depósito en lote con el resultado de cada línea
+ */
+@Getter
+@AllArgsConstructor
+public class ReporteLoteDeposito {
+
+    @JsonProperty("id_lote")
+    private final String idLote;
+
+    @JsonProperty("aplicadas")
+    private final int aplicadas;
+
+    @JsonProperty("rechazadas")
+    private final int rechazadas;
+
+    @JsonProperty("monto_aplicado")
+    private final BigDecimal montoAplicado;
+
+    @JsonProperty("lineas")
+    private final List<ResultadoLinea> lineas;
+
+    /**
+     * Resultado de una línea del lote
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ResultadoLinea {
+
+        @JsonProperty("linea")
+        private final int linea;
+
+        @JsonProperty("numero_cuenta")
+        private final String numeroCuenta;
+
+        @JsonProperty("monto")
+        private final BigDecimal monto;
+
+        @JsonProperty("estado")
+        private final Enums.EstadoLineaLote estado;
+    }
+}
@@ -0,0 +1,105 @@
+package com.banco.gestion.models;
+
+import com.banco.gestion.utils.Enums;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad AvanceCausacion - Punto de control de una partición de la causación diaria de intereses
+ * Cada partición cubre un rango fijo de IDs de cuentas de ahorros de una moneda para una fecha de
+ * corte. ultimoId avanza en la misma transacción que abona cada bloque, de modo que una ejecución
+ * interrumpida continúa donde quedó sin abonar dos veces la misma cuenta
+ */
+@Entity
+@Table(name = "causacion_intereses_avance", indexes = {
+    @Index(name = "idx_causacion_fecha_corte", columnList = "fecha_corte")
+})
+@Data
+@NoArgsConstructor
+public class AvanceCausacion implements Persistable<String> {
+
+    @Id
+    @Column(name = "id_avance", length = 32)
+    private String idAvance;
+
+    @Column(name = "fecha_corte", nullable = false)
+    private LocalDate fechaCorte;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "moneda", nullable = false, length = 3)
+    private Enums.Moneda moneda;
+
+    @Column(name = "particion", nullable = false)
+    private int particion;
+
+    /**
+     * Rango de IDs de la partición: (idDesde, idHasta]
+     */
+    @Column(name = "id_desde", nullable = false)
+    private long idDesde;
+
+    @Column(name = "id_hasta", nullable = false)
+    private long idHasta;
+
+    @Column(name = "ultimo_id", nullable = false)
+    private long ultimoId;
+
+    @Column(name = "cuentas_procesadas", nullable = false)
+    private long cuentasProcesadas;
+
+    @Column(name = "cuentas_abonadas", nullable = false)
+    private long cuentasAbonadas;
+
+    @Column(name = "monto_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal montoTotal = BigDecimal.ZERO;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 12)
+    private Enums.EstadoAvanceCausacion estado = Enums.EstadoAvanceCausacion.EN_CURSO;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion = LocalDateTime.now();
+
+    /**
+     * El ID se compone de fecha, moneda y partición: sin esta marca save() haría un SELECT previo
+     */
+    @Transient
+    private boolean nueva;
+
+    public AvanceCausacion(LocalDate fechaCorte, Enums.Moneda moneda, int particion, long idDesde, long idHasta) {
+        this.idAvance = fechaCorte + ":" + moneda.name() + ":" + particion;
+        this.fechaCorte = fechaCorte;
+        this.moneda = moneda;
+        this.particion = particion;
+        this.idDesde = idDesde;
+        this.idHasta = idHasta;
+        this.ultimoId = idDesde;
+        this.nueva = true;
+    }
+
+    public boolean estaCompletada() {
+        return estado == Enums.EstadoAvanceCausacion.COMPLETADA;
+    }
+
+    @Override
+    public String getId() {
+        return idAvance;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostPersist
+    @PostLoad
+    void marcarPersistida() {
+        this.nueva = false;
+    }
+}
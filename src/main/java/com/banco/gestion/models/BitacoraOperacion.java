@@ -1,12 +1,16 @@
 package com.banco.gestion.models;
 
 import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -16,8 +20,16 @@ import java.util.Map;
  * Registro inmutable de todas las operaciones significativas del sistema
  * Propósito: Auditoría, trazabilidad y cumplimiento normativo
  * NO se utiliza para calcular Saldo_Actual (que está en BD Relacional)
+ * Los índices compuestos terminan en fecha_hora_operacion + _id para cubrir
+ * los filtros por rango y la paginación por conjunto de claves
  */
 @Document(collection = "bitacora_operaciones")
+@CompoundIndexes({
+    @CompoundIndex(name = "idx_usuario_fecha", def = "{'idUsuario': 1, 'fechaHoraOperacion': 1, '_id': 1}"),
+    @CompoundIndex(name = "idx_tipo_fecha", def = "{'tipoOperacion': 1, 'fechaHoraOperacion': 1, '_id': 1}"),
+    @CompoundIndex(name = "idx_producto_fecha", def = "{'idProductoAfectado': 1, 'fechaHoraOperacion': 1, '_id': 1}"),
+    @CompoundIndex(name = "idx_fecha", def = "{'fechaHoraOperacion': 1, '_id': 1}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,9 +53,19 @@ public class BitacoraOperacion {
     @JsonProperty("id_producto_afectado")
     private String idProductoAfectado;
 
+    /**
+     * Detalle genérico; solo presente en documentos anteriores al detalle tipado
+     */
     @JsonProperty("datos_detalle")
     private Map<String, Object> datosDetalle;
 
+    /**
+     * Detalle tipado y compacto (campo BSON "d")
+     */
+    @JsonIgnore
+    @Field("d")
+    private DetalleBitacora detalle;
+
     @JsonProperty("descripcion")
     private String descripcion;
 
@@ -61,6 +83,32 @@ public class BitacoraOperacion {
         this.descripcion = descripcion;
     }
 
+    /**
+     * Constructor para crear un registro de bitácora con detalle tipado
+     * El tipo de operación se toma del detalle
+     */
+    public BitacoraOperacion(DetalleBitacora detalle, Long idUsuario, String rolUsuario,
+                            String idProductoAfectado, String descripcion) {
+        this.tipoOperacion = detalle.tipo().name();
+        this.fechaHoraOperacion = LocalDateTime.now();
+        this.idUsuario = idUsuario;
+        this.rolUsuario = rolUsuario;
+        this.idProductoAfectado = idProductoAfectado;
+        this.detalle = detalle;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Vista compatible de los datos de detalle
+     * Documentos nuevos exponen su detalle tipado con las claves históricas
+     */
+    public Map<String, Object> getDatosDetalle() {
+        if (datosDetalle == null && detalle != null) {
+            return detalle.comoMapa();
+        }
+        return datosDetalle;
+    }
+
     /**
      * Ejemplo de estructura para Transferencia Ejecutada
      * {
@@ -0,0 +1,41 @@
+package com.banco.gestion.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad BitacoraOutbox - Bandeja de salida de la bitácora en la BD relacional
+ * Se escribe en la misma transacción que el cambio de negocio; el relevo la lee en orden
+ * de ID, publica los documentos en MongoDB y elimina las filas entregadas.
+ * El documento se guarda ya convertido (JSON extendido de MongoDB) para no volver a mapearlo
+ */
+@Entity
+@Table(name = "bitacora_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BitacoraOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idOutbox;
+
+    @Column(name = "tipo_operacion", nullable = false, length = 40)
+    private String tipoOperacion;
+
+    @Column(name = "documento", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String documento;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion = LocalDateTime.now();
+
+    public BitacoraOutbox(String tipoOperacion, String documento) {
+        this.tipoOperacion = tipoOperacion;
+        this.documento = documento;
+        this.fechaCreacion = LocalDateTime.now();
+    }
+}
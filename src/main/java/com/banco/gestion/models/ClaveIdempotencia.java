@@ -0,0 +1,20 @@
+package com.banco.gestion.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Clave primaria de OperacionIdempotente: la clave del cliente solo es única para su usuario,
+ * así dos usuarios que generan la misma clave no comparten resultados
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaveIdempotencia implements Serializable {
+
+    private Long idUsuario;
+    private String clave;
+}
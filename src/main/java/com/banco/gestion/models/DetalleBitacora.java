@@ -0,0 +1,331 @@
+package com.banco.gestion.models;
+
+import com.banco.gestion.utils.Enums;
+import org.springframework.data.annotation.TypeAlias;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detalle tipado de una operación de bitácora
+ * Cada tipo de operación tiene su propio registro con nombres de campo cortos en BSON,
+ * montos como Decimal128 y alias de tipo de uno a tres caracteres.
+ * comoMapa() reconstruye la vista con las claves históricas (snake_case) de datos_detalle
+ */
+public sealed interface DetalleBitacora {
+
+    /**
+     * Tipo de operación al que corresponde el detalle
+     */
+    Enums.TipoOperacion tipo();
+
+    /**
+     * Vista del detalle con las claves usadas por los documentos anteriores
+     */
+    Map<String, Object> comoMapa();
+
+    @TypeAlias("ap")
+    record AperturaCuenta(
+        @Field("nc") String numeroCuenta,
+        @Field("tc") String tipoCuenta,
+        @Field("it") Long idTitular,
+        @Field(name = "si", targetType = FieldType.DECIMAL128) BigDecimal saldoInicial,
+        @Field("mo") String moneda
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.APERTURA_CUENTA;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("numero_cuenta", numeroCuenta);
+            mapa.put("tipo_cuenta", tipoCuenta);
+            mapa.put("id_titular", idTitular);
+            mapa.put("saldo_inicial", saldoInicial);
+            mapa.put("moneda", moneda);
+            return mapa;
+        }
+    }
+
+    @TypeAlias("bl")
+    record BloqueoCuenta(
+        @Field("nc") String numeroCuenta,
+        @Field(name = "sa", targetType = FieldType.DECIMAL128) BigDecimal saldoActual
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.BLOQUEO_CUENTA;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("numero_cuenta", numeroCuenta);
+            mapa.put("saldo_actual", saldoActual);
+            return mapa;
+        }
+    }
+
+    @TypeAlias("ca")
+    record CancelacionCuenta(
+        @Field("nc") String numeroCuenta,
+        @Field(name = "sf", targetType = FieldType.DECIMAL128) BigDecimal saldoFinal
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.CANCELACION_CUENTA;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("numero_cuenta", numeroCuenta);
+            mapa.put("saldo_final", saldoFinal);
+            return mapa;
+        }
+    }
+
+    @TypeAlias("te")
+    record TransferenciaEjecutada(
+        @Field(name = "m", targetType = FieldType.DECIMAL128) BigDecimal montoInvolucrado,
+        @Field(name = "sao", targetType = FieldType.DECIMAL128) BigDecimal saldoAntesOrigen,
+        @Field(name = "sdo", targetType = FieldType.DECIMAL128) BigDecimal saldoDespuesOrigen,
+        @Field(name = "sad", targetType = FieldType.DECIMAL128) BigDecimal saldoAntesDestino,
+        @Field(name = "sdd", targetType = FieldType.DECIMAL128) BigDecimal saldoDespuesDestino,
+        @Field("co") String cuentaOrigen,
+        @Field("cd") String cuentaDestino
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.TRANSFERENCIA_EJECUTADA;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("monto_involucrado", montoInvolucrado);
+            mapa.put("saldo_antes_origen", saldoAntesOrigen);
+            mapa.put("saldo_despues_origen", saldoDespuesOrigen);
+            mapa.put("saldo_antes_destino", saldoAntesDestino);
+            mapa.put("saldo_despues_destino", saldoDespuesDestino);
+            mapa.put("cuenta_origen", cuentaOrigen);
+            mapa.put("cuenta_destino", cuentaDestino);
+            return mapa;
+        }
+    }
+
+    @TypeAlias("tr")
+    record TransferenciaRechazada(
+        @Field(name = "m", targetType = FieldType.DECIMAL128) BigDecimal monto,
+        @Field("co") String cuentaOrigen,
+        @Field("cd") String cuentaDestino,
+        @Field("rr") String razonRechazo
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.TRANSFERENCIA_RECHAZADA;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("monto", monto);
+            mapa.put("cuenta_origen", cuentaOrigen);
+            mapa.put("cuenta_destino", cuentaDestino);
+            mapa.put("razon_rechazo", razonRechazo);
+            return mapa;
+        }
+    }
+
+    /**
+     * El motivo es constante y no se almacena
+     */
+    @TypeAlias("tv")
+    record TransferenciaVencida(
+        @Field("fv") LocalDateTime fechaHoraVencimiento,
+        @Field("uc") Long idUsuarioCreador,
+        @Field(name = "m", targetType = FieldType.DECIMAL128) BigDecimal monto
+    ) implements DetalleBitacora {
+
+        public static final String MOTIVO = "Falta de aprobación a tiempo";
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.TRANSFERENCIA_VENCIDA;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("motivo_vencimiento", MOTIVO);
+            mapa.put("fecha_hora_vencimiento", fechaHoraVencimiento);
+            mapa.put("id_usuario_creador", idUsuarioCreador);
+            mapa.put("monto", monto);
+            return mapa;
+        }
+    }
+
+    /**
+     * Los estados anterior y nuevo están implícitos en el tipo de operación
+     */
+    @TypeAlias("apr")
+    record AprobacionPrestamo(
+        @Field(name = "ma", targetType = FieldType.DECIMAL128) BigDecimal montoAprobado,
+        @Field(name = "ti", targetType = FieldType.DECIMAL128) BigDecimal tasaInteres,
+        @Field("ia") Long idAnalistaAprobador
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.APROBACION_PRESTAMO;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("monto_aprobado", montoAprobado);
+            mapa.put("tasa_interes", tasaInteres);
+            mapa.put("estado_anterior", Enums.EstadoPrestamo.EN_ESTUDIO.getDescripcion());
+            mapa.put("nuevo_estado", Enums.EstadoPrestamo.APROBADO.getDescripcion());
+            mapa.put("id_analista_aprobador", idAnalistaAprobador);
+            return mapa;
+        }
+    }
+
+    @TypeAlias("rep")
+    record RechazoPrestamo(
+        @Field(name = "ms", targetType = FieldType.DECIMAL128) BigDecimal montoSolicitado,
+        @Field("ia") Long idAnalistaAprobador,
+        @Field("rr") String razonRechazo
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.RECHAZO_PRESTAMO;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("monto_solicitado", montoSolicitado);
+            mapa.put("estado_anterior", Enums.EstadoPrestamo.EN_ESTUDIO.getDescripcion());
+            mapa.put("nuevo_estado", Enums.EstadoPrestamo.RECHAZADO.getDescripcion());
+            mapa.put("id_analista_aprobador", idAnalistaAprobador);
+            mapa.put("razon_rechazo", razonRechazo);
+            return mapa;
+        }
+    }
+
+    @TypeAlias("dep")
+    record DesembolsoPrestamo(
+        @Field(name = "md", targetType = FieldType.DECIMAL128) BigDecimal montoDesembolsado,
+        @Field("cd") String cuentaDestino,
+        @Field("ia") Long idAnalistaAprobador
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.DESEMBOLSO_PRESTAMO;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("monto_desembolsado", montoDesembolsado);
+            mapa.put("cuenta_destino", cuentaDestino);
+            mapa.put("id_analista_aprobador", idAnalistaAprobador);
+            return mapa;
+        }
+    }
+
+    @TypeAlias("dl")
+    record DepositoLote(
+        @Field("il") String idLote,
+        @Field("ca") int cantidad,
+        @Field(name = "mt", targetType = FieldType.DECIMAL128) BigDecimal montoTotal,
+        @Field("ab") List<Abono> abonos
+    ) implements DetalleBitacora {
+
+        /**
+         * Abono aplicado a una cuenta dentro del lote
+         */
+        public record Abono(
+            @Field("nc") String numeroCuenta,
+            @Field(name = "m", targetType = FieldType.DECIMAL128) BigDecimal monto
+        ) {
+        }
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.DEPOSITO_LOTE;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            List<Map<String, Object>> detalleAbonos = new ArrayList<>(abonos.size());
+            for (Abono abono : abonos) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("numero_cuenta", abono.numeroCuenta());
+                item.put("monto", abono.monto());
+                detalleAbonos.add(item);
+            }
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("id_lote", idLote);
+            mapa.put("cantidad_abonos", cantidad);
+            mapa.put("monto_total", montoTotal);
+            mapa.put("abonos", detalleAbonos);
+            return mapa;
+        }
+    }
+
+    /**
+     * Resumen de una partición de la causación diaria de intereses; no lista las cuentas
+     */
+    @TypeAlias("ci")
+    record CausacionIntereses(
+        @Field("fc") LocalDate fechaCorte,
+        @Field("mo") String moneda,
+        @Field("pa") int particion,
+        @Field("de") long idDesde,
+        @Field("ha") long idHasta,
+        @Field("cp") long cuentasProcesadas,
+        @Field("ca") long cuentasAbonadas,
+        @Field(name = "mt", targetType = FieldType.DECIMAL128) BigDecimal montoTotal,
+        @Field(name = "ta", targetType = FieldType.DECIMAL128) BigDecimal tasaAnual
+    ) implements DetalleBitacora {
+
+        @Override
+        public Enums.TipoOperacion tipo() {
+            return Enums.TipoOperacion.CAUSACION_INTERESES;
+        }
+
+        @Override
+        public Map<String, Object> comoMapa() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("fecha_corte", fechaCorte);
+            mapa.put("moneda", moneda);
+            mapa.put("particion", particion);
+            mapa.put("id_cuenta_desde", idDesde);
+            mapa.put("id_cuenta_hasta", idHasta);
+            mapa.put("cuentas_procesadas", cuentasProcesadas);
+            mapa.put("cuentas_abonadas", cuentasAbonadas);
+            mapa.put("monto_total", montoTotal);
+            mapa.put("tasa_anual", tasaAnual);
+            return mapa;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.banco.gestion.models;
+
+import com.banco.gestion.utils.Enums;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad OperacionIdempotente - Resultado de una operación monetaria por clave de idempotencia
+ * Se inserta en la misma transacción que la operación; un reintento con la misma clave
+ * recibe el resultado guardado sin volver a tocar las cuentas. La clave es única por usuario.
+ * La huella resume los parámetros de la solicitud para detectar claves reutilizadas
+ */
+@Entity
+@Table(name = "operaciones_idempotentes", indexes = {
+    @Index(name = "idx_idempotentes_expiracion", columnList = "fecha_expiracion")
+})
+@IdClass(ClaveIdempotencia.class)
+@Data
+@NoArgsConstructor
+public class OperacionIdempotente implements Persistable<ClaveIdempotencia> {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Id
+    @Column(name = "clave", length = 64)
+    private String clave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_operacion", nullable = false, length = 20)
+    private Enums.TipoOperacionIdempotente tipoOperacion;
+
+    @Column(name = "huella", nullable = false, length = 22)
+    private String huella;
+
+    @Column(name = "resultado", nullable = false, columnDefinition = "TEXT")
+    private String resultado;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    /**
+     * La clave la asigna el cliente: sin esta marca save() haría un SELECT previo (merge)
+     */
+    @Transient
+    private boolean nueva;
+
+    public OperacionIdempotente(ClaveIdempotencia id, Enums.TipoOperacionIdempotente tipoOperacion, String huella,
+                                String resultado, LocalDateTime fechaExpiracion) {
+        this.idUsuario = id.getIdUsuario();
+        this.clave = id.getClave();
+        this.tipoOperacion = tipoOperacion;
+        this.huella = huella;
+        this.resultado = resultado;
+        this.fechaExpiracion = fechaExpiracion;
+        this.nueva = true;
+    }
+
+    @Override
+    public ClaveIdempotencia getId() {
+        return new ClaveIdempotencia(idUsuario, clave);
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostPersist
+    @PostLoad
+    void marcarPersistida() {
+        this.nueva = false;
+    }
+}
@@ -13,7 +13,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Entidad Usuario - Representa todos los usuarios del sistema
@@ -29,6 +31,18 @@ import java.util.List;
 @AllArgsConstructor
 public class Usuario implements UserDetails {
 
+    /**
+     * Autoridades precalculadas por rol, para no crear una lista en cada llamada
+     */
+    private static final Map<Enums.RolSistema, List<GrantedAuthority>> AUTORIDADES_POR_ROL =
+        new EnumMap<>(Enums.RolSistema.class);
+
+    static {
+        for (Enums.RolSistema rol : Enums.RolSistema.values()) {
+            AUTORIDADES_POR_ROL.put(rol, List.of(new SimpleGrantedAuthority("ROLE_" + rol.name())));
+        }
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long idUsuario;
@@ -84,7 +98,7 @@ public class Usuario implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_" + rolSistema.name()));
+        return AUTORIDADES_POR_ROL.get(rolSistema);
     }
 
     @Override
@@ -128,7 +142,7 @@ public class Usuario implements UserDetails {
     /**
      * Verifica si el usuario puede realizar operaciones
      */
-    public boolean puedeOperarr() {
+    public boolean puedeOperar() {
         return estadoUsuario == Enums.EstadoUsuario.ACTIVO && esMayorDeEdad();
     }
 }
@@ -0,0 +1,33 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import com.banco.gestion.utils.Enums;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para AvanceCausacion
+ */
+@Repository
+public interface AvanceCausacionRepository extends JpaRepository<AvanceCausacion, String> {
+
+    List<AvanceCausacion> findByFechaCorteAndMonedaOrderByParticionAsc(LocalDate fechaCorte, Enums.Moneda moneda);
+
+    /**
+     * Bloquear el punto de control de la partición hasta el fin de la transacción del bloque
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT a FROM AvanceCausacion a WHERE a.idAvance = :idAvance")
+    Optional<AvanceCausacion> bloquearPorId(@Param("idAvance") String idAvance);
+}
@@ -0,0 +1,20 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio para BitacoraOutbox
+ */
+@Repository
+public interface BitacoraOutboxRepository extends JpaRepository<BitacoraOutbox, Long> {
+
+    /**
+     * Siguiente lote de la bandeja de salida en orden de inserción
+     */
+    List<BitacoraOutbox> findAllByOrderByIdOutboxAsc(Pageable pagina);
+}
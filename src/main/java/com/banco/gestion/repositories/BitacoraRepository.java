@@ -1,55 +1,73 @@
 package com.banco.gestion.repositories;
 
+import com.banco.gestion.dto.BitacoraResumen;
 import com.banco.gestion.models.BitacoraOperacion;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio MongoDB para BitacoraOperacion
  * Almacenamiento inmutable de todas las operaciones del sistema
+ * Los filtros de @Query usan los nombres de campo almacenados (camelCase); los nombres
+ * snake_case de @JsonProperty solo aplican a la serialización JSON
  */
 @Repository
-public interface BitacoraRepository extends MongoRepository<BitacoraOperacion, String> {
+public interface BitacoraRepository extends MongoRepository<BitacoraOperacion, String>, BitacoraRepositoryCustom {
 
     /**
      * Buscar operaciones por tipo
+     * @deprecated sin límite de resultados; usar streamByTipoOperacionOrderByFechaHoraOperacionAsc
+     * o BitacoraService.obtenerPaginaPorTipo
      */
+    @Deprecated
     List<BitacoraOperacion> findByTipoOperacion(String tipoOperacion);
 
     /**
      * Buscar operaciones por usuario
+     * @deprecated sin límite de resultados; usar streamByIdUsuarioOrderByFechaHoraOperacionAsc
+     * o BitacoraService.obtenerPaginaPorUsuario
      */
+    @Deprecated
     List<BitacoraOperacion> findByIdUsuario(Long idUsuario);
 
     /**
      * Buscar operaciones por rol
+     * @deprecated sin límite de resultados; no tiene reemplazo paginado
      */
+    @Deprecated
     List<BitacoraOperacion> findByRolUsuario(String rolUsuario);
 
     /**
      * Buscar operaciones por producto afectado
+     * @deprecated sin límite de resultados; usar BitacoraService.obtenerPaginaPorProducto
      */
+    @Deprecated
     List<BitacoraOperacion> findByIdProductoAfectado(String idProductoAfectado);
 
     /**
      * Buscar operaciones por rango de fechas
+     * @deprecated sin límite de resultados; usar streamByFechaHoraOperacionBetweenOrderByFechaHoraOperacionAsc
+     * o BitacoraService.obtenerPaginaPorRango
      */
+    @Deprecated
     List<BitacoraOperacion> findByFechaHoraOperacionBetween(LocalDateTime inicio, LocalDateTime fin);
 
     /**
      * Buscar operaciones por usuario y rango de fechas
      */
-    @Query("{ 'id_usuario': ?0, 'fecha_hora_operacion': { $gte: ?1, $lte: ?2 } }")
+    @Query("{ 'idUsuario': ?0, 'fechaHoraOperacion': { $gte: ?1, $lte: ?2 } }")
     List<BitacoraOperacion> findOperacionesPorUsuarioYFecha(Long idUsuario, LocalDateTime inicio, LocalDateTime fin);
 
     /**
      * Buscar operaciones por tipo de operación y rango de fechas
      */
-    @Query("{ 'tipo_operacion': ?0, 'fecha_hora_operacion': { $gte: ?1, $lte: ?2 } }")
+    @Query("{ 'tipoOperacion': ?0, 'fechaHoraOperacion': { $gte: ?1, $lte: ?2 } }")
     List<BitacoraOperacion> findOperacionesPorTipoYFecha(String tipoOperacion, LocalDateTime inicio, LocalDateTime fin);
 
     /**
@@ -61,4 +79,28 @@ public interface BitacoraRepository extends MongoRepository<BitacoraOperacion, S
      * Contar operaciones por usuario
      */
     long countByIdUsuario(Long idUsuario);
+
+    /**
+     * Recorrer por cursor las operaciones de un usuario
+     */
+    @Meta(cursorBatchSize = 1000)
+    Stream<BitacoraResumen> streamByIdUsuarioOrderByFechaHoraOperacionAsc(Long idUsuario);
+
+    /**
+     * Recorrer por cursor las operaciones de un tipo
+     */
+    @Meta(cursorBatchSize = 1000)
+    Stream<BitacoraResumen> streamByTipoOperacionOrderByFechaHoraOperacionAsc(String tipoOperacion);
+
+    /**
+     * Recorrer por cursor las operaciones de un rango de fechas
+     */
+    @Meta(cursorBatchSize = 1000)
+    Stream<BitacoraResumen> streamByFechaHoraOperacionBetweenOrderByFechaHoraOperacionAsc(LocalDateTime inicio, LocalDateTime fin);
+
+    /**
+     * Recorrer por cursor todas las operaciones
+     */
+    @Meta(cursorBatchSize = 1000)
+    Stream<BitacoraResumen> streamAllByOrderByFechaHoraOperacionAsc();
 }
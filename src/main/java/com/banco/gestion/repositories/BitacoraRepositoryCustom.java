@@ -0,0 +1,25 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.dto.CursorBitacora;
+import com.banco.gestion.models.BitacoraOperacion;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+/**
+ * Consultas de bitácora que no se pueden expresar como métodos derivados
+ */
+public interface BitacoraRepositoryCustom {
+
+    /**
+     * Buscar una página ordenada por fecha_hora_operacion y _id a partir del cursor (exclusivo)
+     */
+    List<BitacoraOperacion> buscarPagina(Criteria filtro, CursorBitacora cursor, int limite);
+
+    /**
+     * Insertar o reemplazar por _id documentos ya convertidos, en un solo bulkWrite sin orden
+     * Reenviar los mismos documentos no crea duplicados
+     */
+    void reemplazarDocumentos(List<Document> documentos);
+}
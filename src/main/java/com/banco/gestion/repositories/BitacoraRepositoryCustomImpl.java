@@ -0,0 +1,74 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.dto.CursorBitacora;
+import com.banco.gestion.models.BitacoraOperacion;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación de la paginación por conjunto de claves y de las escrituras
+ * idempotentes en bloque sobre bitacora_operaciones
+ */
+@RequiredArgsConstructor
+public class BitacoraRepositoryCustomImpl implements BitacoraRepositoryCustom {
+
+    private static final String FECHA = "fechaHoraOperacion";
+    private static final String ID = "idBitacora";
+    private static final BulkWriteOptions SIN_ORDEN = new BulkWriteOptions().ordered(false);
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<BitacoraOperacion> buscarPagina(Criteria filtro, CursorBitacora cursor, int limite) {
+        List<Criteria> condiciones = new ArrayList<>(2);
+        if (filtro != null) {
+            condiciones.add(filtro);
+        }
+        if (cursor != null) {
+            condiciones.add(new Criteria().orOperator(
+                Criteria.where(FECHA).gt(cursor.getFechaHoraOperacion()),
+                Criteria.where(FECHA).is(cursor.getFechaHoraOperacion()).and(ID).gt(cursor.idComoValor())
+            ));
+        }
+
+        Query query = new Query();
+        if (condiciones.size() == 1) {
+            query.addCriteria(condiciones.get(0));
+        } else if (condiciones.size() > 1) {
+            query.addCriteria(new Criteria().andOperator(condiciones));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, FECHA, ID)).limit(limite);
+
+        return mongoTemplate.find(query, BitacoraOperacion.class);
+    }
+
+    @Override
+    public void reemplazarDocumentos(List<Document> documentos) {
+        if (documentos.isEmpty()) {
+            return;
+        }
+        List<WriteModel<Document>> escrituras = new ArrayList<>(documentos.size());
+        for (Document documento : documentos) {
+            Object id = documento.get("_id");
+            if (id == null) {
+                throw new IllegalArgumentException("Los documentos a reemplazar deben tener _id");
+            }
+            escrituras.add(new ReplaceOneModel<>(Filters.eq("_id", id), documento, UPSERT));
+        }
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(BitacoraOperacion.class))
+            .bulkWrite(escrituras, SIN_ORDEN);
+    }
+}
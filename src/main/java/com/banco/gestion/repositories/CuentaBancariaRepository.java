@@ -0,0 +1,90 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import com.banco.gestion.utils.Enums;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para CuentaBancaria
+ */
+@Repository
+public interface CuentaBancariaRepository extends JpaRepository<CuentaBancaria, Long> {
+    Optional<CuentaBancaria> findByNumeroCuenta(String numeroCuenta);
+    @Transactional(readOnly = true)
+    List<CuentaBancaria> findByIdTitular(Long idTitular);
+    @Transactional(readOnly = true)
+    List<CuentaBancaria> findByEstadoCuenta(Enums.EstadoCuenta estadoCuenta);
+    @Transactional(readOnly = true)
+    List<CuentaBancaria> findByIdTitularAndEstadoCuenta(Long idTitular, Enums.EstadoCuenta estadoCuenta);
+
+    /**
+     * Proyección para la caché de cuentas. No es una entidad, así que no queda en el contexto de
+     * persistencia del llamador: un SELECT ... FOR UPDATE posterior en la misma transacción
+     * devuelve el saldo vigente y no la instancia leída antes del bloqueo
+     */
+    interface ResumenCuenta {
+        Long getIdCuenta();
+        String getNumeroCuenta();
+        Enums.TipoCuenta getTipoCuenta();
+        Long getIdTitular();
+        BigDecimal getSaldoActual();
+        Enums.Moneda getMoneda();
+        Enums.EstadoCuenta getEstadoCuenta();
+        LocalDate getFechaApertura();
+        LocalDateTime getFechaActualizacion();
+    }
+
+    Optional<ResumenCuenta> findResumenByNumeroCuenta(String numeroCuenta);
+
+    Optional<ResumenCuenta> findResumenByIdCuenta(Long idCuenta);
+
+    /**
+     * Acreditar saldo de forma atómica, solo si la cuenta está en el estado indicado
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaBancaria c SET c.saldoActual = c.saldoActual + :monto, c.fechaActualizacion = :fecha " +
+           "WHERE c.idCuenta = :idCuenta AND c.estadoCuenta = :estado")
+    int acreditarSaldo(@Param("idCuenta") Long idCuenta, @Param("monto") BigDecimal monto,
+                       @Param("estado") Enums.EstadoCuenta estado, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Debitar saldo de forma atómica, solo si la cuenta está en el estado indicado y tiene saldo suficiente
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaBancaria c SET c.saldoActual = c.saldoActual - :monto, c.fechaActualizacion = :fecha " +
+           "WHERE c.idCuenta = :idCuenta AND c.estadoCuenta = :estado AND c.saldoActual >= :monto")
+    int debitarSaldo(@Param("idCuenta") Long idCuenta, @Param("monto") BigDecimal monto,
+                     @Param("estado") Enums.EstadoCuenta estado, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Bloquear la fila de la cuenta (SELECT ... FOR UPDATE) hasta el fin de la transacción
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT c FROM CuentaBancaria c WHERE c.idCuenta = :idCuenta")
+    Optional<CuentaBancaria> bloquearPorId(@Param("idCuenta") Long idCuenta);
+
+    /**
+     * Bloquear varias cuentas en orden ascendente de ID hasta el fin de la transacción
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT c FROM CuentaBancaria c WHERE c.idCuenta IN :ids ORDER BY c.idCuenta ASC")
+    List<CuentaBancaria> bloquearPorIds(@Param("ids") Collection<Long> ids);
+}
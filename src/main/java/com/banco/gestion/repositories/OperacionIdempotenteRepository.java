@@ -0,0 +1,31 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio para OperacionIdempotente
+ */
+@Repository
+public interface OperacionIdempotenteRepository extends JpaRepository<OperacionIdempotente, ClaveIdempotencia> {
+
+    /**
+     * Eliminar la clave del usuario si ya venció, para poder reutilizarla antes de la purga
+     */
+    @Modifying
+    @Query("DELETE FROM OperacionIdempotente o WHERE o.idUsuario = :idUsuario AND o.clave = :clave AND o.fechaExpiracion <= :ahora")
+    int eliminarVencida(@Param("idUsuario") Long idUsuario, @Param("clave") String clave, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Eliminar un lote de claves vencidas
+     */
+    @Modifying
+    @Query(value = "DELETE FROM operaciones_idempotentes WHERE fecha_expiracion < :ahora LIMIT :limite", nativeQuery = true)
+    int purgarVencidas(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+}
@@ -0,0 +1,55 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import com.banco.gestion.utils.Enums;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para Préstamo
+ */
+@Repository
+public interface PrestamoRepository extends JpaRepository<Prestamo, Long> {
+    @Transactional(readOnly = true)
+    List<Prestamo> findByIdClienteSolicitante(Long idClienteSolicitante);
+    @Transactional(readOnly = true)
+    List<Prestamo> findByEstadoPrestamo(Enums.EstadoPrestamo estadoPrestamo);
+    @Transactional(readOnly = true)
+    List<Prestamo> findByIdAnalistaAprobador(Long idAnalistaAprobador);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Prestamo p WHERE p.estadoPrestamo = 'EN_ESTUDIO' ORDER BY p.fechaCreacion ASC")
+    List<Prestamo> findPrestamosEnEstudio();
+
+    /**
+     * Tomar un préstamo en estudio sin asignar; si otro analista lo tiene bloqueado no espera (SKIP LOCKED)
+     */
+    @Query(value = "SELECT * FROM prestamos WHERE id_prestamo = :idPrestamo AND estado_prestamo = 'EN_ESTUDIO' " +
+                   "AND id_analista_aprobador IS NULL FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Prestamo> reclamarPorId(@Param("idPrestamo") Long idPrestamo);
+
+    /**
+     * Tomar el préstamo en estudio sin asignar más antiguo, saltando los bloqueados por otros analistas
+     */
+    @Query(value = "SELECT * FROM prestamos WHERE estado_prestamo = 'EN_ESTUDIO' AND id_analista_aprobador IS NULL " +
+                   "ORDER BY fecha_creacion ASC, id_prestamo ASC LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Prestamo> reclamarSiguiente();
+
+    /**
+     * Liberar un préstamo asignado al analista que sigue en estudio
+     */
+    @Modifying
+    @Query("UPDATE Prestamo p SET p.idAnalistaAprobador = NULL, p.fechaActualizacion = :fecha " +
+           "WHERE p.idPrestamo = :idPrestamo AND p.idAnalistaAprobador = :idAnalista " +
+           "AND p.estadoPrestamo = 'EN_ESTUDIO'")
+    int liberar(@Param("idPrestamo") Long idPrestamo, @Param("idAnalista") Long idAnalista,
+                @Param("fecha") LocalDateTime fecha);
+}
@@ -0,0 +1,22 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import com.banco.gestion.utils.Enums;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para ProductoBancario
+ */
+@Repository
+public interface ProductoBancarioRepository extends JpaRepository<ProductoBancario, Long> {
+    Optional<ProductoBancario> findByCodigoProducto(String codigoProducto);
+    @Transactional(readOnly = true)
+    List<ProductoBancario> findByCategoria(Enums.CategoriaProducto categoria);
+    @Transactional(readOnly = true)
+    List<ProductoBancario> findByRequiereAprobacion(Boolean requiereAprobacion);
+}
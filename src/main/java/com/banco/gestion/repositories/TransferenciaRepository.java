@@ -0,0 +1,58 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import com.banco.gestion.utils.Enums;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para Transferencia
+ */
+@Repository
+public interface TransferenciaRepository extends JpaRepository<Transferencia, Long> {
+    @Transactional(readOnly = true)
+    List<Transferencia> findByCuentaOrigen(String cuentaOrigen);
+    @Transactional(readOnly = true)
+    List<Transferencia> findByCuentaDestino(String cuentaDestino);
+    @Transactional(readOnly = true)
+    List<Transferencia> findByEstadoTransferencia(Enums.EstadoTransferencia estadoTransferencia);
+    @Transactional(readOnly = true)
+    List<Transferencia> findByIdUsuarioCreador(Long idUsuarioCreador);
+    @Transactional(readOnly = true)
+    List<Transferencia> findByIdUsuarioAprobador(Long idUsuarioAprobador);
+
+    /**
+     * Proyección mínima para programar vencimientos
+     */
+    interface TransferenciaPendiente {
+        Long getIdTransferencia();
+        LocalDateTime getFechaCreacion();
+    }
+
+    List<TransferenciaPendiente> findPendientesByEstadoTransferencia(Enums.EstadoTransferencia estadoTransferencia);
+
+    /**
+     * Bloquear las transferencias indicadas que sigan en el estado dado
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Transferencia> findByIdTransferenciaInAndEstadoTransferencia(Collection<Long> ids, Enums.EstadoTransferencia estadoTransferencia);
+
+    /**
+     * Cambiar de estado en bloque las transferencias que sigan en el estado actual
+     */
+    @Modifying
+    @Query("UPDATE Transferencia t SET t.estadoTransferencia = :nuevo, t.fechaActualizacion = :fecha " +
+           "WHERE t.idTransferencia IN :ids AND t.estadoTransferencia = :actual")
+    int actualizarEstado(@Param("ids") Collection<Long> ids, @Param("actual") Enums.EstadoTransferencia actual,
+                         @Param("nuevo") Enums.EstadoTransferencia nuevo, @Param("fecha") LocalDateTime fecha);
+}
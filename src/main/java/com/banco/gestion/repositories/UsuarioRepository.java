@@ -0,0 +1,25 @@
+package com.banco.gestion.repositories;
+
+import com.banco.gestion.models.*;
+import com.banco.gestion.utils.Enums;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para Usuario
+ */
+@Repository
+public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+    Optional<Usuario> findByNombreUsuario(String nombreUsuario);
+    Optional<Usuario> findByCorreoElectronico(String correoElectronico);
+    @Transactional(readOnly = true)
+    List<Usuario> findByRolSistema(Enums.RolSistema rolSistema);
+    @Transactional(readOnly = true)
+    List<Usuario> findByEstadoUsuario(Enums.EstadoUsuario estadoUsuario);
+    @Transactional(readOnly = true)
+    List<Usuario> findByIdClienteRelacionado(Long idClienteRelacionado);
+}
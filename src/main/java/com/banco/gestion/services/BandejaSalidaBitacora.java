@@ -0,0 +1,59 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.banco.gestion.models.BitacoraOutbox;
+import com.banco.gestion.repositories.BitacoraOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bandeja de salida (outbox) de la bitácora
+ * Guarda los registros en la tabla bitacora_outbox dentro de la transacción del llamador,
+ * de modo que solo se publican en MongoDB si el cambio de negocio se confirma
+ */
+@Component
+@RequiredArgsConstructor
+public class BandejaSalidaBitacora {
+
+    /**
+     * JSON extendido: conserva fechas y Decimal128 al volver a leer el documento
+     */
+    private static final JsonWriterSettings FORMATO = JsonWriterSettings.builder()
+        .outputMode(JsonMode.EXTENDED)
+        .build();
+
+    private final BitacoraOutboxRepository outboxRepository;
+    private final MongoConverter mongoConverter;
+
+    /**
+     * Guardar un registro en la bandeja de salida; requiere una transacción activa
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void guardar(BitacoraOperacion bitacora) {
+        outboxRepository.save(aOutbox(bitacora));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void guardarLote(List<BitacoraOperacion> bitacoras) {
+        List<BitacoraOutbox> filas = new ArrayList<>(bitacoras.size());
+        for (BitacoraOperacion bitacora : bitacoras) {
+            filas.add(aOutbox(bitacora));
+        }
+        outboxRepository.saveAll(filas);
+    }
+
+    private BitacoraOutbox aOutbox(BitacoraOperacion bitacora) {
+        Document documento = new Document();
+        mongoConverter.write(bitacora, documento);
+        return new BitacoraOutbox(bitacora.getTipoOperacion(), documento.toJson(FORMATO));
+    }
+}
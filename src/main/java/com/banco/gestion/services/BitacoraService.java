@@ -1,89 +1,105 @@
 package com.banco.gestion.services;
 
+import com.banco.gestion.config.MetricasOperaciones;
+import com.banco.gestion.dto.BitacoraResumen;
+import com.banco.gestion.dto.CursorBitacora;
+import com.banco.gestion.dto.PaginaBitacora;
+import com.banco.gestion.models.AvanceCausacion;
 import com.banco.gestion.models.BitacoraOperacion;
 import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.models.DetalleBitacora;
 import com.banco.gestion.models.Prestamo;
 import com.banco.gestion.models.Transferencia;
 import com.banco.gestion.repositories.BitacoraRepository;
 import com.banco.gestion.utils.Enums;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Servicio de Bitácora
  * Registra todas las operaciones significativas del sistema en MongoDB
+ * Dentro de una transacción los registros van a la bandeja de salida (outbox) y se confirman
+ * o revierten junto con el cambio de negocio; fuera de ella se delegan al EscritorBitacora
  * Propósito: Auditoría, trazabilidad y cumplimiento normativo
  */
 @Service
 @RequiredArgsConstructor
 public class BitacoraService {
 
+    private static final int TAMANO_MAXIMO_PAGINA = 1000;
+
     private final BitacoraRepository bitacoraRepository;
+    private final EscritorBitacora escritorBitacora;
+    private final BandejaSalidaBitacora bandejaSalidaBitacora;
+    private final MetricasOperaciones metricasOperaciones;
 
     /**
      * Registrar apertura de cuenta
      */
     public void registrarAperturaCuenta(CuentaBancaria cuenta) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("numero_cuenta", cuenta.getNumeroCuenta());
-        detalles.put("tipo_cuenta", cuenta.getTipoCuenta().name());
-        detalles.put("id_titular", cuenta.getIdTitular());
-        detalles.put("saldo_inicial", cuenta.getSaldoActual());
-        detalles.put("moneda", cuenta.getMoneda().name());
+        DetalleBitacora detalle = new DetalleBitacora.AperturaCuenta(
+            cuenta.getNumeroCuenta(),
+            cuenta.getTipoCuenta().name(),
+            cuenta.getIdTitular(),
+            cuenta.getSaldoActual(),
+            cuenta.getMoneda().name()
+        );
 
         BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.APERTURA_CUENTA,
+            detalle,
             null,
             "SISTEMA",
             cuenta.getNumeroCuenta(),
-            detalles,
             "Apertura de nueva cuenta bancaria"
         );
-        bitacoraRepository.save(bitacora);
+        publicar(bitacora);
     }
 
     /**
      * Registrar bloqueo de cuenta
      */
-    public void registrarBloqueo Cuenta(CuentaBancaria cuenta, Long idUsuario, String rolUsuario) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("numero_cuenta", cuenta.getNumeroCuenta());
-        detalles.put("saldo_actual", cuenta.getSaldoActual());
+    public void registrarBloqueoCuenta(CuentaBancaria cuenta, Long idUsuario, String rolUsuario) {
+        DetalleBitacora detalle = new DetalleBitacora.BloqueoCuenta(
+            cuenta.getNumeroCuenta(),
+            cuenta.getSaldoActual()
+        );
 
         BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.BLOQUEO_CUENTA,
+            detalle,
             idUsuario,
             rolUsuario,
             cuenta.getNumeroCuenta(),
-            detalles,
             "Bloqueo de cuenta bancaria"
         );
-        bitacoraRepository.save(bitacora);
+        publicar(bitacora);
     }
 
     /**
      * Registrar cancelación de cuenta
      */
     public void registrarCancelacionCuenta(CuentaBancaria cuenta, Long idUsuario, String rolUsuario) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("numero_cuenta", cuenta.getNumeroCuenta());
-        detalles.put("saldo_final", cuenta.getSaldoActual());
+        DetalleBitacora detalle = new DetalleBitacora.CancelacionCuenta(
+            cuenta.getNumeroCuenta(),
+            cuenta.getSaldoActual()
+        );
 
         BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.CANCELACION_CUENTA,
+            detalle,
             idUsuario,
             rolUsuario,
             cuenta.getNumeroCuenta(),
-            detalles,
             "Cancelación de cuenta bancaria"
         );
-        bitacoraRepository.save(bitacora);
+        publicar(bitacora);
     }
 
     /**
@@ -95,157 +111,382 @@ public class BitacoraService {
                                                 BigDecimal saldoAntesDestino,
                                                 BigDecimal saldoDespuesDestino,
                                                 String rolUsuario) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("monto_involucrado", transferencia.getMonto());
-        detalles.put("saldo_antes_origen", saldoAntesOrigen);
-        detalles.put("saldo_despues_origen", saldoDespuesOrigen);
-        detalles.put("saldo_antes_destino", saldoAntesDestino);
-        detalles.put("saldo_despues_destino", saldoDespuesDestino);
-        detalles.put("cuenta_origen", transferencia.getCuentaOrigen());
-        detalles.put("cuenta_destino", transferencia.getCuentaDestino());
+        publicar(construirTransferenciaEjecutada(new TransferenciaLiquidada(transferencia, saldoAntesOrigen,
+            saldoDespuesOrigen, saldoAntesDestino, saldoDespuesDestino, rolUsuario)));
+    }
 
-        BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.TRANSFERENCIA_EJECUTADA,
+    /**
+     * Registrar en un solo lote varias transferencias ejecutadas, cada una con sus propios saldos
+     */
+    public void registrarTransferenciasEjecutadas(List<TransferenciaLiquidada> liquidadas) {
+        List<BitacoraOperacion> bitacoras = new ArrayList<>(liquidadas.size());
+        for (TransferenciaLiquidada liquidada : liquidadas) {
+            bitacoras.add(construirTransferenciaEjecutada(liquidada));
+        }
+        publicarLote(bitacoras);
+    }
+
+    private BitacoraOperacion construirTransferenciaEjecutada(TransferenciaLiquidada liquidada) {
+        Transferencia transferencia = liquidada.transferencia();
+        DetalleBitacora detalle = new DetalleBitacora.TransferenciaEjecutada(
+            transferencia.getMonto(),
+            liquidada.saldoAntesOrigen(),
+            liquidada.saldoDespuesOrigen(),
+            liquidada.saldoAntesDestino(),
+            liquidada.saldoDespuesDestino(),
+            transferencia.getCuentaOrigen(),
+            transferencia.getCuentaDestino()
+        );
+
+        return new BitacoraOperacion(
+            detalle,
             transferencia.getIdUsuarioCreador(),
-            rolUsuario,
+            liquidada.rolUsuario(),
             transferencia.getIdTransferencia().toString(),
-            detalles,
             "Transferencia ejecutada exitosamente"
         );
-        bitacoraRepository.save(bitacora);
+    }
+
+    /**
+     * Transferencia ejecutada con los saldos de ambas cuentas antes y después de aplicarla
+     */
+    public record TransferenciaLiquidada(Transferencia transferencia,
+                                         BigDecimal saldoAntesOrigen,
+                                         BigDecimal saldoDespuesOrigen,
+                                         BigDecimal saldoAntesDestino,
+                                         BigDecimal saldoDespuesDestino,
+                                         String rolUsuario) {
     }
 
     /**
      * Registrar rechazo de transferencia
      */
     public void registrarTransferenciaRechazada(Transferencia transferencia, String razonRechazo, String rolUsuario) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("monto", transferencia.getMonto());
-        detalles.put("cuenta_origen", transferencia.getCuentaOrigen());
-        detalles.put("cuenta_destino", transferencia.getCuentaDestino());
-        detalles.put("razon_rechazo", razonRechazo);
+        DetalleBitacora detalle = new DetalleBitacora.TransferenciaRechazada(
+            transferencia.getMonto(),
+            transferencia.getCuentaOrigen(),
+            transferencia.getCuentaDestino(),
+            razonRechazo
+        );
 
         BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.TRANSFERENCIA_RECHAZADA,
+            detalle,
             transferencia.getIdUsuarioAprobador(),
             rolUsuario,
             transferencia.getIdTransferencia().toString(),
-            detalles,
             "Transferencia rechazada"
         );
-        bitacoraRepository.save(bitacora);
+        publicar(bitacora);
     }
 
     /**
      * Registrar vencimiento de transferencia
      */
     public void registrarTransferenciaVencida(Transferencia transferencia) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("motivo_vencimiento", "Falta de aprobación a tiempo");
-        detalles.put("fecha_hora_vencimiento", LocalDateTime.now());
-        detalles.put("id_usuario_creador", transferencia.getIdUsuarioCreador());
-        detalles.put("monto", transferencia.getMonto());
+        publicar(construirVencimiento(transferencia, LocalDateTime.now()));
+    }
 
-        BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.TRANSFERENCIA_VENCIDA,
+    /**
+     * Registrar en un solo lote el vencimiento de varias transferencias
+     */
+    public void registrarTransferenciasVencidas(List<Transferencia> transferencias) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<BitacoraOperacion> bitacoras = new ArrayList<>(transferencias.size());
+        for (Transferencia transferencia : transferencias) {
+            bitacoras.add(construirVencimiento(transferencia, ahora));
+        }
+        publicarLote(bitacoras);
+    }
+
+    private BitacoraOperacion construirVencimiento(Transferencia transferencia, LocalDateTime fechaVencimiento) {
+        DetalleBitacora detalle = new DetalleBitacora.TransferenciaVencida(
+            fechaVencimiento,
+            transferencia.getIdUsuarioCreador(),
+            transferencia.getMonto()
+        );
+
+        return new BitacoraOperacion(
+            detalle,
             null,
             "SISTEMA",
             transferencia.getIdTransferencia().toString(),
-            detalles,
             "Transferencia vencida por falta de aprobación"
         );
-        bitacoraRepository.save(bitacora);
     }
 
     /**
      * Registrar aprobación de préstamo
      */
     public void registrarAprobacionPrestamo(Prestamo prestamo, Long idAnalistaAprobador) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("monto_aprobado", prestamo.getMontoAprobado());
-        detalles.put("tasa_interes", prestamo.getTasaInteres());
-        detalles.put("estado_anterior", "En estudio");
-        detalles.put("nuevo_estado", "Aprobado");
-        detalles.put("id_analista_aprobador", idAnalistaAprobador);
+        DetalleBitacora detalle = new DetalleBitacora.AprobacionPrestamo(
+            prestamo.getMontoAprobado(),
+            prestamo.getTasaInteres(),
+            idAnalistaAprobador
+        );
 
         BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.APROBACION_PRESTAMO,
+            detalle,
             idAnalistaAprobador,
             Enums.RolSistema.ANALISTA_INTERNO.name(),
             prestamo.getIdPrestamo().toString(),
-            detalles,
             "Préstamo aprobado por Analista Interno"
         );
-        bitacoraRepository.save(bitacora);
+        publicar(bitacora);
     }
 
     /**
      * Registrar rechazo de préstamo
      */
     public void registrarRechazoPrestamo(Prestamo prestamo, Long idAnalistaAprobador, String razonRechazo) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("monto_solicitado", prestamo.getMontoSolicitado());
-        detalles.put("estado_anterior", "En estudio");
-        detalles.put("nuevo_estado", "Rechazado");
-        detalles.put("id_analista_aprobador", idAnalistaAprobador);
-        detalles.put("razon_rechazo", razonRechazo);
+        DetalleBitacora detalle = new DetalleBitacora.RechazoPrestamo(
+            prestamo.getMontoSolicitado(),
+            idAnalistaAprobador,
+            razonRechazo
+        );
 
         BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.RECHAZO_PRESTAMO,
+            detalle,
             idAnalistaAprobador,
             Enums.RolSistema.ANALISTA_INTERNO.name(),
             prestamo.getIdPrestamo().toString(),
-            detalles,
             "Préstamo rechazado por Analista Interno"
         );
-        bitacoraRepository.save(bitacora);
+        publicar(bitacora);
     }
 
     /**
      * Registrar desembolso de préstamo
      */
     public void registrarDesembolsoPrestamo(Prestamo prestamo, Long idAnalistaAprobador) {
-        Map<String, Object> detalles = new HashMap<>();
-        detalles.put("monto_desembolsado", prestamo.getMontoAprobado());
-        detalles.put("cuenta_destino", prestamo.getCuentaDestinoDesembolso());
-        detalles.put("id_analista_aprobador", idAnalistaAprobador);
+        DetalleBitacora detalle = new DetalleBitacora.DesembolsoPrestamo(
+            prestamo.getMontoAprobado(),
+            prestamo.getCuentaDestinoDesembolso(),
+            idAnalistaAprobador
+        );
 
         BitacoraOperacion bitacora = new BitacoraOperacion(
-            Enums.TipoOperacion.DESEMBOLSO_PRESTAMO,
+            detalle,
             idAnalistaAprobador,
             Enums.RolSistema.ANALISTA_INTERNO.name(),
             prestamo.getIdPrestamo().toString(),
-            detalles,
             "Desembolso de préstamo realizado"
         );
-        bitacoraRepository.save(bitacora);
+        publicar(bitacora);
+    }
+
+    /**
+     * Registrar los abonos aplicados de un bloque de depósito en lote
+     */
+    public void registrarDepositoLote(String idLote, List<DetalleBitacora.DepositoLote.Abono> abonos,
+                                      BigDecimal montoTotal, Long idUsuario, String rolUsuario) {
+        DetalleBitacora detalle = new DetalleBitacora.DepositoLote(idLote, abonos.size(), montoTotal, abonos);
+
+        BitacoraOperacion bitacora = new BitacoraOperacion(
+            detalle,
+            idUsuario,
+            rolUsuario,
+            idLote,
+            "Depósito en lote aplicado a " + abonos.size() + " cuentas"
+        );
+        publicar(bitacora);
+    }
+
+    /**
+     * Registrar el resumen de una partición de intereses causados
+     */
+    public void registrarCausacionIntereses(AvanceCausacion avance, BigDecimal tasaAnual) {
+        DetalleBitacora detalle = new DetalleBitacora.CausacionIntereses(
+            avance.getFechaCorte(),
+            avance.getMoneda().name(),
+            avance.getParticion(),
+            avance.getIdDesde(),
+            avance.getIdHasta(),
+            avance.getCuentasProcesadas(),
+            avance.getCuentasAbonadas(),
+            avance.getMontoTotal(),
+            tasaAnual
+        );
+
+        BitacoraOperacion bitacora = new BitacoraOperacion(
+            detalle,
+            null,
+            "SISTEMA",
+            avance.getIdAvance(),
+            "Causación de intereses abonada a " + avance.getCuentasAbonadas() + " cuentas de ahorros"
+        );
+        publicar(bitacora);
+    }
+
+    /**
+     * Publicar un registro en la bandeja de salida si hay transacción activa,
+     * o en el escritor asíncrono si no la hay
+     */
+    private void publicar(BitacoraOperacion bitacora) {
+        alConfirmar(() -> metricasOperaciones.contar(bitacora));
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            bandejaSalidaBitacora.guardar(bitacora);
+        } else {
+            escritorBitacora.registrar(bitacora);
+        }
+    }
+
+    private void publicarLote(List<BitacoraOperacion> bitacoras) {
+        alConfirmar(() -> metricasOperaciones.contar(bitacoras));
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            bandejaSalidaBitacora.guardarLote(bitacoras);
+        } else {
+            escritorBitacora.registrarLote(bitacoras);
+        }
+    }
+
+    /**
+     * Las operaciones se cuentan al confirmar la transacción, para no contar las revertidas
+     * ni cada reintento de la misma operación
+     */
+    private void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    /**
+     * Registrar una operación esperando su confirmación en MongoDB
+     * Para llamadores que no pueden depender de la escritura asíncrona
+     */
+    public BitacoraOperacion registrarConConfirmacion(BitacoraOperacion bitacora) {
+        return escritorBitacora.registrarSincrono(bitacora);
     }
 
     /**
      * Obtener operaciones por usuario
+     * @deprecated carga todas las operaciones del usuario en memoria; usar obtenerPaginaPorUsuario
+     * o exportarPorUsuario
      */
+    @Deprecated
     public List<BitacoraOperacion> obtenerOperacionesPorUsuario(Long idUsuario) {
         return bitacoraRepository.findByIdUsuario(idUsuario);
     }
 
     /**
      * Obtener operaciones por tipo
+     * @deprecated carga todas las operaciones del tipo en memoria; usar obtenerPaginaPorTipo
+     * o exportarPorTipo
      */
+    @Deprecated
     public List<BitacoraOperacion> obtenerOperacionesPorTipo(String tipoOperacion) {
         return bitacoraRepository.findByTipoOperacion(tipoOperacion);
     }
 
     /**
      * Obtener operaciones por producto afectado
+     * @deprecated carga todas las operaciones del producto en memoria; usar obtenerPaginaPorProducto
      */
+    @Deprecated
     public List<BitacoraOperacion> obtenerOperacionesPorProducto(String idProducto) {
         return bitacoraRepository.findByIdProductoAfectado(idProducto);
     }
 
     /**
      * Obtener todas las operaciones
+     * @deprecated carga la colección completa en memoria; usar obtenerPagina o exportarTodas
      */
+    @Deprecated
     public List<BitacoraOperacion> obtenerTodas() {
         return bitacoraRepository.findAll();
     }
+
+    /**
+     * Obtener una página de operaciones de un usuario
+     */
+    public PaginaBitacora obtenerPaginaPorUsuario(Long idUsuario, String token, int tamano) {
+        return paginar(Criteria.where("idUsuario").is(idUsuario), token, tamano);
+    }
+
+    /**
+     * Obtener una página de operaciones por tipo
+     */
+    public PaginaBitacora obtenerPaginaPorTipo(String tipoOperacion, String token, int tamano) {
+        return paginar(Criteria.where("tipoOperacion").is(tipoOperacion), token, tamano);
+    }
+
+    /**
+     * Obtener una página de operaciones sobre un producto
+     */
+    public PaginaBitacora obtenerPaginaPorProducto(String idProducto, String token, int tamano) {
+        return paginar(Criteria.where("idProductoAfectado").is(idProducto), token, tamano);
+    }
+
+    /**
+     * Obtener una página de operaciones por rango de fechas
+     */
+    public PaginaBitacora obtenerPaginaPorRango(LocalDateTime inicio, LocalDateTime fin, String token, int tamano) {
+        return paginar(Criteria.where("fechaHoraOperacion").gte(inicio).lte(fin), token, tamano);
+    }
+
+    /**
+     * Obtener una página de todas las operaciones
+     */
+    public PaginaBitacora obtenerPagina(String token, int tamano) {
+        return paginar(null, token, tamano);
+    }
+
+    /**
+     * Exportar por cursor las operaciones de un usuario
+     * El Stream mantiene abierto un cursor de MongoDB y debe cerrarse (try-with-resources)
+     */
+    public Stream<BitacoraResumen> exportarPorUsuario(Long idUsuario) {
+        return bitacoraRepository.streamByIdUsuarioOrderByFechaHoraOperacionAsc(idUsuario);
+    }
+
+    /**
+     * Exportar por cursor las operaciones de un tipo
+     * El Stream mantiene abierto un cursor de MongoDB y debe cerrarse (try-with-resources)
+     */
+    public Stream<BitacoraResumen> exportarPorTipo(String tipoOperacion) {
+        return bitacoraRepository.streamByTipoOperacionOrderByFechaHoraOperacionAsc(tipoOperacion);
+    }
+
+    /**
+     * Exportar por cursor las operaciones de un rango de fechas
+     * El Stream mantiene abierto un cursor de MongoDB y debe cerrarse (try-with-resources)
+     */
+    public Stream<BitacoraResumen> exportarPorRango(LocalDateTime inicio, LocalDateTime fin) {
+        return bitacoraRepository.streamByFechaHoraOperacionBetweenOrderByFechaHoraOperacionAsc(inicio, fin);
+    }
+
+    /**
+     * Exportar por cursor todas las operaciones
+     * El Stream mantiene abierto un cursor de MongoDB y debe cerrarse (try-with-resources)
+     */
+    public Stream<BitacoraResumen> exportarTodas() {
+        return bitacoraRepository.streamAllByOrderByFechaHoraOperacionAsc();
+    }
+
+    /**
+     * Paginación por conjunto de claves: se pide un elemento extra para saber si hay página siguiente
+     */
+    private PaginaBitacora paginar(Criteria filtro, String token, int tamano) {
+        if (tamano <= 0 || tamano > TAMANO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_PAGINA);
+        }
+
+        List<BitacoraOperacion> elementos = bitacoraRepository.buscarPagina(
+            filtro, CursorBitacora.decodificar(token), tamano + 1);
+
+        if (elementos.size() <= tamano) {
+            return new PaginaBitacora(elementos, null);
+        }
+
+        List<BitacoraOperacion> pagina = elementos.subList(0, tamano);
+        BitacoraOperacion ultima = pagina.get(tamano - 1);
+        String siguienteToken = new CursorBitacora(ultima.getFechaHoraOperacion(), ultima.getIdBitacora()).codificar();
+        return new PaginaBitacora(pagina, siguienteToken);
+    }
 }
@@ -0,0 +1,81 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.repositories.UsuarioRepository;
+import com.banco.gestion.utils.CacheLocal;
+import com.banco.gestion.utils.Enums;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché de decisiones de autorización por ID de usuario
+ * Guarda una instantánea con rol, estado y elegibilidad para operar ya calculada,
+ * evitando consultar la base de datos en cada validación de acceso
+ */
+@Component
+public class CacheAutorizacion {
+
+    private final UsuarioRepository usuarioRepository;
+    private final CacheLocal<Long, InstantaneaAutorizacion> cache;
+
+    public CacheAutorizacion(UsuarioRepository usuarioRepository,
+                             @Value("${app.autorizacion.cache.capacidad:50000}") int capacidad,
+                             @Value("${app.autorizacion.cache.ttl-segundos:60}") long ttlSegundos) {
+        this.usuarioRepository = usuarioRepository;
+        this.cache = new CacheLocal<>("autorizacion", capacidad, ttlSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Obtener la instantánea de autorización del usuario
+     * Los usuarios inexistentes también se guardan para no repetir la consulta
+     */
+    public InstantaneaAutorizacion obtener(Long idUsuario) {
+        return cache.obtener(idUsuario, id -> usuarioRepository.findById(id)
+            .map(u -> new InstantaneaAutorizacion(u.getRolSistema(), u.getEstadoUsuario(), u.puedeOperar()))
+            .orElse(InstantaneaAutorizacion.NO_ENCONTRADO));
+    }
+
+    /**
+     * Invalidar la instantánea del usuario de inmediato y otra vez al confirmar la transacción,
+     * para que una lectura concurrente no reinstale el estado anterior
+     */
+    public void invalidar(Long idUsuario) {
+        cache.invalidar(idUsuario);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidar(idUsuario);
+                }
+            });
+        }
+    }
+
+    public CacheLocal.Estadisticas estadisticas() {
+        return cache.estadisticas();
+    }
+
+    /**
+     * Instantánea inmutable de autorización
+     */
+    public record InstantaneaAutorizacion(Enums.RolSistema rol, Enums.EstadoUsuario estado, boolean puedeOperar) {
+
+        static final InstantaneaAutorizacion NO_ENCONTRADO = new InstantaneaAutorizacion(null, null, false);
+
+        public boolean existe() {
+            return rol != null;
+        }
+
+        public boolean tieneRol(Enums.RolSistema rolRequerido) {
+            return rol != null && rol == rolRequerido;
+        }
+
+        public boolean tieneAlgunRol(Set<Enums.RolSistema> rolesPermitidos) {
+            return rol != null && rolesPermitidos.contains(rol);
+        }
+    }
+}
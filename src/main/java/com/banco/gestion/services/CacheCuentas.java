@@ -0,0 +1,138 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.repositories.CuentaBancariaRepository;
+import com.banco.gestion.utils.CacheLocal;
+import com.banco.gestion.utils.Dinero;
+import com.banco.gestion.utils.Enums;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché cercana del estado de las cuentas, por número de cuenta y por ID
+ * Guarda instantáneas inmutables; las operaciones que cambian estado o saldo invalidan la
+ * cuenta. El saldo en caché es orientativo: el débito vuelve a verificarlo en su UPDATE
+ */
+@Component
+public class CacheCuentas {
+
+    private final CuentaBancariaRepository cuentaRepository;
+    private final CacheLocal<String, InstantaneaCuenta> porNumero;
+    private final CacheLocal<Long, InstantaneaCuenta> porId;
+
+    public CacheCuentas(CuentaBancariaRepository cuentaRepository,
+                        @Value("${app.cuentas.cache.capacidad:100000}") int capacidad,
+                        @Value("${app.cuentas.cache.ttl-segundos:5}") long ttlSegundos) {
+        this.cuentaRepository = cuentaRepository;
+        this.porNumero = new CacheLocal<>("cuentas-numero", capacidad, ttlSegundos, TimeUnit.SECONDS);
+        this.porId = new CacheLocal<>("cuentas-id", capacidad, ttlSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Obtener la instantánea de la cuenta por número
+     * Las cuentas inexistentes también se guardan para no repetir la consulta
+     */
+    public InstantaneaCuenta obtenerPorNumero(String numeroCuenta) {
+        return porNumero.obtener(numeroCuenta, numero -> cuentaRepository.findResumenByNumeroCuenta(numero)
+            .map(InstantaneaCuenta::de)
+            .orElse(InstantaneaCuenta.NO_ENCONTRADA));
+    }
+
+    public InstantaneaCuenta obtenerPorId(Long idCuenta) {
+        return porId.obtener(idCuenta, id -> cuentaRepository.findResumenByIdCuenta(id)
+            .map(InstantaneaCuenta::de)
+            .orElse(InstantaneaCuenta.NO_ENCONTRADA));
+    }
+
+    /**
+     * Invalidar la cuenta en ambas claves de inmediato y otra vez al confirmar la transacción,
+     * para que una lectura concurrente no reinstale el estado anterior
+     */
+    public void invalidar(CuentaBancaria cuenta) {
+        invalidar(cuenta.getIdCuenta(), cuenta.getNumeroCuenta());
+    }
+
+    public void invalidar(Long idCuenta, String numeroCuenta) {
+        porId.invalidar(idCuenta);
+        porNumero.invalidar(numeroCuenta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    porId.invalidar(idCuenta);
+                    porNumero.invalidar(numeroCuenta);
+                }
+            });
+        }
+    }
+
+    public List<CacheLocal.Estadisticas> estadisticas() {
+        return List.of(porNumero.estadisticas(), porId.estadisticas());
+    }
+
+    /**
+     * Instantánea inmutable de una cuenta
+     */
+    public record InstantaneaCuenta(Long idCuenta, String numeroCuenta, Enums.TipoCuenta tipoCuenta, Long idTitular,
+                                    Dinero saldo, Enums.EstadoCuenta estado, LocalDate fechaApertura,
+                                    LocalDateTime fechaActualizacion) {
+
+        static final InstantaneaCuenta NO_ENCONTRADA =
+            new InstantaneaCuenta(null, null, null, null, null, null, null, null);
+
+        static InstantaneaCuenta de(CuentaBancariaRepository.ResumenCuenta cuenta) {
+            return new InstantaneaCuenta(cuenta.getIdCuenta(), cuenta.getNumeroCuenta(), cuenta.getTipoCuenta(),
+                cuenta.getIdTitular(), Dinero.de(cuenta.getSaldoActual(), cuenta.getMoneda()), cuenta.getEstadoCuenta(),
+                cuenta.getFechaApertura(), cuenta.getFechaActualizacion());
+        }
+
+        public boolean existe() {
+            return idCuenta != null;
+        }
+
+        public boolean estaDisponibleParaOperaciones() {
+            return estado == Enums.EstadoCuenta.ACTIVA;
+        }
+
+        /**
+         * Validar disponibilidad y, si se indica un monto, saldo suficiente
+         */
+        public Enums.ResultadoValidacionCuenta validar(Dinero monto) {
+            if (!existe()) {
+                return Enums.ResultadoValidacionCuenta.NO_ENCONTRADA;
+            }
+            if (!estaDisponibleParaOperaciones()) {
+                return Enums.ResultadoValidacionCuenta.NO_DISPONIBLE;
+            }
+            if (monto != null && !saldo.cubre(monto)) {
+                return Enums.ResultadoValidacionCuenta.SALDO_INSUFICIENTE;
+            }
+            return Enums.ResultadoValidacionCuenta.VALIDA;
+        }
+
+        /**
+         * Copia desconectada como entidad; no debe guardarse con save() porque su saldo puede
+         * no ser el vigente
+         */
+        public CuentaBancaria aCuenta() {
+            CuentaBancaria cuenta = new CuentaBancaria();
+            cuenta.setIdCuenta(idCuenta);
+            cuenta.setNumeroCuenta(numeroCuenta);
+            cuenta.setTipoCuenta(tipoCuenta);
+            cuenta.setIdTitular(idTitular);
+            cuenta.setSaldoActual(saldo.aBigDecimal());
+            cuenta.setMoneda(saldo.moneda());
+            cuenta.setEstadoCuenta(estado);
+            cuenta.setFechaApertura(fechaApertura);
+            cuenta.setFechaActualizacion(fechaActualizacion);
+            return cuenta;
+        }
+    }
+}
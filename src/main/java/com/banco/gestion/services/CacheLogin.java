@@ -0,0 +1,299 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.Usuario;
+import com.banco.gestion.repositories.UsuarioRepository;
+import com.banco.gestion.utils.CacheLocal;
+import com.banco.gestion.utils.Enums;
+import com.banco.gestion.utils.FiltroBloom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda de usuarios para el inicio de sesión, por nombre de usuario o correo electrónico
+ * Un filtro de Bloom con los nombres y correos de la tabla usuarios descarta los inexistentes sin
+ * consultar la base de datos; los existentes se guardan como instantáneas por nombre y por correo,
+ * sin distinguir mayúsculas. El filtro se reconstruye al arrancar y cada
+ * app.login.filtro.intervalo-reconstruccion-ms, y cada usuario creado se agrega de inmediato.
+ * Los cambios de estado o contraseña invalidan las instantáneas del usuario solo en esta instancia:
+ * en las demás duran a lo sumo app.login.cache.ttl-segundos, que por eso es corto.
+ * El principal autenticado es un Usuario construido desde la instantánea
+ */
+@Slf4j
+@Component
+public class CacheLogin implements UserDetailsService {
+
+    private static final String PREFIJO_NOMBRE = "n:";
+    private static final String PREFIJO_CORREO = "c:";
+    private static final long ELEMENTOS_MINIMOS = 10_000;
+    // Holgura para el crecimiento de la tabla entre reconstrucciones
+    private static final int MARGEN_CRECIMIENTO = 2;
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UsuarioRepository usuarioRepository;
+    private final double probabilidadFalsoPositivo;
+    private final CacheLocal<String, InstantaneaLogin> porNombre;
+    private final CacheLocal<String, InstantaneaLogin> porCorreo;
+    private final LongAdder descartadosPorFiltro = new LongAdder();
+
+    // null hasta la primera construcción: mientras tanto ninguna búsqueda se descarta
+    private volatile FiltroBloom filtro;
+    private volatile FiltroBloom enConstruccion;
+
+    public CacheLogin(JdbcTemplate jdbcTemplate,
+                      UsuarioRepository usuarioRepository,
+                      @Value("${app.login.cache.capacidad:50000}") int capacidad,
+                      @Value("${app.login.cache.ttl-segundos:30}") long ttlSegundos,
+                      @Value("${app.login.filtro.probabilidad-falso-positivo:0.01}") double probabilidadFalsoPositivo) {
+        if (probabilidadFalsoPositivo <= 0 || probabilidadFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("La probabilidad de falso positivo del filtro de login debe estar entre 0 y 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.usuarioRepository = usuarioRepository;
+        this.probabilidadFalsoPositivo = probabilidadFalsoPositivo;
+        this.porNombre = new CacheLocal<>("login-nombre", capacidad, ttlSegundos, TimeUnit.SECONDS);
+        this.porCorreo = new CacheLocal<>("login-correo", capacidad, ttlSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Cargar el usuario que inicia sesión, por nombre de usuario o, si no existe y el texto
+     * parece un correo, por correo electrónico
+     */
+    @Override
+    public UserDetails loadUserByUsername(String nombreOCorreo) throws UsernameNotFoundException {
+        InstantaneaLogin login = obtenerPorNombre(nombreOCorreo);
+        if (!login.existe() && nombreOCorreo.indexOf('@') >= 0) {
+            login = obtenerPorCorreo(nombreOCorreo);
+        }
+        if (!login.existe()) {
+            throw new UsernameNotFoundException("Usuario no encontrado");
+        }
+        return login.aUsuario();
+    }
+
+    public InstantaneaLogin obtenerPorNombre(String nombreUsuario) {
+        if (!puedeExistirNombre(nombreUsuario)) {
+            return InstantaneaLogin.NO_ENCONTRADO;
+        }
+        return obtener(porNombre, nombreUsuario, InstantaneaLogin::nombreUsuario,
+            usuarioRepository::findByNombreUsuario);
+    }
+
+    public InstantaneaLogin obtenerPorCorreo(String correoElectronico) {
+        if (!puedeExistirCorreo(correoElectronico)) {
+            return InstantaneaLogin.NO_ENCONTRADO;
+        }
+        return obtener(porCorreo, correoElectronico, InstantaneaLogin::correoElectronico,
+            usuarioRepository::findByCorreoElectronico);
+    }
+
+    /**
+     * false solo si el nombre seguro no existe en la tabla usuarios
+     */
+    public boolean puedeExistirNombre(String nombreUsuario) {
+        return puedeExistir(PREFIJO_NOMBRE, nombreUsuario);
+    }
+
+    public boolean puedeExistirCorreo(String correoElectronico) {
+        return puedeExistir(PREFIJO_CORREO, correoElectronico);
+    }
+
+    /**
+     * Registrar un usuario nuevo: se agrega al filtro y se descartan las búsquedas negativas
+     * guardadas, de inmediato y otra vez al confirmar la transacción (así tampoco lo pierde
+     * una reconstrucción del filtro que haya leído la tabla antes de la confirmación)
+     */
+    public void registrar(Usuario usuario) {
+        agregarAlFiltro(usuario.getNombreUsuario(), usuario.getCorreoElectronico());
+        invalidar(usuario.getNombreUsuario(), usuario.getCorreoElectronico());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agregarAlFiltro(usuario.getNombreUsuario(), usuario.getCorreoElectronico());
+                    invalidar(usuario.getNombreUsuario(), usuario.getCorreoElectronico());
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalidar las instantáneas del usuario de inmediato y otra vez al confirmar la transacción,
+     * para que una lectura concurrente no reinstale el estado anterior
+     */
+    public void invalidar(Usuario usuario) {
+        String nombreUsuario = usuario.getNombreUsuario();
+        String correoElectronico = usuario.getCorreoElectronico();
+        invalidar(nombreUsuario, correoElectronico);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar(nombreUsuario, correoElectronico);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reconstruir el filtro desde la tabla usuarios, dimensionado para su tamaño actual
+     * Los usuarios creados durante la reconstrucción se agregan a ambos filtros
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.login.filtro.intervalo-reconstruccion-ms:3600000}",
+        initialDelayString = "${app.login.filtro.intervalo-reconstruccion-ms:3600000}")
+    public synchronized void reconstruirFiltro() {
+        long inicio = System.nanoTime();
+        try {
+            Long usuarios = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios", Long.class);
+            FiltroBloom nuevo = new FiltroBloom(
+                Math.max(ELEMENTOS_MINIMOS, 2 * MARGEN_CRECIMIENTO * (usuarios == null ? 0 : usuarios)),
+                probabilidadFalsoPositivo);
+            enConstruccion = nuevo;
+            try {
+                jdbcTemplate.query("SELECT nombre_usuario, correo_electronico FROM usuarios",
+                    (RowCallbackHandler) fila -> {
+                        nuevo.agregar(claveFiltro(PREFIJO_NOMBRE, fila.getString(1)));
+                        nuevo.agregar(claveFiltro(PREFIJO_CORREO, fila.getString(2)));
+                    });
+                filtro = nuevo;
+            } finally {
+                enConstruccion = null;
+            }
+            log.info("Filtro de login reconstruido: {} claves en {} bits ({} funciones) en {} ms",
+                nuevo.getAgregados(), nuevo.getBits(), nuevo.getFunciones(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (RuntimeException e) {
+            log.warn("No fue posible reconstruir el filtro de login, se conserva el anterior", e);
+        }
+    }
+
+    /**
+     * Solo se guarda en caché el resultado cuya clave coincide con el valor guardado en la tabla;
+     * una coincidencia por intercalación (acentos) se devuelve sin guardar, porque la invalidación
+     * usa la clave del valor guardado
+     */
+    private InstantaneaLogin obtener(CacheLocal<String, InstantaneaLogin> cache, String valor,
+                                     Function<InstantaneaLogin, String> campo,
+                                     Function<String, Optional<Usuario>> consulta) {
+        String clave = clave(valor);
+        InstantaneaLogin[] cargada = new InstantaneaLogin[1];
+        InstantaneaLogin login = cache.obtener(clave, c -> {
+            cargada[0] = consulta.apply(valor).map(InstantaneaLogin::de).orElse(InstantaneaLogin.NO_ENCONTRADO);
+            return !cargada[0].existe() || clave(campo.apply(cargada[0])).equals(c) ? cargada[0] : null;
+        });
+        return login != null ? login : cargada[0];
+    }
+
+    private boolean puedeExistir(String prefijo, String valor) {
+        FiltroBloom actual = filtro;
+        if (actual == null || actual.puedeContener(claveFiltro(prefijo, valor))) {
+            return true;
+        }
+        descartadosPorFiltro.increment();
+        return false;
+    }
+
+    /**
+     * El orden importa: si no hay reconstrucción en curso, o ya terminó y el filtro nuevo está
+     * publicado, o aún no leyó la tabla y verá la fila confirmada
+     */
+    private void agregarAlFiltro(String nombreUsuario, String correoElectronico) {
+        FiltroBloom nuevo = enConstruccion;
+        FiltroBloom actual = filtro;
+        for (FiltroBloom destino : new FiltroBloom[] {nuevo, actual}) {
+            if (destino != null) {
+                destino.agregar(claveFiltro(PREFIJO_NOMBRE, nombreUsuario));
+                destino.agregar(claveFiltro(PREFIJO_CORREO, correoElectronico));
+            }
+        }
+    }
+
+    private void invalidar(String nombreUsuario, String correoElectronico) {
+        porNombre.invalidar(clave(nombreUsuario));
+        porCorreo.invalidar(clave(correoElectronico));
+    }
+
+    private static String clave(String valor) {
+        return valor.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Además de mayúsculas ignora acentos, como la intercalación de la tabla: dos valores que la
+     * base de datos considera iguales deben dar la misma clave (una clave de más solo suma falsos positivos)
+     */
+    private static String claveFiltro(String prefijo, String valor) {
+        String sinAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(valor, Normalizer.Form.NFD)).replaceAll("");
+        return prefijo + sinAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    public long getDescartadosPorFiltro() {
+        return descartadosPorFiltro.sum();
+    }
+
+    public double getProbabilidadFalsoPositivo() {
+        FiltroBloom actual = filtro;
+        return actual == null ? 1 : actual.getProbabilidadFalsoPositivo();
+    }
+
+    public List<CacheLocal.Estadisticas> estadisticas() {
+        return List.of(porNombre.estadisticas(), porCorreo.estadisticas());
+    }
+
+    /**
+     * Instantánea inmutable de las credenciales y el estado del usuario
+     * Cada llamada a aUsuario crea un objeto nuevo, porque Spring Security borra la
+     * contraseña del UserDetails al terminar la autenticación
+     */
+    public record InstantaneaLogin(Long idUsuario, String nombreUsuario, String correoElectronico, String contrasena,
+                                   Enums.RolSistema rol, Enums.EstadoUsuario estado, Long idClienteRelacionado) {
+
+        static final InstantaneaLogin NO_ENCONTRADO = new InstantaneaLogin(null, null, null, null, null, null, null);
+
+        static InstantaneaLogin de(Usuario usuario) {
+            return new InstantaneaLogin(usuario.getIdUsuario(), usuario.getNombreUsuario(),
+                usuario.getCorreoElectronico(), usuario.getContrasena(), usuario.getRolSistema(),
+                usuario.getEstadoUsuario(), usuario.getIdClienteRelacionado());
+        }
+
+        public boolean existe() {
+            return idUsuario != null;
+        }
+
+        /**
+         * Usuario con los datos de autenticación y autorización (no es una entidad administrada),
+         * para que @AuthenticationPrincipal Usuario funcione con el principal de la sesión
+         */
+        public Usuario aUsuario() {
+            Usuario usuario = new Usuario();
+            usuario.setIdUsuario(idUsuario);
+            usuario.setNombreUsuario(nombreUsuario);
+            usuario.setCorreoElectronico(correoElectronico);
+            usuario.setContrasena(contrasena);
+            usuario.setRolSistema(rol);
+            usuario.setEstadoUsuario(estado);
+            usuario.setIdClienteRelacionado(idClienteRelacionado);
+            return usuario;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.config.OperacionMedida;
+import com.banco.gestion.dto.ReporteCausacionIntereses;
+import com.banco.gestion.models.AvanceCausacion;
+import com.banco.gestion.repositories.AvanceCausacionRepository;
+import com.banco.gestion.utils.Enums;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Causación diaria de intereses de las cuentas de ahorros
+ * Divide cuentas_bancarias en particiones por rango de ID y moneda, y las procesa en paralelo.
+ * Cada partición avanza por bloques leídos por clave (id_cuenta > último) sin cargar entidades;
+ * cada bloque abona los intereses con un batch JDBC de UPDATE y mueve el punto de control de la
+ * partición en la misma transacción, con la fila del punto de control bloqueada. Así una ejecución
+ * interrumpida, o una segunda instancia, continúa desde el último bloque confirmado sin repetir
+ * abonos. Al completar una partición se registra un único resumen en la bitácora.
+ * Interés diario = saldo × tasa anual / 365, redondeado a la unidad menor (HALF_EVEN)
+ */
+@Slf4j
+@Component
+public class CausacionIntereses {
+
+    private static final BigDecimal DIAS_ANO = BigDecimal.valueOf(365);
+
+    private static final String RANGO_CUENTAS =
+        "SELECT MIN(id_cuenta), MAX(id_cuenta) FROM cuentas_bancarias WHERE tipo_cuenta = 'AHORROS' AND moneda = ?";
+
+    private static final String CONSULTA_BLOQUE =
+        "SELECT id_cuenta, numero_cuenta, saldo_actual FROM cuentas_bancarias " +
+        "WHERE id_cuenta > ? AND id_cuenta <= ? AND tipo_cuenta = 'AHORROS' AND estado_cuenta = 'ACTIVA' " +
+        "AND moneda = ? ORDER BY id_cuenta LIMIT ?";
+
+    private static final String ABONAR =
+        "UPDATE cuentas_bancarias SET saldo_actual = saldo_actual + ?, fecha_actualizacion = ? " +
+        "WHERE id_cuenta = ? AND estado_cuenta = 'ACTIVA'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AvanceCausacionRepository avanceRepository;
+    private final BitacoraService bitacoraService;
+    private final CacheCuentas cacheCuentas;
+    private final boolean activa;
+    private final BigDecimal tasaAnual;
+    private final int particiones;
+    private final int paralelismo;
+    private final int tamanoBloque;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+    private volatile ReporteCausacionIntereses ultimoReporte;
+
+    public CausacionIntereses(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              AvanceCausacionRepository avanceRepository,
+                              BitacoraService bitacoraService,
+                              CacheCuentas cacheCuentas,
+                              @Value("${app.intereses.activa:false}") boolean activa,
+                              @Value("${app.intereses.tasa-anual:0.03}") BigDecimal tasaAnual,
+                              @Value("${app.intereses.particiones:64}") int particiones,
+                              @Value("${app.intereses.paralelismo:8}") int paralelismo,
+                              @Value("${app.intereses.tamano-bloque:2000}") int tamanoBloque) {
+        if (tasaAnual.signum() < 0 || particiones <= 0 || paralelismo <= 0 || tamanoBloque <= 0) {
+            throw new IllegalArgumentException("Configuración de causación de intereses inválida");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.avanceRepository = avanceRepository;
+        this.bitacoraService = bitacoraService;
+        this.cacheCuentas = cacheCuentas;
+        this.activa = activa;
+        this.tasaAnual = tasaAnual;
+        this.particiones = particiones;
+        this.paralelismo = paralelismo;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Causar los intereses del día anterior
+     */
+    @Scheduled(cron = "${app.intereses.cron:0 30 0 * * *}")
+    public void causarDiaAnterior() {
+        if (!activa) {
+            return;
+        }
+        try {
+            causar(LocalDate.now().minusDays(1));
+        } catch (IllegalStateException e) {
+            log.warn("Causación de intereses omitida: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Causar los intereses de una fecha de corte; volver a ejecutarla solo procesa lo pendiente
+     */
+    @OperacionMedida
+    public ReporteCausacionIntereses causar(LocalDate fechaCorte) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una causación de intereses en ejecución");
+        }
+        try {
+            return ejecutar(fechaCorte);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    public ReporteCausacionIntereses getUltimoReporte() {
+        return ultimoReporte;
+    }
+
+    public boolean isEnEjecucion() {
+        return enEjecucion.get();
+    }
+
+    /**
+     * Interés de un día sobre el saldo, en la escala de la moneda
+     */
+    public BigDecimal interesDiario(BigDecimal saldo, Enums.Moneda moneda) {
+        return saldo.multiply(tasaAnual).divide(DIAS_ANO, moneda.getDecimales(), RoundingMode.HALF_EVEN);
+    }
+
+    private ReporteCausacionIntereses ejecutar(LocalDate fechaCorte) {
+        long inicio = System.nanoTime();
+        List<AvanceCausacion> avances = planificar(fechaCorte);
+
+        AtomicInteger secuenciaHilos = new AtomicInteger();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(paralelismo, tarea -> {
+            Thread hilo = new Thread(tarea, "causacion-intereses-" + secuenciaHilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        List<Future<ResultadoParticion>> pendientes = new ArrayList<>(avances.size());
+        int omitidas = 0;
+        try {
+            for (AvanceCausacion avance : avances) {
+                if (avance.estaCompletada()) {
+                    omitidas++;
+                } else {
+                    pendientes.add(ejecutor.submit(() -> procesarParticion(avance.getIdAvance(), avance.getMoneda())));
+                }
+            }
+
+            int procesadas = 0;
+            int fallidas = 0;
+            long cuentasProcesadas = 0;
+            long cuentasAbonadas = 0;
+            Map<Enums.Moneda, BigDecimal> montos = new EnumMap<>(Enums.Moneda.class);
+            for (Future<ResultadoParticion> pendiente : pendientes) {
+                try {
+                    ResultadoParticion resultado = pendiente.get();
+                    procesadas++;
+                    cuentasProcesadas += resultado.cuentasProcesadas();
+                    cuentasAbonadas += resultado.cuentasAbonadas();
+                    montos.merge(resultado.moneda(), resultado.monto(), BigDecimal::add);
+                } catch (ExecutionException e) {
+                    fallidas++;
+                    log.error("Partición de causación de intereses interrumpida; continuará en la próxima ejecución",
+                        e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Causación de intereses interrumpida", e);
+                }
+            }
+
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            Map<String, BigDecimal> montosPorMoneda = new LinkedHashMap<>();
+            montos.forEach((moneda, monto) -> montosPorMoneda.put(moneda.name(), monto));
+            ReporteCausacionIntereses reporte = new ReporteCausacionIntereses(fechaCorte, procesadas, omitidas,
+                fallidas, cuentasProcesadas, cuentasAbonadas, montosPorMoneda, duracionMs);
+            ultimoReporte = reporte;
+            log.info("Causación de intereses {}: {} cuentas en {} ms ({} cuentas/s), {} abonadas, {} particiones "
+                    + "({} omitidas, {} fallidas), montos {}", fechaCorte, cuentasProcesadas, duracionMs,
+                Math.round(reporte.getCuentasPorSegundo()), cuentasAbonadas, avances.size(), omitidas, fallidas,
+                montosPorMoneda);
+            return reporte;
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Particiones de la fecha de corte; se crean una sola vez por fecha y moneda para que los
+     * rangos no cambien entre ejecuciones. Las cuentas abiertas después quedan fuera del corte
+     */
+    private List<AvanceCausacion> planificar(LocalDate fechaCorte) {
+        List<AvanceCausacion> avances = new ArrayList<>();
+        for (Enums.Moneda moneda : Enums.Moneda.values()) {
+            List<AvanceCausacion> existentes =
+                avanceRepository.findByFechaCorteAndMonedaOrderByParticionAsc(fechaCorte, moneda);
+            if (existentes.isEmpty()) {
+                existentes = crearParticiones(fechaCorte, moneda);
+            }
+            avances.addAll(existentes);
+        }
+        return avances;
+    }
+
+    private List<AvanceCausacion> crearParticiones(LocalDate fechaCorte, Enums.Moneda moneda) {
+        long[] rango = jdbcTemplate.queryForObject(RANGO_CUENTAS,
+            (rs, fila) -> new long[]{rs.getLong(1), rs.wasNull() ? -1 : rs.getLong(2)}, moneda.name());
+        if (rango == null || rango[1] < 0) {
+            return List.of();
+        }
+        long desde = rango[0] - 1;
+        long total = rango[1] - desde;
+        long cantidad = Math.min(particiones, total);
+        long ancho = (total + cantidad - 1) / cantidad;
+
+        List<AvanceCausacion> nuevas = new ArrayList<>((int) cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            long idDesde = desde + i * ancho;
+            nuevas.add(new AvanceCausacion(fechaCorte, moneda, i, idDesde, Math.min(idDesde + ancho, rango[1])));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> avanceRepository.saveAll(nuevas));
+            return nuevas;
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia planificó la misma fecha primero: se usan sus particiones
+            return avanceRepository.findByFechaCorteAndMonedaOrderByParticionAsc(fechaCorte, moneda);
+        }
+    }
+
+    private ResultadoParticion procesarParticion(String idAvance, Enums.Moneda moneda) {
+        long cuentasProcesadas = 0;
+        long cuentasAbonadas = 0;
+        BigDecimal monto = BigDecimal.ZERO;
+        Bloque bloque;
+        do {
+            bloque = transactionTemplate.execute(status -> causarBloque(idAvance));
+            cuentasProcesadas += bloque.leidas();
+            cuentasAbonadas += bloque.abonadas();
+            monto = monto.add(bloque.monto());
+        } while (!bloque.completada());
+        return new ResultadoParticion(moneda, cuentasProcesadas, cuentasAbonadas, monto);
+    }
+
+    /**
+     * Un bloque en una transacción: bloquear el punto de control, leer desde su último ID,
+     * abonar en batch y avanzar. El bloque que lee menos filas que el máximo completa la partición
+     */
+    private Bloque causarBloque(String idAvance) {
+        AvanceCausacion avance = avanceRepository.bloquearPorId(idAvance)
+            .orElseThrow(() -> new IllegalStateException("Partición de causación no encontrada: " + idAvance));
+        if (avance.estaCompletada()) {
+            return new Bloque(0, 0, BigDecimal.ZERO, true);
+        }
+
+        Enums.Moneda moneda = avance.getMoneda();
+        List<Abono> abonos = new ArrayList<>(tamanoBloque);
+        long[] ultimoLeido = {avance.getUltimoId()};
+        int[] leidas = {0};
+        jdbcTemplate.query(CONSULTA_BLOQUE, rs -> {
+            leidas[0]++;
+            ultimoLeido[0] = rs.getLong(1);
+            BigDecimal interes = interesDiario(rs.getBigDecimal(3), moneda);
+            if (interes.signum() > 0) {
+                abonos.add(new Abono(ultimoLeido[0], rs.getString(2), interes));
+            }
+        }, avance.getUltimoId(), avance.getIdHasta(), moneda.name(), tamanoBloque);
+
+        int abonadas = 0;
+        BigDecimal monto = BigDecimal.ZERO;
+        if (!abonos.isEmpty()) {
+            int[] filas = abonar(abonos);
+            for (int i = 0; i < abonos.size(); i++) {
+                // SUCCESS_NO_INFO cuenta como aplicada: el driver no informa filas por sentencia
+                if (filas[i] > 0 || filas[i] == Statement.SUCCESS_NO_INFO) {
+                    Abono abono = abonos.get(i);
+                    abonadas++;
+                    monto = monto.add(abono.interes());
+                    cacheCuentas.invalidar(abono.idCuenta(), abono.numeroCuenta());
+                }
+            }
+        }
+
+        boolean completada = leidas[0] < tamanoBloque;
+        avance.setUltimoId(completada ? avance.getIdHasta() : ultimoLeido[0]);
+        avance.setCuentasProcesadas(avance.getCuentasProcesadas() + leidas[0]);
+        avance.setCuentasAbonadas(avance.getCuentasAbonadas() + abonadas);
+        avance.setMontoTotal(avance.getMontoTotal().add(monto));
+        avance.setFechaActualizacion(LocalDateTime.now());
+        if (completada) {
+            avance.setEstado(Enums.EstadoAvanceCausacion.COMPLETADA);
+            bitacoraService.registrarCausacionIntereses(avance, tasaAnual);
+        }
+        return new Bloque(leidas[0], abonadas, monto, completada);
+    }
+
+    private int[] abonar(List<Abono> abonos) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(ABONAR, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Abono abono = abonos.get(i);
+                ps.setBigDecimal(1, abono.interes());
+                ps.setTimestamp(2, ahora);
+                ps.setLong(3, abono.idCuenta());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return abonos.size();
+            }
+        });
+    }
+
+    private record Abono(long idCuenta, String numeroCuenta, BigDecimal interes) {
+    }
+
+    private record Bloque(int leidas, int abonadas, BigDecimal monto, boolean completada) {
+    }
+
+    private record ResultadoParticion(Enums.Moneda moneda, long cuentasProcesadas, long cuentasAbonadas,
+                                      BigDecimal monto) {
+    }
+}
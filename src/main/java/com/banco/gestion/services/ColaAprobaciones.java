@@ -0,0 +1,404 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.config.OperacionMedida;
+import com.banco.gestion.dto.ElementoAprobacion;
+import com.banco.gestion.models.Prestamo;
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.repositories.PrestamoRepository;
+import com.banco.gestion.repositories.TransferenciaRepository;
+import com.banco.gestion.utils.ColaTrabajoIndexada;
+import com.banco.gestion.utils.Enums;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Colas de aprobación en memoria para supervisores de empresa y analistas internos
+ * Las transferencias en espera de aprobación (particionadas por empresa titular de la cuenta
+ * origen) y los préstamos en estudio (particionados por cliente solicitante) se cargan de la base
+ * de datos al arrancar y se actualizan al confirmar cada cambio de estado. Las pantallas reciben
+ * los cambios por Server-Sent Events en lugar de repetir las consultas de listado.
+ * Un analista toma un préstamo con SELECT ... FOR UPDATE SKIP LOCKED: dos analistas nunca
+ * esperan ni se asignan el mismo préstamo.
+ * Cada suscriptor tiene un búfer acotado de eventos que se envía aparte: un cliente lento solo
+ * retrasa su propio flujo y, si llena el búfer, se le desconecta para que vuelva a suscribirse
+ */
+@Slf4j
+@Service
+public class ColaAprobaciones {
+
+    public static final String TRANSFERENCIA = "TRANSFERENCIA";
+    public static final String PRESTAMO = "PRESTAMO";
+
+    private static final long SIN_EMPRESA = 0L;
+
+    private final TransferenciaRepository transferenciaRepository;
+    private final PrestamoRepository prestamoRepository;
+    private final CacheCuentas cacheCuentas;
+    private final long timeoutSseMs;
+    private final int tamanoInstantanea;
+    private final int capacidadCliente;
+
+    private final ColaTrabajoIndexada<ElementoAprobacion> transferencias = new ColaTrabajoIndexada<>();
+    private final ColaTrabajoIndexada<ElementoAprobacion> prestamos = new ColaTrabajoIndexada<>();
+    private final List<Suscriptor> suscriptoresTransferencias = new CopyOnWriteArrayList<>();
+    private final List<Suscriptor> suscriptoresPrestamos = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong desconectadosPorRetraso = new AtomicLong();
+
+    // Como mucho un envío en curso por suscriptor: los hilos están acotados por el número de clientes
+    private final ExecutorService envios = Executors.newCachedThreadPool(tarea -> {
+        Thread hilo = new Thread(tarea, "cola-aprobaciones-sse");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public ColaAprobaciones(TransferenciaRepository transferenciaRepository,
+                            PrestamoRepository prestamoRepository,
+                            CacheCuentas cacheCuentas,
+                            @Value("${app.aprobaciones.sse.timeout-ms:1800000}") long timeoutSseMs,
+                            @Value("${app.aprobaciones.sse.tamano-instantanea:500}") int tamanoInstantanea,
+                            @Value("${app.aprobaciones.sse.capacidad-cliente:256}") int capacidadCliente) {
+        if (timeoutSseMs <= 0 || tamanoInstantanea <= 0 || capacidadCliente <= 0) {
+            throw new IllegalArgumentException("Configuración de la cola de aprobaciones inválida");
+        }
+        this.transferenciaRepository = transferenciaRepository;
+        this.prestamoRepository = prestamoRepository;
+        this.cacheCuentas = cacheCuentas;
+        this.timeoutSseMs = timeoutSseMs;
+        this.tamanoInstantanea = tamanoInstantanea;
+        this.capacidadCliente = capacidadCliente;
+    }
+
+    /**
+     * Cargar las colas desde la base de datos; única vez que se ejecutan las consultas de listado
+     * Se lee del primario (transacción de escritura) para no perder cambios aún no replicados
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rehidratar() {
+        transferencias.vaciar();
+        prestamos.vaciar();
+        for (Transferencia transferencia : transferenciaRepository.findByEstadoTransferencia(
+                Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION)) {
+            ponerTransferencia(transferencia);
+        }
+        for (Prestamo prestamo : prestamoRepository.findPrestamosEnEstudio()) {
+            ponerPrestamo(prestamo);
+        }
+        log.info("Colas de aprobación rehidratadas: {} transferencias y {} préstamos",
+            transferencias.tamano(), prestamos.tamano());
+    }
+
+    /**
+     * Reflejar el estado de una transferencia al confirmar la transacción en curso
+     */
+    public void actualizarTransferencia(Transferencia transferencia) {
+        alConfirmar(() -> {
+            if (transferencia.getEstadoTransferencia() == Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION) {
+                difundir(suscriptoresTransferencias, "alta", ponerTransferencia(transferencia));
+            } else {
+                quitarTransferencia(transferencia.getIdTransferencia());
+            }
+        });
+    }
+
+    /**
+     * Retirar de la cola transferencias aprobadas, rechazadas o vencidas
+     */
+    public void transferenciasResueltas(Collection<Long> idsTransferencia) {
+        List<Long> ids = List.copyOf(idsTransferencia);
+        alConfirmar(() -> ids.forEach(this::quitarTransferencia));
+    }
+
+    /**
+     * Reflejar el estado de un préstamo al confirmar la transacción en curso
+     */
+    public void actualizarPrestamo(Prestamo prestamo) {
+        alConfirmar(() -> {
+            if (prestamo.getEstadoPrestamo() == Enums.EstadoPrestamo.EN_ESTUDIO) {
+                ElementoAprobacion elemento = ponerPrestamo(prestamo);
+                difundir(suscriptoresPrestamos, elemento.getIdAnalistaAsignado() == null ? "alta" : "asignado", elemento);
+            } else {
+                ElementoAprobacion elemento = prestamos.quitar(prestamo.getIdPrestamo());
+                if (elemento != null) {
+                    difundir(suscriptoresPrestamos, "baja", elemento);
+                }
+            }
+        });
+    }
+
+    /**
+     * Transferencias en espera de una empresa, las más antiguas primero
+     */
+    public List<ElementoAprobacion> pendientesTransferencias(Long idEmpresa, int limite) {
+        return transferencias.primeros(idEmpresa == null ? SIN_EMPRESA : idEmpresa, limite);
+    }
+
+    /**
+     * Préstamos en estudio, de un cliente o de todos si idCliente es null
+     */
+    public List<ElementoAprobacion> pendientesPrestamos(Long idCliente, int limite) {
+        return prestamos.primeros(idCliente, limite);
+    }
+
+    /**
+     * Suscribir a un supervisor a las transferencias de su empresa
+     */
+    public SseEmitter suscribirTransferencias(Long idEmpresa) {
+        return suscribir(suscriptoresTransferencias, transferencias, idEmpresa == null ? SIN_EMPRESA : idEmpresa);
+    }
+
+    /**
+     * Suscribir a un analista a los préstamos en estudio (de un cliente o de todos)
+     */
+    public SseEmitter suscribirPrestamos(Long idCliente) {
+        return suscribir(suscriptoresPrestamos, prestamos, idCliente);
+    }
+
+    /**
+     * Tomar un préstamo concreto; falla si otro analista ya lo tomó o lo está tomando
+     */
+    @Transactional
+    @OperacionMedida
+    public ElementoAprobacion reclamarPrestamo(Long idPrestamo, Long idAnalista) {
+        Prestamo prestamo = prestamoRepository.reclamarPorId(idPrestamo)
+            .orElseThrow(() -> new IllegalArgumentException("El préstamo no está en estudio o ya fue tomado por otro analista"));
+        return asignar(prestamo, idAnalista);
+    }
+
+    /**
+     * Tomar el préstamo sin asignar más antiguo, saltando los que otros analistas están tomando
+     */
+    @Transactional
+    @OperacionMedida
+    public Optional<ElementoAprobacion> reclamarSiguientePrestamo(Long idAnalista) {
+        return prestamoRepository.reclamarSiguiente().map(prestamo -> asignar(prestamo, idAnalista));
+    }
+
+    /**
+     * Devolver a la cola un préstamo tomado por el analista
+     */
+    @Transactional
+    @OperacionMedida
+    public void liberarPrestamo(Long idPrestamo, Long idAnalista) {
+        if (prestamoRepository.liberar(idPrestamo, idAnalista, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("El préstamo no está asignado al analista o ya no está en estudio");
+        }
+        ElementoAprobacion actual = prestamos.obtener(idPrestamo);
+        if (actual != null) {
+            alConfirmar(() -> {
+                ElementoAprobacion liberado = new ElementoAprobacion(PRESTAMO, actual.getId(), actual.getIdEmpresa(),
+                    actual.getMonto(), actual.getFechaCreacion(), null, null, actual.getTipoPrestamo(), null);
+                prestamos.poner(liberado.getId(), liberado.getIdEmpresa(), liberado.getFechaCreacion(), liberado);
+                difundir(suscriptoresPrestamos, "alta", liberado);
+            });
+        }
+    }
+
+    public int getTransferenciasPendientes() {
+        return transferencias.tamano();
+    }
+
+    public int getPrestamosPendientes() {
+        return prestamos.tamano();
+    }
+
+    public int getSuscriptores() {
+        return suscriptoresTransferencias.size() + suscriptoresPrestamos.size();
+    }
+
+    public long getDesconectadosPorRetraso() {
+        return desconectadosPorRetraso.get();
+    }
+
+    /**
+     * Comentario SSE periódico: mantiene viva la conexión y detecta clientes desconectados
+     */
+    @Scheduled(fixedDelayString = "${app.aprobaciones.sse.latido-ms:15000}")
+    public void latido() {
+        latido(suscriptoresTransferencias);
+        latido(suscriptoresPrestamos);
+    }
+
+    @PreDestroy
+    void cerrar() {
+        envios.shutdownNow();
+        suscriptoresTransferencias.forEach(s -> s.emisor().complete());
+        suscriptoresPrestamos.forEach(s -> s.emisor().complete());
+    }
+
+    private ElementoAprobacion asignar(Prestamo prestamo, Long idAnalista) {
+        prestamo.setIdAnalistaAprobador(idAnalista);
+        prestamo.setFechaActualizacion(LocalDateTime.now());
+        actualizarPrestamo(prestamo);
+        return aElemento(prestamo);
+    }
+
+    private ElementoAprobacion ponerTransferencia(Transferencia transferencia) {
+        CacheCuentas.InstantaneaCuenta origen = cacheCuentas.obtenerPorNumero(transferencia.getCuentaOrigen());
+        long idEmpresa = origen.existe() ? origen.idTitular() : SIN_EMPRESA;
+        ElementoAprobacion elemento = new ElementoAprobacion(TRANSFERENCIA, transferencia.getIdTransferencia(), idEmpresa,
+            transferencia.getMonto(), transferencia.getFechaCreacion(), transferencia.getCuentaOrigen(),
+            transferencia.getCuentaDestino(), null, null);
+        transferencias.poner(elemento.getId(), idEmpresa, elemento.getFechaCreacion(), elemento);
+        return elemento;
+    }
+
+    private void quitarTransferencia(Long idTransferencia) {
+        ElementoAprobacion elemento = transferencias.quitar(idTransferencia);
+        if (elemento != null) {
+            difundir(suscriptoresTransferencias, "baja", elemento);
+        }
+    }
+
+    private ElementoAprobacion ponerPrestamo(Prestamo prestamo) {
+        ElementoAprobacion elemento = aElemento(prestamo);
+        prestamos.poner(elemento.getId(), elemento.getIdEmpresa(), elemento.getFechaCreacion(), elemento);
+        return elemento;
+    }
+
+    private static ElementoAprobacion aElemento(Prestamo prestamo) {
+        return new ElementoAprobacion(PRESTAMO, prestamo.getIdPrestamo(), prestamo.getIdClienteSolicitante(),
+            prestamo.getMontoSolicitado(), prestamo.getFechaCreacion(), null, null, prestamo.getTipoPrestamo(),
+            prestamo.getIdAnalistaAprobador());
+    }
+
+    /**
+     * Registra al suscriptor antes de calcular la instantánea inicial, que se antepone a los eventos
+     * ya encolados; un cambio concurrente puede llegar también en la instantánea, por lo que el
+     * cliente debe tratar los eventos por ID
+     */
+    private SseEmitter suscribir(List<Suscriptor> suscriptores, ColaTrabajoIndexada<ElementoAprobacion> cola, Long particion) {
+        SseEmitter emisor = new SseEmitter(timeoutSseMs);
+        Suscriptor suscriptor = new Suscriptor(emisor, particion, new LinkedBlockingDeque<>(capacidadCliente + 1));
+        emisor.onCompletion(() -> suscriptores.remove(suscriptor));
+        emisor.onTimeout(() -> suscriptores.remove(suscriptor));
+        emisor.onError(e -> suscriptores.remove(suscriptor));
+        suscriptores.add(suscriptor);
+        // El hueco extra del búfer queda reservado para la instantánea
+        suscriptor.pendientes().offerFirst(SseEmitter.event().name("instantanea").data(cola.primeros(particion, tamanoInstantanea)));
+        suscriptor.listo().set(true);
+        programar(suscriptores, suscriptor);
+        return emisor;
+    }
+
+    private void difundir(List<Suscriptor> suscriptores, String evento, ElementoAprobacion elemento) {
+        for (Suscriptor suscriptor : suscriptores) {
+            if (suscriptor.particion() == null || suscriptor.particion().equals(elemento.getIdEmpresa())) {
+                encolar(suscriptores, suscriptor, SseEmitter.event()
+                    .name(evento).id(elemento.getTipo() + "-" + elemento.getId()).data(elemento));
+            }
+        }
+    }
+
+    private void latido(List<Suscriptor> suscriptores) {
+        for (Suscriptor suscriptor : suscriptores) {
+            encolar(suscriptores, suscriptor, SseEmitter.event().comment("latido"));
+        }
+    }
+
+    /**
+     * Un búfer lleno significa que el cliente no consume al ritmo de los cambios: se le desconecta
+     * en lugar de retener memoria o hilos por él
+     */
+    private void encolar(List<Suscriptor> suscriptores, Suscriptor suscriptor, SseEmitter.SseEventBuilder evento) {
+        if (suscriptor.pendientes().size() >= capacidadCliente || !suscriptor.pendientes().offerLast(evento)) {
+            if (suscriptores.remove(suscriptor)) {
+                desconectadosPorRetraso.incrementAndGet();
+                log.warn("Suscriptor SSE de aprobaciones desconectado: {} eventos sin enviar", suscriptor.pendientes().size());
+                suscriptor.pendientes().clear();
+                suscriptor.emisor().completeWithError(new IllegalStateException("El cliente SSE no consume los eventos a tiempo"));
+            }
+            return;
+        }
+        programar(suscriptores, suscriptor);
+    }
+
+    /**
+     * Lanzar el envío del búfer si no hay otro en curso para el mismo suscriptor; así se conserva
+     * el orden de sus eventos sin que un cliente lento bloquee a los demás
+     */
+    private void programar(List<Suscriptor> suscriptores, Suscriptor suscriptor) {
+        if (!suscriptor.listo().get() || !suscriptor.enviando().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            envios.execute(() -> vaciar(suscriptores, suscriptor));
+        } catch (RejectedExecutionException e) {
+            suscriptor.enviando().set(false);
+        }
+    }
+
+    private void vaciar(List<Suscriptor> suscriptores, Suscriptor suscriptor) {
+        SseEmitter.SseEventBuilder evento;
+        while ((evento = suscriptor.pendientes().pollFirst()) != null) {
+            if (!enviar(suscriptores, suscriptor, evento)) {
+                suscriptor.pendientes().clear();
+                break;
+            }
+        }
+        suscriptor.enviando().set(false);
+        // Un evento encolado entre el último poll y la liberación no debe quedarse sin enviar
+        if (!suscriptor.pendientes().isEmpty() && suscriptores.contains(suscriptor)) {
+            programar(suscriptores, suscriptor);
+        }
+    }
+
+    private boolean enviar(List<Suscriptor> suscriptores, Suscriptor suscriptor, SseEmitter.SseEventBuilder evento) {
+        try {
+            suscriptor.emisor().send(evento);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            suscriptores.remove(suscriptor);
+            suscriptor.emisor().completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Las colas solo reflejan cambios confirmados; sin transacción se aplica de inmediato
+     */
+    private void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cambio.run();
+                }
+            });
+        } else {
+            cambio.run();
+        }
+    }
+
+    private record Suscriptor(SseEmitter emisor, Long particion, BlockingDeque<SseEmitter.SseEventBuilder> pendientes,
+                              AtomicBoolean listo, AtomicBoolean enviando) {
+
+        Suscriptor(SseEmitter emisor, Long particion, BlockingDeque<SseEmitter.SseEventBuilder> pendientes) {
+            this(emisor, particion, pendientes, new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+}
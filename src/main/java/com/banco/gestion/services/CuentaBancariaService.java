@@ -1,20 +1,29 @@
 package com.banco.gestion.services;
 
+import com.banco.gestion.config.OperacionMedida;
+import com.banco.gestion.dto.LineaDeposito;
+import com.banco.gestion.dto.ReporteLoteDeposito;
 import com.banco.gestion.models.CuentaBancaria;
 import com.banco.gestion.models.Cliente;
 import com.banco.gestion.repositories.CuentaBancariaRepository;
 import com.banco.gestion.repositories.ClienteRepository;
+import com.banco.gestion.utils.Dinero;
 import com.banco.gestion.utils.Enums;
+import com.banco.gestion.utils.EventosJfr;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Servicio de Cuentas Bancarias
@@ -25,47 +34,67 @@ import java.util.UUID;
 @Transactional
 public class CuentaBancariaService {
 
+    private static final String OPERACION_APERTURA = "APERTURA";
+    private static final String OPERACION_DEPOSITO = "DEPOSITO";
+    private static final String OPERACION_RETIRO = "RETIRO";
+    private static final String OPERACION_BLOQUEO = "BLOQUEO";
+    private static final String OPERACION_CANCELACION = "CANCELACION";
+
     private final CuentaBancariaRepository cuentaRepository;
     private final ClienteRepository clienteRepository;
     private final BitacoraService bitacoraService;
+    private final MotorSaldos motorSaldos;
+    private final GeneradorNumeroCuenta generadorNumeroCuenta;
+    private final CacheCuentas cacheCuentas;
+    private final DepositosLote depositosLote;
+    private final RegistroIdempotencia registroIdempotencia;
 
     /**
      * Crear una nueva cuenta bancaria
      * Regla: No se puede abrir cuenta a cliente con Estado_Usuario = 'Inactivo' o 'Bloqueado'
      */
+    @OperacionMedida
     public CuentaBancaria crearCuenta(CuentaBancaria cuenta) {
-        // Validar que el cliente exista y esté activo
-        Cliente cliente = clienteRepository.findById(cuenta.getIdTitular())
-            .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
+        return conEvento(OPERACION_APERTURA, null, null, () -> {
+            // Validar que el cliente exista y esté activo
+            Cliente cliente = clienteRepository.findById(cuenta.getIdTitular())
+                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
 
-        if (cliente.getEstadoCliente() != Enums.EstadoUsuario.ACTIVO) {
-            throw new IllegalArgumentException("No se puede abrir cuenta a cliente inactivo o bloqueado");
-        }
+            if (cliente.getEstadoCliente() != Enums.EstadoUsuario.ACTIVO) {
+                throw new IllegalArgumentException("No se puede abrir cuenta a cliente inactivo o bloqueado");
+            }
 
-        // Generar número de cuenta único
-        cuenta.setNumeroCuenta(generarNumeroCuenta());
-        cuenta.setFechaApertura(LocalDate.now());
-        cuenta.setEstadoCuenta(Enums.EstadoCuenta.ACTIVA);
-        cuenta.setSaldoActual(BigDecimal.ZERO);
+            // Generar número de cuenta único
+            cuenta.setNumeroCuenta(generadorNumeroCuenta.siguiente());
+            cuenta.setFechaApertura(LocalDate.now());
+            cuenta.setEstadoCuenta(Enums.EstadoCuenta.ACTIVA);
+            cuenta.setSaldoActual(BigDecimal.ZERO);
 
-        CuentaBancaria cuentaGuardada = cuentaRepository.save(cuenta);
+            CuentaBancaria cuentaGuardada = cuentaRepository.save(cuenta);
+            // Descarta una posible instantánea "no encontrada" para el nuevo número
+            cacheCuentas.invalidar(cuentaGuardada);
 
-        // Registrar en bitácora
-        bitacoraService.registrarAperturaCuenta(cuentaGuardada);
+            // Registrar en bitácora
+            bitacoraService.registrarAperturaCuenta(cuentaGuardada);
 
-        return cuentaGuardada;
+            return cuentaGuardada;
+        });
     }
 
     /**
      * Obtener cuenta por número
+     * Devuelve una copia desconectada tomada de la caché de cuentas
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<CuentaBancaria> obtenerPorNumero(String numeroCuenta) {
-        return cuentaRepository.findByNumeroCuenta(numeroCuenta);
+        CacheCuentas.InstantaneaCuenta cuenta = cacheCuentas.obtenerPorNumero(numeroCuenta);
+        return cuenta.existe() ? Optional.of(cuenta.aCuenta()) : Optional.empty();
     }
 
     /**
      * Obtener cuentas de un cliente
      */
+    @Transactional(readOnly = true)
     public List<CuentaBancaria> obtenerCuentasCliente(Long idTitular) {
         return cuentaRepository.findByIdTitular(idTitular);
     }
@@ -73,6 +102,7 @@ public class CuentaBancariaService {
     /**
      * Obtener cuentas activas de un cliente
      */
+    @Transactional(readOnly = true)
     public List<CuentaBancaria> obtenerCuentasActivasCliente(Long idTitular) {
         return cuentaRepository.findByIdTitularAndEstadoCuenta(idTitular, Enums.EstadoCuenta.ACTIVA);
     }
@@ -80,107 +110,233 @@ public class CuentaBancariaService {
     /**
      * Bloquear cuenta
      */
+    @OperacionMedida
     public CuentaBancaria bloquearCuenta(Long idCuenta) {
-        CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
-            .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
-        cuenta.setEstadoCuenta(Enums.EstadoCuenta.BLOQUEADA);
-        cuenta.setFechaActualizacion(LocalDateTime.now());
-        return cuentaRepository.save(cuenta);
+        return conEvento(OPERACION_BLOQUEO, idCuenta, null, () -> {
+            motorSaldos.reservar(idCuenta);
+            CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
+            cuenta.setEstadoCuenta(Enums.EstadoCuenta.BLOQUEADA);
+            cuenta.setFechaActualizacion(LocalDateTime.now());
+            cacheCuentas.invalidar(cuenta);
+            return cuentaRepository.save(cuenta);
+        });
     }
 
     /**
      * Cancelar cuenta
      */
+    @OperacionMedida
     public CuentaBancaria cancelarCuenta(Long idCuenta) {
-        CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
-            .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
-        
-        if (cuenta.getSaldoActual().compareTo(BigDecimal.ZERO) > 0) {
-            throw new IllegalArgumentException("No se puede cancelar cuenta con saldo disponible");
-        }
-        
-        cuenta.setEstadoCuenta(Enums.EstadoCuenta.CANCELADA);
-        cuenta.setFechaActualizacion(LocalDateTime.now());
-        return cuentaRepository.save(cuenta);
+        return conEvento(OPERACION_CANCELACION, idCuenta, null, () -> {
+            motorSaldos.reservar(idCuenta);
+            CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
+
+            if (cuenta.getSaldoActual().compareTo(BigDecimal.ZERO) > 0) {
+                throw new IllegalArgumentException("No se puede cancelar cuenta con saldo disponible");
+            }
+
+            cuenta.setEstadoCuenta(Enums.EstadoCuenta.CANCELADA);
+            cuenta.setFechaActualizacion(LocalDateTime.now());
+            cacheCuentas.invalidar(cuenta);
+            return cuentaRepository.save(cuenta);
+        });
     }
 
     /**
      * Aumentar saldo (depósito)
+     * El crédito se aplica con un UPDATE atómico a través del MotorSaldos
      */
+    @OperacionMedida(histograma = true)
     public CuentaBancaria depositar(Long idCuenta, BigDecimal monto) {
-        if (monto.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("El monto debe ser mayor a cero");
-        }
+        return conEvento(OPERACION_DEPOSITO, idCuenta, monto, () -> {
+            validarMonto(monto);
 
-        CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
-            .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
+            motorSaldos.acreditar(idCuenta, monto);
 
-        if (!cuenta.estaDisponibleParaOperaciones()) {
-            throw new IllegalArgumentException("La cuenta no está disponible para operaciones");
-        }
-
-        BigDecimal saldoAnterior = cuenta.getSaldoActual();
-        cuenta.setSaldoActual(cuenta.getSaldoActual().add(monto));
-        cuenta.setFechaActualizacion(LocalDateTime.now());
-
-        return cuentaRepository.save(cuenta);
+            CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
+            cacheCuentas.invalidar(cuenta);
+            return cuenta;
+        });
     }
 
     /**
      * Disminuir saldo (retiro)
+     * El débito solo se aplica si el saldo alcanza (saldo >= monto) en el mismo UPDATE
      */
+    @OperacionMedida(histograma = true)
     public CuentaBancaria retirar(Long idCuenta, BigDecimal monto) {
-        if (monto.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("El monto debe ser mayor a cero");
-        }
+        return conEvento(OPERACION_RETIRO, idCuenta, monto, () -> {
+            validarMonto(monto);
 
-        CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
-            .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
+            motorSaldos.debitar(idCuenta, monto);
 
-        if (!cuenta.estaDisponibleParaOperaciones()) {
-            throw new IllegalArgumentException("La cuenta no está disponible para operaciones");
-        }
+            CuentaBancaria cuenta = cuentaRepository.findById(idCuenta)
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
+            cacheCuentas.invalidar(cuenta);
+            return cuenta;
+        });
+    }
+
+    /**
+     * Depósito con clave de idempotencia del usuario que lo solicita
+     * Un reintento con la misma clave devuelve el resultado original sin volver a acreditar;
+     * la operación y la clave se confirman en la misma transacción propia
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @OperacionMedida(histograma = true)
+    public CuentaBancaria depositar(Long idCuenta, BigDecimal monto, Long idUsuario, String claveIdempotencia) {
+        return registroIdempotencia.ejecutarEnTransaccion(idUsuario, claveIdempotencia, Enums.TipoOperacionIdempotente.DEPOSITO,
+            huellaMovimiento(idCuenta, monto), CuentaBancaria.class, () -> depositar(idCuenta, monto));
+    }
+
+    /**
+     * Retiro con clave de idempotencia, con la misma garantía que el depósito
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @OperacionMedida(histograma = true)
+    public CuentaBancaria retirar(Long idCuenta, BigDecimal monto, Long idUsuario, String claveIdempotencia) {
+        return registroIdempotencia.ejecutarEnTransaccion(idUsuario, claveIdempotencia, Enums.TipoOperacionIdempotente.RETIRO,
+            huellaMovimiento(idCuenta, monto), CuentaBancaria.class, () -> retirar(idCuenta, monto));
+    }
 
-        if (!cuenta.tieneSaldoSuficiente(monto)) {
-            throw new IllegalArgumentException("Saldo insuficiente para realizar el retiro");
+    /**
+     * Si el cliente es el titular de la cuenta; una cuenta inexistente no tiene titular
+     */
+    public boolean esTitular(Long idCuenta, Long idCliente) {
+        if (idCuenta == null || idCliente == null) {
+            return false;
         }
+        CacheCuentas.InstantaneaCuenta cuenta = cacheCuentas.obtenerPorId(idCuenta);
+        return cuenta.existe() && idCliente.equals(cuenta.idTitular());
+    }
 
-        cuenta.setSaldoActual(cuenta.getSaldoActual().subtract(monto));
-        cuenta.setFechaActualizacion(LocalDateTime.now());
+    private static String huellaMovimiento(Long idCuenta, BigDecimal monto) {
+        return RegistroIdempotencia.huella(idCuenta, monto == null ? null : monto.stripTrailingZeros().toPlainString());
+    }
 
-        return cuentaRepository.save(cuenta);
+    /**
+     * Depósito en lote (nómina)
+     * Cada bloque de líneas se aplica en su propia transacción, por eso el método no abre una
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @OperacionMedida
+    public ReporteLoteDeposito depositarLote(Stream<LineaDeposito> lineas, Long idUsuario, String rolUsuario) {
+        return depositosLote.aplicar(lineas, idUsuario, rolUsuario);
+    }
+
+    /**
+     * Depósito en lote desde un arreglo JSON de líneas, leído en flujo
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @OperacionMedida
+    public ReporteLoteDeposito depositarLoteJson(InputStream json, Long idUsuario, String rolUsuario) {
+        try (Stream<LineaDeposito> lineas = depositosLote.leerJson(json)) {
+            return depositosLote.aplicar(lineas, idUsuario, rolUsuario);
+        }
+    }
+
+    /**
+     * Depósito en lote desde un CSV con líneas "numero_cuenta,monto"
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @OperacionMedida
+    public ReporteLoteDeposito depositarLoteCsv(Reader csv, Long idUsuario, String rolUsuario) {
+        try (Stream<LineaDeposito> lineas = DepositosLote.leerCsv(csv)) {
+            return depositosLote.aplicar(lineas, idUsuario, rolUsuario);
+        }
     }
 
     /**
      * Validar que cuenta esté disponible para operaciones
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean estaDisponible(String numeroCuenta) {
-        Optional<CuentaBancaria> cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta);
-        return cuenta.isPresent() && cuenta.get().estaDisponibleParaOperaciones();
+        return cacheCuentas.obtenerPorNumero(numeroCuenta).estaDisponibleParaOperaciones();
     }
 
     /**
      * Validar saldo suficiente
+     * Un monto con más decimales de los que admite la moneda no se cubre
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean tieneSaldoSuficiente(String numeroCuenta, BigDecimal monto) {
-        Optional<CuentaBancaria> cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta);
-        return cuenta.isPresent() && cuenta.get().tieneSaldoSuficiente(monto);
+        CacheCuentas.InstantaneaCuenta cuenta = cacheCuentas.obtenerPorNumero(numeroCuenta);
+        if (!cuenta.existe()) {
+            return false;
+        }
+        Dinero requerido = enMonedaDeCuenta(monto, cuenta.saldo().moneda());
+        return requerido != null && cuenta.saldo().cubre(requerido);
+    }
+
+    /**
+     * Validar en una sola consulta que la cuenta exista, esté activa y, si se indica monto,
+     * tenga saldo suficiente
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Enums.ResultadoValidacionCuenta validarCuenta(String numeroCuenta, BigDecimal monto) {
+        CacheCuentas.InstantaneaCuenta cuenta = cacheCuentas.obtenerPorNumero(numeroCuenta);
+        Enums.ResultadoValidacionCuenta estado = cuenta.validar(null);
+        if (estado != Enums.ResultadoValidacionCuenta.VALIDA || monto == null) {
+            return estado;
+        }
+        Dinero requerido = enMonedaDeCuenta(monto, cuenta.saldo().moneda());
+        if (requerido == null) {
+            return Enums.ResultadoValidacionCuenta.MONTO_INVALIDO;
+        }
+        return cuenta.validar(requerido);
     }
 
     /**
-     * Generar número de cuenta único
+     * Monto en la moneda de la cuenta, o null si es nulo o tiene más decimales de los que admite;
+     * las validaciones lo informan como resultado en lugar de propagar el error de conversión
      */
-    private String generarNumeroCuenta() {
-        String numeroCuenta;
-        do {
-            numeroCuenta = "CTA" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (cuentaRepository.findByNumeroCuenta(numeroCuenta).isPresent());
-        return numeroCuenta;
+    private static Dinero enMonedaDeCuenta(BigDecimal monto, Enums.Moneda moneda) {
+        if (monto == null) {
+            return null;
+        }
+        try {
+            return Dinero.de(monto, moneda);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ejecutar una operación de cuenta dentro de un evento JFR banco.OperacionCuenta
+     * La duración no incluye la confirmación de la transacción, que ocurre al salir del servicio
+     */
+    private static CuentaBancaria conEvento(String operacion, Long idCuenta, BigDecimal monto,
+                                            Supplier<CuentaBancaria> accion) {
+        EventosJfr.OperacionCuenta evento = new EventosJfr.OperacionCuenta();
+        evento.begin();
+        CuentaBancaria cuenta = null;
+        try {
+            cuenta = accion.get();
+            return cuenta;
+        } finally {
+            evento.terminar(cuenta != null ? cuenta.getIdCuenta() : idCuenta, operacion, monto, cuenta != null);
+        }
+    }
+
+    /**
+     * Validar que el monto sea positivo y con a lo sumo los decimales de la unidad menor
+     */
+    private void validarMonto(BigDecimal monto) {
+        if (monto == null || monto.signum() <= 0) {
+            throw new IllegalArgumentException("El monto debe ser mayor a cero");
+        }
+        if (!Dinero.esMontoValido(monto)) {
+            throw new IllegalArgumentException("El monto no puede tener más de " + Dinero.DECIMALES_MAXIMOS + " decimales");
+        }
     }
 
     /**
      * Obtener todas las cuentas
      */
+    @Transactional(readOnly = true)
     public List<CuentaBancaria> obtenerTodas() {
         return cuentaRepository.findAll();
     }
@@ -0,0 +1,366 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.dto.LineaDeposito;
+import com.banco.gestion.dto.ReporteLoteDeposito;
+import com.banco.gestion.models.DetalleBitacora;
+import com.banco.gestion.utils.Dinero;
+import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Aplicación de depósitos en lote (nómina)
+ * Procesa las líneas en bloques: valida las cuentas de cada bloque con una sola consulta IN,
+ * aplica los créditos con un batch JDBC de UPDATE condicionales y registra un único
+ * registro de bitácora por bloque, todo en una transacción por bloque.
+ * Un bloque que falla se revierte completo y sus líneas se reportan como ERROR.
+ * Las entradas CSV y JSON se leen en flujo, sin cargar el lote completo en memoria
+ */
+@Slf4j
+@Component
+public class DepositosLote {
+
+    private static final String CONSULTA_CUENTAS =
+        "SELECT id_cuenta, numero_cuenta, estado_cuenta FROM cuentas_bancarias WHERE numero_cuenta IN (:numeros)";
+
+    private static final String BLOQUEAR_CUENTAS_ACTIVAS =
+        "SELECT id_cuenta FROM cuentas_bancarias WHERE id_cuenta IN (:ids) AND estado_cuenta = 'ACTIVA' " +
+        "ORDER BY id_cuenta FOR UPDATE";
+
+    private static final String ACREDITAR =
+        "UPDATE cuentas_bancarias SET saldo_actual = saldo_actual + ?, fecha_actualizacion = ? " +
+        "WHERE id_cuenta = ? AND estado_cuenta = 'ACTIVA'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BitacoraService bitacoraService;
+    private final CacheCuentas cacheCuentas;
+    private final ObjectMapper objectMapper;
+    private final int tamanoBloque;
+
+    public DepositosLote(JdbcTemplate jdbcTemplate,
+                         NamedParameterJdbcTemplate namedJdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         BitacoraService bitacoraService,
+                         CacheCuentas cacheCuentas,
+                         ObjectMapper objectMapper,
+                         @Value("${app.cuentas.lote.tamano-bloque:1000}") int tamanoBloque) {
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque de depósitos debe ser positivo");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.bitacoraService = bitacoraService;
+        this.cacheCuentas = cacheCuentas;
+        this.objectMapper = objectMapper;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Aplicar un lote recibido como flujo de líneas; el flujo se consume una sola vez
+     */
+    public ReporteLoteDeposito aplicar(Stream<LineaDeposito> lineas, Long idUsuario, String rolUsuario) {
+        String idLote = UUID.randomUUID().toString();
+        List<ReporteLoteDeposito.ResultadoLinea> resultados = new ArrayList<>();
+        List<LineaDeposito> bloque = new ArrayList<>(tamanoBloque);
+
+        Iterator<LineaDeposito> iterador = lineas.iterator();
+        while (iterador.hasNext()) {
+            bloque.add(iterador.next());
+            if (bloque.size() == tamanoBloque) {
+                resultados.addAll(aplicarBloque(idLote, bloque, idUsuario, rolUsuario));
+                bloque.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            resultados.addAll(aplicarBloque(idLote, bloque, idUsuario, rolUsuario));
+        }
+
+        int aplicadas = 0;
+        BigDecimal montoAplicado = BigDecimal.ZERO;
+        for (ReporteLoteDeposito.ResultadoLinea resultado : resultados) {
+            if (resultado.getEstado() == Enums.EstadoLineaLote.APLICADA) {
+                aplicadas++;
+                montoAplicado = montoAplicado.add(resultado.getMonto());
+            }
+        }
+        log.info("Depósito en lote {}: {} líneas aplicadas de {}", idLote, aplicadas, resultados.size());
+        return new ReporteLoteDeposito(idLote, aplicadas, resultados.size() - aplicadas, montoAplicado, resultados);
+    }
+
+    /**
+     * Leer un lote en CSV con líneas "numero_cuenta,monto" (se acepta ';' como separador)
+     * Se omiten líneas vacías y un encabezado opcional; el número de línea es el del archivo
+     */
+    public static Stream<LineaDeposito> leerCsv(Reader csv) {
+        BufferedReader lector = csv instanceof BufferedReader b ? b : new BufferedReader(csv);
+        Spliterator<LineaDeposito> lineas = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int numeroLinea;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super LineaDeposito> accion) {
+                try {
+                    String texto;
+                    while ((texto = lector.readLine()) != null) {
+                        numeroLinea++;
+                        texto = texto.trim();
+                        if (texto.isEmpty() || (numeroLinea == 1 && texto.toLowerCase().startsWith("numero_cuenta"))) {
+                            continue;
+                        }
+                        accion.accept(interpretarLineaCsv(numeroLinea, texto));
+                        return true;
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No fue posible leer el archivo de depósitos", e);
+                }
+            }
+        };
+        return StreamSupport.stream(lineas, false).onClose(() -> {
+            try {
+                lector.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Leer un lote en JSON: un arreglo de objetos {"numero_cuenta", "monto"}, de a un objeto
+     * El número de línea es la posición en el arreglo (desde 1); un objeto que no corresponde
+     * a una línea de depósito se reporta con formato inválido
+     */
+    public Stream<LineaDeposito> leerJson(InputStream json) {
+        JsonParser parser;
+        try {
+            parser = objectMapper.createParser(json);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IllegalArgumentException("El lote de depósitos debe ser un arreglo JSON");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No fue posible leer el archivo de depósitos", e);
+        }
+        Spliterator<LineaDeposito> lineas = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int numeroLinea;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super LineaDeposito> accion) {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        return false;
+                    }
+                    if (token == null) {
+                        throw new IllegalArgumentException("El arreglo JSON de depósitos está incompleto");
+                    }
+                    numeroLinea++;
+                    JsonNode nodo = objectMapper.readTree(parser);
+                    LineaDeposito linea;
+                    try {
+                        linea = objectMapper.treeToValue(nodo, LineaDeposito.class);
+                    } catch (JsonProcessingException | IllegalArgumentException e) {
+                        linea = new LineaDeposito();
+                    }
+                    linea.setLinea(numeroLinea);
+                    accion.accept(linea);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No fue posible leer el archivo de depósitos", e);
+                }
+            }
+        };
+        return StreamSupport.stream(lineas, false).onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static LineaDeposito interpretarLineaCsv(int linea, String texto) {
+        String[] campos = texto.split("[,;]", -1);
+        if (campos.length != 2 || campos[0].isBlank()) {
+            return new LineaDeposito(linea, null, null);
+        }
+        BigDecimal monto;
+        try {
+            monto = new BigDecimal(campos[1].trim());
+        } catch (NumberFormatException e) {
+            monto = null;
+        }
+        return new LineaDeposito(linea, campos[0].trim(), monto);
+    }
+
+    private List<ReporteLoteDeposito.ResultadoLinea> aplicarBloque(String idLote, List<LineaDeposito> bloque,
+                                                                  Long idUsuario, String rolUsuario) {
+        Enums.EstadoLineaLote[] estados = new Enums.EstadoLineaLote[bloque.size()];
+        Set<String> numeros = bloque.stream()
+            .map(LineaDeposito::getNumeroCuenta)
+            .filter(numero -> numero != null && !numero.isBlank())
+            .collect(Collectors.toSet());
+        Map<String, CuentaLote> cuentas = consultarCuentas(numeros);
+
+        // Validación previa con la consulta IN; las líneas válidas quedan pendientes de aplicar
+        List<Credito> creditos = new ArrayList<>(bloque.size());
+        for (int i = 0; i < bloque.size(); i++) {
+            LineaDeposito linea = bloque.get(i);
+            CuentaLote cuenta = cuentas.get(linea.getNumeroCuenta());
+            if (linea.getNumeroCuenta() == null || linea.getNumeroCuenta().isBlank()) {
+                estados[i] = Enums.EstadoLineaLote.FORMATO_INVALIDO;
+            } else if (!Dinero.esMontoValido(linea.getMonto())) {
+                estados[i] = Enums.EstadoLineaLote.MONTO_INVALIDO;
+            } else if (cuenta == null) {
+                estados[i] = Enums.EstadoLineaLote.CUENTA_NO_ENCONTRADA;
+            } else if (cuenta.estado() != Enums.EstadoCuenta.ACTIVA) {
+                estados[i] = Enums.EstadoLineaLote.CUENTA_NO_DISPONIBLE;
+            } else {
+                creditos.add(new Credito(i, cuenta, linea.getMonto()));
+            }
+        }
+
+        if (!creditos.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    acreditar(idLote, creditos, estados, idUsuario, rolUsuario));
+            } catch (RuntimeException e) {
+                log.error("No fue posible aplicar un bloque de {} depósitos del lote {}", creditos.size(), idLote, e);
+                for (Credito credito : creditos) {
+                    estados[credito.indice()] = Enums.EstadoLineaLote.ERROR;
+                }
+            }
+        }
+
+        List<ReporteLoteDeposito.ResultadoLinea> resultados = new ArrayList<>(bloque.size());
+        for (int i = 0; i < bloque.size(); i++) {
+            LineaDeposito linea = bloque.get(i);
+            resultados.add(new ReporteLoteDeposito.ResultadoLinea(
+                linea.getLinea(), linea.getNumeroCuenta(), linea.getMonto(), estados[i]));
+        }
+        return resultados;
+    }
+
+    /**
+     * Bloquea en orden de ID las cuentas del bloque que siguen activas y solo a ellas aplica
+     * los créditos; una cuenta que cambió de estado tras la validación se reporta como no
+     * disponible. Con las filas bloqueadas y verificadas, un UPDATE que el driver informa como
+     * SUCCESS_NO_INFO está aplicado; uno que informa EXECUTE_FAILED se reporta como ERROR
+     */
+    private void acreditar(String idLote, List<Credito> validados,
+                           Enums.EstadoLineaLote[] estados, Long idUsuario, String rolUsuario) {
+        Set<Long> activas = new HashSet<>(namedJdbcTemplate.queryForList(BLOQUEAR_CUENTAS_ACTIVAS,
+            Map.of("ids", validados.stream().map(credito -> credito.cuenta().idCuenta()).collect(Collectors.toSet())),
+            Long.class));
+        List<Credito> creditos = new ArrayList<>(validados.size());
+        for (Credito credito : validados) {
+            if (activas.contains(credito.cuenta().idCuenta())) {
+                creditos.add(credito);
+            } else {
+                estados[credito.indice()] = Enums.EstadoLineaLote.CUENTA_NO_DISPONIBLE;
+            }
+        }
+        if (creditos.isEmpty()) {
+            return;
+        }
+        creditos.sort(Comparator.comparing(credito -> credito.cuenta().idCuenta()));
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] filas = jdbcTemplate.batchUpdate(ACREDITAR, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Credito credito = creditos.get(i);
+                ps.setBigDecimal(1, credito.monto());
+                ps.setTimestamp(2, ahora);
+                ps.setLong(3, credito.cuenta().idCuenta());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return creditos.size();
+            }
+        });
+
+        List<DetalleBitacora.DepositoLote.Abono> abonos = new ArrayList<>(creditos.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < creditos.size(); i++) {
+            Credito credito = creditos.get(i);
+            if (filas[i] == 0) {
+                estados[credito.indice()] = Enums.EstadoLineaLote.CUENTA_NO_DISPONIBLE;
+                continue;
+            }
+            if (filas[i] < 0 && filas[i] != Statement.SUCCESS_NO_INFO) {
+                estados[credito.indice()] = Enums.EstadoLineaLote.ERROR;
+                continue;
+            }
+            estados[credito.indice()] = Enums.EstadoLineaLote.APLICADA;
+            abonos.add(new DetalleBitacora.DepositoLote.Abono(credito.cuenta().numeroCuenta(), credito.monto()));
+            total = total.add(credito.monto());
+            cacheCuentas.invalidar(credito.cuenta().idCuenta(), credito.cuenta().numeroCuenta());
+        }
+
+        if (!abonos.isEmpty()) {
+            bitacoraService.registrarDepositoLote(idLote, abonos, total, idUsuario, rolUsuario);
+        }
+    }
+
+    private Map<String, CuentaLote> consultarCuentas(Set<String> numeros) {
+        Map<String, CuentaLote> cuentas = new HashMap<>(numeros.size() * 2);
+        if (numeros.isEmpty()) {
+            return cuentas;
+        }
+        namedJdbcTemplate.query(CONSULTA_CUENTAS, Map.of("numeros", numeros), rs -> {
+            CuentaLote cuenta = new CuentaLote(rs.getLong("id_cuenta"), rs.getString("numero_cuenta"),
+                Enums.EstadoCuenta.valueOf(rs.getString("estado_cuenta")));
+            cuentas.put(cuenta.numeroCuenta(), cuenta);
+        });
+        return cuentas;
+    }
+
+    private record CuentaLote(long idCuenta, String numeroCuenta, Enums.EstadoCuenta estado) {
+    }
+
+    private record Credito(int indice, CuentaLote cuenta, BigDecimal monto) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.banco.gestion.repositories.BitacoraRepository;
+import com.banco.gestion.utils.DiarioSegmentado;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diario local de la bitácora para cortes de MongoDB
+ * Recibe los registros que el escritor no puede persistir, los anexa a un diario en archivos
+ * mapeados en memoria y los reproduce en bitacora_operaciones en lotes cuando MongoDB responde.
+ * Cada registro recibe su _id antes de anexarse, así que reproducirlo dos veces no lo duplica
+ */
+@Slf4j
+@Component
+public class DiarioBitacora {
+
+    private static final JsonWriterSettings FORMATO = JsonWriterSettings.builder()
+        .outputMode(JsonMode.EXTENDED)
+        .build();
+
+    private final DiarioSegmentado diario;
+    private final BitacoraRepository bitacoraRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MongoConverter mongoConverter;
+    private final int tamanoLote;
+
+    private final AtomicLong anexados = new AtomicLong();
+    private final AtomicLong reproducidos = new AtomicLong();
+
+    public DiarioBitacora(BitacoraRepository bitacoraRepository,
+                          MongoTemplate mongoTemplate,
+                          MongoConverter mongoConverter,
+                          @Value("${app.bitacora.diario.directorio:./data/diario-bitacora}") String directorio,
+                          @Value("${app.bitacora.diario.tamano-segmento-mb:64}") int tamanoSegmentoMb,
+                          @Value("${app.bitacora.diario.tamano-lote:500}") int tamanoLote) throws IOException {
+        if (tamanoSegmentoMb <= 0 || tamanoSegmentoMb > 1024 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("Configuración del diario de bitácora inválida");
+        }
+        this.diario = new DiarioSegmentado(Path.of(directorio), tamanoSegmentoMb * 1024 * 1024);
+        this.bitacoraRepository = bitacoraRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.mongoConverter = mongoConverter;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @PreDestroy
+    void cerrar() throws IOException {
+        diario.close();
+    }
+
+    /**
+     * Anexar un registro al diario; queda en memoria hasta la siguiente sincronización
+     */
+    public void anexar(BitacoraOperacion bitacora) {
+        if (bitacora.getIdBitacora() == null) {
+            bitacora.setIdBitacora(new ObjectId().toHexString());
+        }
+        Document documento = new Document();
+        mongoConverter.write(bitacora, documento);
+        diario.anexar(documento.toJson(FORMATO).getBytes(StandardCharsets.UTF_8));
+        anexados.incrementAndGet();
+    }
+
+    public void anexarLote(List<BitacoraOperacion> bitacoras) {
+        for (BitacoraOperacion bitacora : bitacoras) {
+            anexar(bitacora);
+        }
+    }
+
+    /**
+     * Indica si quedan registros sin reproducir; mientras los haya, los nuevos
+     * también van al diario para conservar el orden
+     */
+    public boolean hayPendientes() {
+        return diario.hayPendientes();
+    }
+
+    /**
+     * Commit en grupo: fuerza a disco lo anexado desde la última ejecución
+     */
+    @Scheduled(fixedDelayString = "${app.bitacora.diario.intervalo-sincronizacion-ms:50}")
+    public void sincronizar() {
+        diario.sincronizar();
+    }
+
+    /**
+     * Reproducir el diario en MongoDB por lotes, solo si responde al ping
+     */
+    @Scheduled(fixedDelayString = "${app.bitacora.diario.intervalo-reproduccion-ms:1000}")
+    public void reproducir() {
+        if (!diario.hayPendientes() || !mongoDisponible()) {
+            return;
+        }
+        try {
+            List<byte[]> registros;
+            do {
+                registros = diario.leer(tamanoLote);
+                List<Document> documentos = new ArrayList<>(registros.size());
+                for (byte[] registro : registros) {
+                    documentos.add(Document.parse(new String(registro, StandardCharsets.UTF_8)));
+                }
+                bitacoraRepository.reemplazarDocumentos(documentos);
+                diario.confirmarLectura();
+                reproducidos.addAndGet(documentos.size());
+            } while (registros.size() == tamanoLote);
+        } catch (RuntimeException e) {
+            log.error("No fue posible reproducir el diario de bitácora, se reintentará", e);
+        }
+    }
+
+    private boolean mongoDisponible() {
+        try {
+            mongoTemplate.executeCommand(new Document("ping", 1));
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("MongoDB no disponible para reproducir el diario de bitácora: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public long getAnexados() {
+        return anexados.get();
+    }
+
+    public long getReproducidos() {
+        return reproducidos.get();
+    }
+
+    public long getCorruptos() {
+        return diario.getCorruptos();
+    }
+}
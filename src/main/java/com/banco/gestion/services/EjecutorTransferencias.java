@@ -0,0 +1,245 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.config.OperacionMedida;
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.repositories.CuentaBancariaRepository;
+import com.banco.gestion.repositories.TransferenciaRepository;
+import com.banco.gestion.utils.Dinero;
+import com.banco.gestion.utils.Enums;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor de transferencias entre dos cuentas
+ * Bloquea ambas filas con SELECT ... FOR UPDATE siempre en orden ascendente de ID, de modo
+ * que A→B y B→A concurrentes no formen un ciclo de espera; aplica débito y crédito en la misma
+ * transacción y registra en bitácora los saldos antes y después de ambas cuentas.
+ * Ante timeout de bloqueo o deadlock reintenta la transacción completa con espera aleatoria
+ */
+@Slf4j
+@Component
+public class EjecutorTransferencias {
+
+    private final CuentaBancariaRepository cuentaRepository;
+    private final TransferenciaRepository transferenciaRepository;
+    private final BitacoraService bitacoraService;
+    private final CacheCuentas cacheCuentas;
+    private final ExpiracionTransferenciasService expiracionService;
+    private final ColaAprobaciones colaAprobaciones;
+    private final RegistroIdempotencia registroIdempotencia;
+    private final TransactionTemplate transaccionNueva;
+    private final int reintentos;
+    private final long esperaBaseMs;
+
+    private final AtomicLong ejecutadas = new AtomicLong();
+    private final AtomicLong reintentadas = new AtomicLong();
+
+    public EjecutorTransferencias(CuentaBancariaRepository cuentaRepository,
+                                  TransferenciaRepository transferenciaRepository,
+                                  BitacoraService bitacoraService,
+                                  CacheCuentas cacheCuentas,
+                                  ExpiracionTransferenciasService expiracionService,
+                                  ColaAprobaciones colaAprobaciones,
+                                  RegistroIdempotencia registroIdempotencia,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.transferencias.ejecucion.reintentos:5}") int reintentos,
+                                  @Value("${app.transferencias.ejecucion.espera-base-ms:20}") long esperaBaseMs) {
+        if (reintentos < 0 || esperaBaseMs <= 0) {
+            throw new IllegalArgumentException("Configuración de reintentos de transferencias inválida");
+        }
+        this.cuentaRepository = cuentaRepository;
+        this.transferenciaRepository = transferenciaRepository;
+        this.bitacoraService = bitacoraService;
+        this.cacheCuentas = cacheCuentas;
+        this.expiracionService = expiracionService;
+        this.colaAprobaciones = colaAprobaciones;
+        this.registroIdempotencia = registroIdempotencia;
+        this.reintentos = reintentos;
+        this.esperaBaseMs = esperaBaseMs;
+        // Cada intento necesita su propia transacción para poder reintentarse desde cero
+        this.transaccionNueva = new TransactionTemplate(transactionManager);
+        this.transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Ejecutar de inmediato una transferencia nueva
+     */
+    @OperacionMedida(histograma = true)
+    public Transferencia ejecutar(Transferencia transferencia, String rolUsuario) {
+        return ejecutar(transferencia, rolUsuario, null);
+    }
+
+    /**
+     * Ejecutar una transferencia nueva con clave de idempotencia
+     * La clave es del usuario creador y se registra dentro de cada intento, en la misma transacción
+     * que el movimiento; un reintento del cliente con la misma clave recibe la transferencia original
+     */
+    @OperacionMedida(histograma = true)
+    public Transferencia ejecutar(Transferencia transferencia, String rolUsuario, String claveIdempotencia) {
+        String huella = RegistroIdempotencia.huella(transferencia.getCuentaOrigen(), transferencia.getCuentaDestino(),
+            transferencia.getMonto() == null ? null : transferencia.getMonto().stripTrailingZeros().toPlainString(),
+            transferencia.getIdUsuarioCreador());
+        return registroIdempotencia.ejecutar(transferencia.getIdUsuarioCreador(), claveIdempotencia, Enums.TipoOperacionIdempotente.TRANSFERENCIA, huella,
+            Transferencia.class, () -> conReintentos(() -> {
+                // Un intento revertido puede haber dejado asignado el ID generado
+                transferencia.setIdTransferencia(null);
+                transferencia.setEstadoTransferencia(Enums.EstadoTransferencia.EJECUTADA);
+                transferencia.setFechaActualizacion(LocalDateTime.now());
+                aplicar(transferencia, rolUsuario);
+                registroIdempotencia.registrar(transferencia.getIdUsuarioCreador(), claveIdempotencia, Enums.TipoOperacionIdempotente.TRANSFERENCIA,
+                    huella, transferencia);
+                return transferencia;
+            }));
+    }
+
+    /**
+     * Aprobar y ejecutar una transferencia en espera de aprobación
+     */
+    @OperacionMedida(histograma = true)
+    public Transferencia aprobar(Long idTransferencia, Long idUsuarioAprobador, String rolAprobador) {
+        return conReintentos(() -> {
+            List<Transferencia> pendientes = transferenciaRepository.findByIdTransferenciaInAndEstadoTransferencia(
+                List.of(idTransferencia), Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION);
+            if (pendientes.isEmpty()) {
+                throw new IllegalArgumentException("La transferencia no existe o ya no está en espera de aprobación");
+            }
+            Transferencia transferencia = pendientes.get(0);
+            if (transferencia.haVencido()) {
+                throw new IllegalArgumentException("La transferencia venció por falta de aprobación");
+            }
+
+            aplicar(transferencia, rolAprobador);
+            LocalDateTime ahora = LocalDateTime.now();
+            transferencia.setEstadoTransferencia(Enums.EstadoTransferencia.EJECUTADA);
+            transferencia.setIdUsuarioAprobador(idUsuarioAprobador);
+            transferencia.setFechaAprobacion(ahora);
+            transferencia.setFechaActualizacion(ahora);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    expiracionService.cancelar(idTransferencia);
+                }
+            });
+            colaAprobaciones.transferenciasResueltas(List.of(idTransferencia));
+            return transferencia;
+        });
+    }
+
+    /**
+     * Bloquea las dos cuentas en orden de ID, valida y mueve el monto
+     * La bitácora se escribe en la misma transacción (bandeja de salida)
+     */
+    private void aplicar(Transferencia transferencia, String rolUsuario) {
+        if (transferencia.getCuentaOrigen().equals(transferencia.getCuentaDestino())) {
+            throw new IllegalArgumentException("La cuenta origen y destino deben ser distintas");
+        }
+        Long idOrigen = resolverId(transferencia.getCuentaOrigen(), "origen");
+        Long idDestino = resolverId(transferencia.getCuentaDestino(), "destino");
+
+        CuentaBancaria primera = bloquear(Math.min(idOrigen, idDestino));
+        CuentaBancaria segunda = bloquear(Math.max(idOrigen, idDestino));
+        CuentaBancaria origen = primera.getIdCuenta().equals(idOrigen) ? primera : segunda;
+        CuentaBancaria destino = origen == primera ? segunda : primera;
+
+        if (!origen.estaDisponibleParaOperaciones() || !destino.estaDisponibleParaOperaciones()) {
+            throw new IllegalArgumentException("Las cuentas origen y destino deben estar activas");
+        }
+        if (origen.getMoneda() != destino.getMoneda()) {
+            throw new IllegalArgumentException("Las cuentas origen y destino deben tener la misma moneda");
+        }
+        Dinero monto = Dinero.de(transferencia.getMonto(), origen.getMoneda());
+        if (!monto.esPositivo()) {
+            throw new IllegalArgumentException("El monto debe ser mayor a cero");
+        }
+        Dinero saldoAntesOrigen = origen.saldoEnDinero();
+        Dinero saldoAntesDestino = destino.saldoEnDinero();
+        if (!saldoAntesOrigen.cubre(monto)) {
+            throw new IllegalArgumentException("Saldo insuficiente en la cuenta origen");
+        }
+
+        Dinero saldoDespuesOrigen = saldoAntesOrigen.restar(monto);
+        Dinero saldoDespuesDestino = saldoAntesDestino.sumar(monto);
+        LocalDateTime ahora = LocalDateTime.now();
+        origen.setSaldoActual(saldoDespuesOrigen.aBigDecimal());
+        origen.setFechaActualizacion(ahora);
+        destino.setSaldoActual(saldoDespuesDestino.aBigDecimal());
+        destino.setFechaActualizacion(ahora);
+        cacheCuentas.invalidar(origen);
+        cacheCuentas.invalidar(destino);
+
+        if (transferencia.getIdTransferencia() == null) {
+            transferenciaRepository.save(transferencia);
+        }
+        bitacoraService.registrarTransferenciaEjecutada(transferencia,
+            saldoAntesOrigen.aBigDecimal(), saldoDespuesOrigen.aBigDecimal(),
+            saldoAntesDestino.aBigDecimal(), saldoDespuesDestino.aBigDecimal(),
+            rolUsuario);
+    }
+
+    /**
+     * El ID de una cuenta no cambia, así que puede tomarse de la caché de cuentas
+     */
+    private Long resolverId(String numeroCuenta, String rol) {
+        CacheCuentas.InstantaneaCuenta cuenta = cacheCuentas.obtenerPorNumero(numeroCuenta);
+        if (!cuenta.existe()) {
+            throw new IllegalArgumentException("Cuenta " + rol + " no encontrada");
+        }
+        return cuenta.idCuenta();
+    }
+
+    private CuentaBancaria bloquear(Long idCuenta) {
+        return cuentaRepository.bloquearPorId(idCuenta)
+            .orElseThrow(() -> new IllegalArgumentException("Cuenta no encontrada"));
+    }
+
+    /**
+     * Ejecuta el trabajo en una transacción nueva y la reintenta ante fallas de concurrencia
+     * (timeout de bloqueo, deadlock) con espera exponencial y jitter completo
+     */
+    private Transferencia conReintentos(Supplier<Transferencia> trabajo) {
+        for (int intento = 0; ; intento++) {
+            try {
+                Transferencia resultado = transaccionNueva.execute(status -> trabajo.get());
+                ejecutadas.incrementAndGet();
+                return resultado;
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= reintentos) {
+                    throw e;
+                }
+                reintentadas.incrementAndGet();
+                long tope = esperaBaseMs << Math.min(intento, 10);
+                long espera = ThreadLocalRandom.current().nextLong(tope + 1);
+                log.debug("Conflicto de bloqueo en transferencia, reintento {} en {} ms", intento + 1, espera);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(espera);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public long getEjecutadas() {
+        return ejecutadas.get();
+    }
+
+    public long getReintentadas() {
+        return reintentadas.get();
+    }
+}
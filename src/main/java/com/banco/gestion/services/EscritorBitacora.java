@@ -0,0 +1,296 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.banco.gestion.repositories.BitacoraRepository;
+import com.banco.gestion.utils.Enums;
+import com.banco.gestion.utils.EventosJfr;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor asíncrono de bitácora
+ * Encola los registros en un buffer acotado y un hilo de fondo los persiste
+ * en MongoDB mediante insertMany, agrupando por tamaño de lote o intervalo de vaciado.
+ * Los lotes que MongoDB no acepta se desvían al DiarioBitacora, y mientras el diario tenga
+ * registros pendientes los lotes nuevos también van a él para conservar el orden.
+ * Si tampoco el diario acepta un lote, el escritor lo retiene y lo reintenta cada
+ * app.bitacora.escritor.reintento-ms antes de tomar registros nuevos; mientras tanto la cola
+ * se llena y se aplica la política de contrapresión, pero ningún registro aceptado se pierde
+ */
+@Slf4j
+@Component
+public class EscritorBitacora {
+
+    private static final String ORIGEN_ESCRITOR = "escritor";
+    private static final String ORIGEN_SINCRONO = "sincrono";
+    private static final String DESTINO_MONGO = "mongo";
+    private static final String DESTINO_DIARIO = "diario";
+
+    private final BitacoraRepository bitacoraRepository;
+    private final DiarioBitacora diarioBitacora;
+    private final BlockingQueue<BitacoraOperacion> cola;
+    private final int tamanoLote;
+    private final long intervaloVaciadoMs;
+    private final Enums.PoliticaContrapresion politica;
+    private final long reintentoMs;
+    // Lotes que ni MongoDB ni el diario aceptaron; solo los usa el hilo escritor (y detener tras él)
+    private final List<BitacoraOperacion> retenidos = new ArrayList<>();
+    private volatile int cantidadRetenidos;
+
+    private final AtomicLong encolados = new AtomicLong();
+    private final AtomicLong persistidos = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong desviados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+
+    private volatile boolean activo;
+    private Thread hiloEscritor;
+
+    public EscritorBitacora(BitacoraRepository bitacoraRepository,
+                            DiarioBitacora diarioBitacora,
+                            @Value("${app.bitacora.escritor.capacidad:10000}") int capacidad,
+                            @Value("${app.bitacora.escritor.tamano-lote:500}") int tamanoLote,
+                            @Value("${app.bitacora.escritor.intervalo-vaciado-ms:200}") long intervaloVaciadoMs,
+                            @Value("${app.bitacora.escritor.politica:BLOQUEAR}") Enums.PoliticaContrapresion politica,
+                            @Value("${app.bitacora.escritor.reintento-ms:1000}") long reintentoMs) {
+        if (capacidad <= 0 || tamanoLote <= 0 || intervaloVaciadoMs <= 0 || reintentoMs <= 0) {
+            throw new IllegalArgumentException("La configuración del escritor de bitácora debe ser positiva");
+        }
+        this.bitacoraRepository = bitacoraRepository;
+        this.diarioBitacora = diarioBitacora;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.tamanoLote = tamanoLote;
+        this.intervaloVaciadoMs = intervaloVaciadoMs;
+        this.politica = politica;
+        this.reintentoMs = reintentoMs;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        activo = true;
+        hiloEscritor = new Thread(this::ejecutar, "escritor-bitacora");
+        hiloEscritor.setDaemon(true);
+        hiloEscritor.start();
+    }
+
+    /**
+     * Detener el escritor vaciando los registros pendientes, retenidos primero
+     */
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activo = false;
+        hiloEscritor.join(TimeUnit.SECONDS.toMillis(30));
+
+        List<BitacoraOperacion> restantes = new ArrayList<>(retenidos);
+        retenidos.clear();
+        cantidadRetenidos = 0;
+        cola.drainTo(restantes);
+        if (!restantes.isEmpty() && !persistir(restantes)) {
+            log.error("Se detiene el escritor con {} registros de bitácora que no fue posible persistir",
+                restantes.size());
+        }
+    }
+
+    /**
+     * Encolar un registro para escritura asíncrona
+     * Si la cola está llena se aplica la política de contrapresión configurada
+     */
+    public void registrar(BitacoraOperacion bitacora) {
+        if (cola.offer(bitacora)) {
+            encolados.incrementAndGet();
+            return;
+        }
+
+        switch (politica) {
+            case BLOQUEAR -> {
+                try {
+                    cola.put(bitacora);
+                    encolados.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    registrarSincrono(bitacora);
+                }
+            }
+            case SINCRONO -> registrarSincrono(bitacora);
+            case DESCARTAR -> {
+                descartados.incrementAndGet();
+                log.warn("Cola de bitácora llena, registro {} descartado", bitacora.getTipoOperacion());
+            }
+            case DIARIO -> {
+                if (!desviar(List.of(bitacora))) {
+                    registrarSincrono(bitacora);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encolar varios registros para escritura asíncrona
+     */
+    public void registrarLote(List<BitacoraOperacion> bitacoras) {
+        for (BitacoraOperacion bitacora : bitacoras) {
+            registrar(bitacora);
+        }
+    }
+
+    /**
+     * Escritura síncrona para llamadores que requieren confirmación de durabilidad
+     */
+    public BitacoraOperacion registrarSincrono(BitacoraOperacion bitacora) {
+        EventosJfr.EscrituraBitacora evento = new EventosJfr.EscrituraBitacora();
+        evento.begin();
+        boolean exitosa = false;
+        try {
+            BitacoraOperacion guardada = bitacoraRepository.save(bitacora);
+            persistidos.incrementAndGet();
+            exitosa = true;
+            return guardada;
+        } finally {
+            evento.terminar(ORIGEN_SINCRONO, DESTINO_MONGO, 1, exitosa);
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: agrupa registros hasta completar el lote o agotar el intervalo
+     */
+    private void ejecutar() {
+        List<BitacoraOperacion> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                if (!retenidos.isEmpty()) {
+                    List<BitacoraOperacion> reintento = new ArrayList<>(retenidos);
+                    retenidos.clear();
+                    cantidadRetenidos = 0;
+                    if (!persistir(reintento) && activo) {
+                        Thread.sleep(reintentoMs);
+                    }
+                    continue;
+                }
+
+                BitacoraOperacion primera = cola.poll(intervaloVaciadoMs, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloVaciadoMs);
+                while (lote.size() < tamanoLote) {
+                    cola.drainTo(lote, tamanoLote - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= tamanoLote || restante <= 0) {
+                        break;
+                    }
+                    BitacoraOperacion siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+
+                persistir(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                persistir(lote);
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Persistir en MongoDB o, si no es posible, en el diario; false si el lote quedó retenido
+     */
+    private boolean persistir(List<BitacoraOperacion> lote) {
+        if (lote.isEmpty()) {
+            return true;
+        }
+        // El _id se asigna antes de insertar para que reproducir desde el diario un lote
+        // insertado a medias reemplace los documentos en lugar de duplicarlos
+        for (BitacoraOperacion bitacora : lote) {
+            if (bitacora.getIdBitacora() == null) {
+                bitacora.setIdBitacora(new ObjectId().toHexString());
+            }
+        }
+        if (diarioBitacora.hayPendientes()) {
+            return desviarORetener(lote);
+        }
+        EventosJfr.EscrituraBitacora evento = new EventosJfr.EscrituraBitacora();
+        evento.begin();
+        try {
+            bitacoraRepository.insert(lote);
+            persistidos.addAndGet(lote.size());
+            evento.terminar(ORIGEN_ESCRITOR, DESTINO_MONGO, lote.size(), true);
+            return true;
+        } catch (RuntimeException e) {
+            evento.terminar(ORIGEN_ESCRITOR, DESTINO_MONGO, lote.size(), false);
+            log.warn("No fue posible persistir un lote de {} registros de bitácora, se desvía al diario", lote.size(), e);
+            return desviarORetener(lote);
+        }
+    }
+
+    private boolean desviarORetener(List<BitacoraOperacion> lote) {
+        if (desviar(lote)) {
+            return true;
+        }
+        retenidos.addAll(lote);
+        cantidadRetenidos = retenidos.size();
+        log.error("Se retienen {} registros de bitácora, se reintentará en {} ms", retenidos.size(), reintentoMs);
+        return false;
+    }
+
+    private boolean desviar(List<BitacoraOperacion> lote) {
+        EventosJfr.EscrituraBitacora evento = new EventosJfr.EscrituraBitacora();
+        evento.begin();
+        try {
+            diarioBitacora.anexarLote(lote);
+            desviados.addAndGet(lote.size());
+            evento.terminar(ORIGEN_ESCRITOR, DESTINO_DIARIO, lote.size(), true);
+            return true;
+        } catch (RuntimeException e) {
+            evento.terminar(ORIGEN_ESCRITOR, DESTINO_DIARIO, lote.size(), false);
+            fallidos.addAndGet(lote.size());
+            log.warn("No fue posible anexar {} registros de bitácora al diario", lote.size(), e);
+            return false;
+        }
+    }
+
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    public long getEncolados() {
+        return encolados.get();
+    }
+
+    public long getPersistidos() {
+        return persistidos.get();
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public long getDesviados() {
+        return desviados.get();
+    }
+
+    public long getFallidos() {
+        return fallidos.get();
+    }
+
+    public int getRetenidos() {
+        return cantidadRetenidos;
+    }
+}
@@ -0,0 +1,134 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.repositories.TransferenciaRepository;
+import com.banco.gestion.utils.Enums;
+import com.banco.gestion.utils.RuedaTemporizacion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servicio de vencimiento de transferencias
+ * Programa el plazo de cada transferencia en espera de aprobación en una rueda de
+ * temporización en memoria (rehidratada desde la base de datos al arrancar) y vence
+ * en bloque las transferencias cumplidas, sin recorrer periódicamente la tabla
+ */
+@Slf4j
+@Service
+public class ExpiracionTransferenciasService {
+
+    private static final int TAMANO_LOTE = 500;
+
+    private final TransferenciaRepository transferenciaRepository;
+    private final BitacoraService bitacoraService;
+    private final ColaAprobaciones colaAprobaciones;
+    private final TransactionTemplate transactionTemplate;
+    private final RuedaTemporizacion<Long> rueda;
+
+    public ExpiracionTransferenciasService(TransferenciaRepository transferenciaRepository,
+                                           BitacoraService bitacoraService,
+                                           ColaAprobaciones colaAprobaciones,
+                                           TransactionTemplate transactionTemplate,
+                                           @Value("${app.transferencias.expiracion.tick-ms:250}") long tickMs) {
+        this.transferenciaRepository = transferenciaRepository;
+        this.bitacoraService = bitacoraService;
+        this.colaAprobaciones = colaAprobaciones;
+        this.transactionTemplate = transactionTemplate;
+        // 64 ranuras por nivel y 4 niveles: con ticks de 250 ms cubre más de 48 días
+        this.rueda = new RuedaTemporizacion<>(tickMs, 6, 4, System.currentTimeMillis());
+    }
+
+    /**
+     * Programar los vencimientos de las transferencias que quedaron en espera antes del arranque
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehidratar() {
+        List<TransferenciaRepository.TransferenciaPendiente> pendientes =
+            transferenciaRepository.findPendientesByEstadoTransferencia(Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION);
+        for (TransferenciaRepository.TransferenciaPendiente pendiente : pendientes) {
+            programar(pendiente.getIdTransferencia(), pendiente.getFechaCreacion());
+        }
+        log.info("Rueda de vencimientos rehidratada con {} transferencias en espera", pendientes.size());
+    }
+
+    /**
+     * Programar el vencimiento de una transferencia creada en espera de aprobación
+     * y publicarla en la cola de aprobaciones de su empresa
+     */
+    public void programar(Transferencia transferencia) {
+        if (transferencia.getEstadoTransferencia() == Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION) {
+            programar(transferencia.getIdTransferencia(), transferencia.getFechaCreacion());
+            colaAprobaciones.actualizarTransferencia(transferencia);
+        }
+    }
+
+    public void programar(Long idTransferencia, LocalDateTime fechaCreacion) {
+        long vencimiento = fechaCreacion.plus(Transferencia.VIGENCIA_APROBACION)
+            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        rueda.programar(idTransferencia, vencimiento);
+    }
+
+    /**
+     * Cancelar el vencimiento de una transferencia aprobada o rechazada
+     */
+    public void cancelar(Long idTransferencia) {
+        rueda.cancelar(idTransferencia);
+    }
+
+    public int getProgramadas() {
+        return rueda.tamano();
+    }
+
+    /**
+     * Avanzar la rueda y vencer en lotes las transferencias cumplidas
+     */
+    @Scheduled(fixedDelayString = "${app.transferencias.expiracion.tick-ms:250}")
+    public void procesarVencimientos() {
+        List<Long> cumplidas = rueda.avanzar(System.currentTimeMillis());
+        for (int desde = 0; desde < cumplidas.size(); desde += TAMANO_LOTE) {
+            List<Long> lote = cumplidas.subList(desde, Math.min(desde + TAMANO_LOTE, cumplidas.size()));
+            try {
+                vencerLote(lote);
+            } catch (RuntimeException e) {
+                log.error("No fue posible vencer un lote de {} transferencias, se reprograman", lote.size(), e);
+                long reintento = System.currentTimeMillis() + 5_000;
+                for (Long id : lote) {
+                    rueda.programar(id, reintento);
+                }
+            }
+        }
+    }
+
+    /**
+     * Un SELECT ... FOR UPDATE y un UPDATE por lote; solo vencen las que siguen en espera
+     */
+    private void vencerLote(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Transferencia> vencidas = transferenciaRepository.findByIdTransferenciaInAndEstadoTransferencia(
+                ids, Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION);
+            if (vencidas.isEmpty()) {
+                return;
+            }
+
+            List<Long> idsVencidas = new ArrayList<>(vencidas.size());
+            for (Transferencia transferencia : vencidas) {
+                idsVencidas.add(transferencia.getIdTransferencia());
+            }
+            transferenciaRepository.actualizarEstado(idsVencidas, Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION,
+                Enums.EstadoTransferencia.VENCIDA, LocalDateTime.now());
+
+            bitacoraService.registrarTransferenciasVencidas(vencidas);
+            colaAprobaciones.transferenciasResueltas(idsVencidas);
+        });
+    }
+}
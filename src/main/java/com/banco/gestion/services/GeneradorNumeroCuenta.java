@@ -0,0 +1,13 @@
+package com.banco.gestion.services;
+
+/**
+ * Estrategia de generación de números de cuenta
+ * Las implementaciones deben producir números únicos sin consultar la base de datos
+ */
+public interface GeneradorNumeroCuenta {
+
+    /**
+     * Generar el siguiente número de cuenta
+     */
+    String siguiente();
+}
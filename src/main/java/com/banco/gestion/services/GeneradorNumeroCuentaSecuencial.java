@@ -0,0 +1,108 @@
+package com.banco.gestion.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generador de números de cuenta tipo Snowflake
+ * Compone un identificador de 63 bits (41 bits de milisegundos desde 2024-01-01,
+ * 10 bits de nodo y 12 bits de secuencia) y lo formatea como "CTA" + 19 dígitos
+ * + dígito de verificación Luhn. Es monotónico por nodo y no consulta la base de datos
+ */
+@Component
+public class GeneradorNumeroCuentaSecuencial implements GeneradorNumeroCuenta {
+
+    private static final String PREFIJO = "CTA";
+    private static final int DIGITOS = 19;
+    private static final long EPOCA = 1704067200000L;
+
+    private static final int BITS_NODO = 10;
+    private static final int BITS_SECUENCIA = 12;
+    private static final long MAX_NODO = (1L << BITS_NODO) - 1;
+    private static final long MAX_SECUENCIA = (1L << BITS_SECUENCIA) - 1;
+
+    private final long nodo;
+    private long ultimoMilisegundo = -1L;
+    private long secuencia;
+
+    public GeneradorNumeroCuentaSecuencial(@Value("${app.cuentas.nodo-id:0}") long nodo) {
+        if (nodo < 0 || nodo > MAX_NODO) {
+            throw new IllegalArgumentException("El identificador de nodo debe estar entre 0 y " + MAX_NODO);
+        }
+        this.nodo = nodo;
+    }
+
+    @Override
+    public String siguiente() {
+        return formatear(siguienteIdentificador());
+    }
+
+    /**
+     * Siguiente identificador de 63 bits
+     * Si el reloj retrocede se sigue usando el último milisegundo para no repetir valores
+     */
+    synchronized long siguienteIdentificador() {
+        long ahora = Math.max(System.currentTimeMillis(), ultimoMilisegundo);
+        if (ahora == ultimoMilisegundo) {
+            secuencia = (secuencia + 1) & MAX_SECUENCIA;
+            if (secuencia == 0) {
+                ahora = ultimoMilisegundo + 1;
+            }
+        } else {
+            secuencia = 0;
+        }
+        ultimoMilisegundo = ahora;
+        return ((ahora - EPOCA) << (BITS_NODO + BITS_SECUENCIA)) | (nodo << BITS_SECUENCIA) | secuencia;
+    }
+
+    /**
+     * Formatear el identificador con ceros a la izquierda y dígito Luhn en un único buffer
+     */
+    static String formatear(long identificador) {
+        char[] buffer = new char[PREFIJO.length() + DIGITOS + 1];
+        PREFIJO.getChars(0, PREFIJO.length(), buffer, 0);
+
+        long valor = identificador;
+        int suma = 0;
+        for (int i = PREFIJO.length() + DIGITOS - 1, posicion = 0; i >= PREFIJO.length(); i--, posicion++) {
+            int digito = (int) (valor % 10);
+            valor /= 10;
+            buffer[i] = (char) ('0' + digito);
+            if (posicion % 2 == 0) {
+                digito *= 2;
+                if (digito > 9) {
+                    digito -= 9;
+                }
+            }
+            suma += digito;
+        }
+        buffer[buffer.length - 1] = (char) ('0' + (10 - suma % 10) % 10);
+        return new String(buffer);
+    }
+
+    /**
+     * Verificar el dígito Luhn de un número de cuenta generado
+     */
+    public static boolean esValido(String numeroCuenta) {
+        if (numeroCuenta == null || numeroCuenta.length() != PREFIJO.length() + DIGITOS + 1
+                || !numeroCuenta.startsWith(PREFIJO)) {
+            return false;
+        }
+        int suma = 0;
+        for (int i = numeroCuenta.length() - 1, posicion = 0; i >= PREFIJO.length(); i--, posicion++) {
+            char c = numeroCuenta.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            int digito = c - '0';
+            if (posicion % 2 == 1) {
+                digito *= 2;
+                if (digito > 9) {
+                    digito -= 9;
+                }
+            }
+            suma += digito;
+        }
+        return suma % 10 == 0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.banco.gestion.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hash de contraseñas en un pool acotado
+ * BCrypt es CPU pura: el pool tiene tantos hilos como núcleos (app.contrasenas.hilos=0) y una cola
+ * de app.contrasenas.capacidad-cola tareas. Las peticiones esperan su hash sin consumir CPU, así una
+ * carga masiva de usuarios no desplaza al resto de peticiones; con la cola llena se rechaza el hash
+ * en lugar de acumular trabajo. Un lote se reparte en un trabajo por hilo
+ */
+@Component
+public class HashContrasenas {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor ejecutor;
+    private final int hilos;
+
+    private final AtomicLong completados = new AtomicLong();
+    private final AtomicLong rechazados = new AtomicLong();
+
+    public HashContrasenas(PasswordEncoder passwordEncoder,
+                           @Value("${app.contrasenas.hilos:0}") int hilos,
+                           @Value("${app.contrasenas.capacidad-cola:1000}") int capacidadCola) {
+        if (hilos < 0 || capacidadCola <= 0) {
+            throw new IllegalArgumentException("Configuración del pool de hash de contraseñas inválida");
+        }
+        this.passwordEncoder = passwordEncoder;
+        this.hilos = hilos == 0 ? Runtime.getRuntime().availableProcessors() : hilos;
+        AtomicInteger secuenciaHilos = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(this.hilos, this.hilos, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola), tarea -> {
+                Thread hilo = new Thread(tarea, "hash-contrasenas-" + secuenciaHilos.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Calcular el hash de una contraseña en el pool y esperar el resultado
+     */
+    public String codificar(String contrasena) {
+        validar(contrasena);
+        return esperar(enviar(() -> {
+            String hash = passwordEncoder.encode(contrasena);
+            completados.incrementAndGet();
+            return hash;
+        }));
+    }
+
+    /**
+     * Calcular los hashes de un lote en paralelo, en el mismo orden
+     * Usa a lo sumo un lugar de la cola por hilo, sin importar el tamaño del lote
+     */
+    public List<String> codificarTodas(List<String> contrasenas) {
+        contrasenas.forEach(HashContrasenas::validar);
+        String[] hashes = new String[contrasenas.size()];
+        int trabajos = Math.min(hilos, contrasenas.size());
+        List<Future<Void>> pendientes = new ArrayList<>(trabajos);
+        try {
+            for (int t = 0; t < trabajos; t++) {
+                int primero = t;
+                pendientes.add(enviar(() -> {
+                    for (int i = primero; i < hashes.length; i += trabajos) {
+                        hashes[i] = passwordEncoder.encode(contrasenas.get(i));
+                        completados.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> pendiente : pendientes) {
+                esperar(pendiente);
+            }
+        } catch (RuntimeException e) {
+            pendientes.forEach(pendiente -> pendiente.cancel(true));
+            throw e;
+        }
+        return List.of(hashes);
+    }
+
+    private <T> Future<T> enviar(Callable<T> tarea) {
+        try {
+            return ejecutor.submit(tarea);
+        } catch (RejectedExecutionException e) {
+            rechazados.incrementAndGet();
+            throw new IllegalStateException("La cola de hash de contraseñas está llena, intente más tarde", e);
+        }
+    }
+
+    private static <T> T esperar(Future<T> pendiente) {
+        try {
+            return pendiente.get();
+        } catch (InterruptedException e) {
+            pendiente.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("No fue posible calcular el hash de la contraseña", e.getCause());
+        }
+    }
+
+    private static void validar(String contrasena) {
+        if (contrasena == null || contrasena.isEmpty()) {
+            throw new IllegalArgumentException("La contraseña es obligatoria");
+        }
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+
+    public int getEnCola() {
+        return ejecutor.getQueue().size();
+    }
+
+    public int getActivos() {
+        return ejecutor.getActiveCount();
+    }
+
+    public long getCompletados() {
+        return completados.get();
+    }
+
+    public long getRechazados() {
+        return rechazados.get();
+    }
+}
@@ -0,0 +1,403 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.config.OperacionMedida;
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.repositories.CuentaBancariaRepository;
+import com.banco.gestion.repositories.TransferenciaRepository;
+import com.banco.gestion.utils.Dinero;
+import com.banco.gestion.utils.Enums;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Liquidación neta de transferencias por ventanas (flujos empresariales de alto volumen)
+ * Acumula durante una ventana corta las transferencias listas para ejecutar de los roles
+ * configurados, bloquea una sola vez todas las cuentas involucradas (en orden de ID), simula
+ * las transferencias en orden de llegada para validar saldo y estado de cada una y aplica a
+ * cada cuenta solo el neto de la ventana: un UPDATE por cuenta en lugar de dos por transferencia.
+ * Cada transferencia queda EJECUTADA con su propio registro de bitácora y sus saldos intermedios.
+ * Si la ventana completa falla, sus transferencias se ejecutan una a una con EjecutorTransferencias
+ */
+@Slf4j
+@Component
+public class LiquidacionNetaTransferencias {
+
+    private final EjecutorTransferencias ejecutorTransferencias;
+    private final CuentaBancariaRepository cuentaRepository;
+    private final TransferenciaRepository transferenciaRepository;
+    private final BitacoraService bitacoraService;
+    private final CacheCuentas cacheCuentas;
+    private final ExpiracionTransferenciasService expiracionService;
+    private final ColaAprobaciones colaAprobaciones;
+    private final TransactionTemplate transaccionNueva;
+    private final boolean activa;
+    private final Set<Enums.RolSistema> roles;
+    private final int capacidad;
+    private final int tamanoMaximoVentana;
+
+    private final ConcurrentLinkedQueue<Solicitud> cola = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger encoladas = new AtomicInteger();
+
+    private final AtomicLong ventanas = new AtomicLong();
+    private final AtomicLong liquidadas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong cuentasActualizadas = new AtomicLong();
+    private final AtomicLong individuales = new AtomicLong();
+
+    public LiquidacionNetaTransferencias(EjecutorTransferencias ejecutorTransferencias,
+                                         CuentaBancariaRepository cuentaRepository,
+                                         TransferenciaRepository transferenciaRepository,
+                                         BitacoraService bitacoraService,
+                                         CacheCuentas cacheCuentas,
+                                         ExpiracionTransferenciasService expiracionService,
+                                         ColaAprobaciones colaAprobaciones,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${app.transferencias.liquidacion.activa:false}") boolean activa,
+                                         @Value("${app.transferencias.liquidacion.roles:EMPLEADO_EMPRESA,SUPERVISOR_EMPRESA}") Set<Enums.RolSistema> roles,
+                                         @Value("${app.transferencias.liquidacion.capacidad:50000}") int capacidad,
+                                         @Value("${app.transferencias.liquidacion.tamano-maximo-ventana:2000}") int tamanoMaximoVentana) {
+        if (capacidad <= 0 || tamanoMaximoVentana <= 0) {
+            throw new IllegalArgumentException("Configuración de liquidación neta de transferencias inválida");
+        }
+        this.ejecutorTransferencias = ejecutorTransferencias;
+        this.cuentaRepository = cuentaRepository;
+        this.transferenciaRepository = transferenciaRepository;
+        this.bitacoraService = bitacoraService;
+        this.cacheCuentas = cacheCuentas;
+        this.expiracionService = expiracionService;
+        this.colaAprobaciones = colaAprobaciones;
+        this.activa = activa;
+        this.roles = roles.isEmpty() ? EnumSet.noneOf(Enums.RolSistema.class) : EnumSet.copyOf(roles);
+        this.capacidad = capacidad;
+        this.tamanoMaximoVentana = tamanoMaximoVentana;
+        this.transaccionNueva = new TransactionTemplate(transactionManager);
+        this.transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Ejecutar una transferencia nueva
+     * Con la liquidación activa y un rol configurado se difiere a la siguiente ventana;
+     * en otro caso, o con la cola llena, se ejecuta de inmediato
+     */
+    public CompletableFuture<Transferencia> ejecutar(Transferencia transferencia, String rolUsuario) {
+        if (!aplicaLiquidacion(rolUsuario) || !reservarCupo()) {
+            return inmediata(() -> ejecutorTransferencias.ejecutar(transferencia, rolUsuario));
+        }
+        Solicitud solicitud = new Solicitud(transferencia, null, null, rolUsuario, new CompletableFuture<>());
+        cola.add(solicitud);
+        return solicitud.resultado();
+    }
+
+    /**
+     * Aprobar una transferencia en espera de aprobación, con la misma regla de diferimiento
+     */
+    public CompletableFuture<Transferencia> aprobar(Long idTransferencia, Long idUsuarioAprobador, String rolAprobador) {
+        if (!aplicaLiquidacion(rolAprobador) || !reservarCupo()) {
+            return inmediata(() -> ejecutorTransferencias.aprobar(idTransferencia, idUsuarioAprobador, rolAprobador));
+        }
+        Solicitud solicitud = new Solicitud(null, idTransferencia, idUsuarioAprobador, rolAprobador, new CompletableFuture<>());
+        cola.add(solicitud);
+        return solicitud.resultado();
+    }
+
+    /**
+     * Cerrar la ventana actual y liquidarla en lotes de hasta tamanoMaximoVentana
+     */
+    @Scheduled(fixedDelayString = "${app.transferencias.liquidacion.ventana-ms:200}")
+    @OperacionMedida
+    public void liquidar() {
+        List<Solicitud> ventana;
+        do {
+            ventana = new ArrayList<>();
+            Solicitud solicitud;
+            while (ventana.size() < tamanoMaximoVentana && (solicitud = cola.poll()) != null) {
+                ventana.add(solicitud);
+            }
+            encoladas.addAndGet(-ventana.size());
+            if (!ventana.isEmpty()) {
+                liquidarVentana(ventana);
+            }
+        } while (ventana.size() == tamanoMaximoVentana);
+    }
+
+    private void liquidarVentana(List<Solicitud> ventana) {
+        List<Resultado> resultados;
+        try {
+            resultados = transaccionNueva.execute(status -> aplicarNeto(ventana));
+        } catch (RuntimeException e) {
+            log.warn("No fue posible liquidar una ventana de {} transferencias, se ejecutan una a una: {}",
+                ventana.size(), e.getMessage());
+            ejecutarIndividualmente(ventana);
+            return;
+        }
+
+        ventanas.incrementAndGet();
+        for (Resultado resultado : resultados) {
+            if (resultado.error() == null) {
+                liquidadas.incrementAndGet();
+                if (resultado.solicitud().esAprobacion()) {
+                    expiracionService.cancelar(resultado.solicitud().idTransferencia());
+                    colaAprobaciones.transferenciasResueltas(List.of(resultado.solicitud().idTransferencia()));
+                }
+                resultado.solicitud().resultado().complete(resultado.transferencia());
+            } else {
+                rechazadas.incrementAndGet();
+                resultado.solicitud().resultado().completeExceptionally(resultado.error());
+            }
+        }
+    }
+
+    /**
+     * Aplica la ventana dentro de una transacción: bloqueos, simulación secuencial, netos por
+     * cuenta, estado de las transferencias y bitácora
+     */
+    private List<Resultado> aplicarNeto(List<Solicitud> ventana) {
+        Map<Long, Transferencia> aprobaciones = bloquearAprobaciones(ventana);
+
+        // Resolver las transferencias y las cuentas involucradas
+        List<Transferencia> transferencias = new ArrayList<>(ventana.size());
+        Set<String> numeros = new LinkedHashSet<>();
+        for (Solicitud solicitud : ventana) {
+            Transferencia transferencia = solicitud.esAprobacion()
+                ? aprobaciones.remove(solicitud.idTransferencia())
+                : solicitud.transferencia();
+            transferencias.add(transferencia);
+            if (transferencia != null) {
+                numeros.add(transferencia.getCuentaOrigen());
+                numeros.add(transferencia.getCuentaDestino());
+            }
+        }
+        Map<String, Long> ids = new HashMap<>();
+        TreeSet<Long> idsOrdenados = new TreeSet<>();
+        for (String numero : numeros) {
+            CacheCuentas.InstantaneaCuenta cuenta = cacheCuentas.obtenerPorNumero(numero);
+            if (cuenta.existe()) {
+                ids.put(numero, cuenta.idCuenta());
+                idsOrdenados.add(cuenta.idCuenta());
+            }
+        }
+
+        // Un solo SELECT ... FOR UPDATE para todas las cuentas, en orden de ID
+        Map<String, CuentaBancaria> cuentas = new HashMap<>();
+        Map<String, Dinero> saldos = new HashMap<>();
+        if (!idsOrdenados.isEmpty()) {
+            for (CuentaBancaria cuenta : cuentaRepository.bloquearPorIds(idsOrdenados)) {
+                cuentas.put(cuenta.getNumeroCuenta(), cuenta);
+                saldos.put(cuenta.getNumeroCuenta(), cuenta.saldoEnDinero());
+            }
+        }
+
+        // Simulación en orden de llegada sobre los saldos en memoria
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Resultado> resultados = new ArrayList<>(ventana.size());
+        List<BitacoraService.TransferenciaLiquidada> liquidadasVentana = new ArrayList<>();
+        List<Transferencia> nuevas = new ArrayList<>();
+        for (int i = 0; i < ventana.size(); i++) {
+            Solicitud solicitud = ventana.get(i);
+            Transferencia transferencia = transferencias.get(i);
+            String rechazo = transferencia == null
+                ? "La transferencia no existe o ya no está en espera de aprobación"
+                : validar(solicitud, transferencia, cuentas);
+            Dinero monto = rechazo == null
+                ? Dinero.de(transferencia.getMonto(), cuentas.get(transferencia.getCuentaOrigen()).getMoneda())
+                : null;
+            if (rechazo == null && !saldos.get(transferencia.getCuentaOrigen()).cubre(monto)) {
+                rechazo = "Saldo insuficiente en la cuenta origen";
+            }
+            if (rechazo != null) {
+                resultados.add(new Resultado(solicitud, null, new IllegalArgumentException(rechazo)));
+                continue;
+            }
+
+            Dinero antesOrigen = saldos.get(transferencia.getCuentaOrigen());
+            Dinero antesDestino = saldos.get(transferencia.getCuentaDestino());
+            Dinero despuesOrigen = antesOrigen.restar(monto);
+            Dinero despuesDestino = antesDestino.sumar(monto);
+            saldos.put(transferencia.getCuentaOrigen(), despuesOrigen);
+            saldos.put(transferencia.getCuentaDestino(), despuesDestino);
+
+            transferencia.setEstadoTransferencia(Enums.EstadoTransferencia.EJECUTADA);
+            transferencia.setFechaActualizacion(ahora);
+            if (solicitud.esAprobacion()) {
+                transferencia.setIdUsuarioAprobador(solicitud.idUsuarioAprobador());
+                transferencia.setFechaAprobacion(ahora);
+            } else {
+                transferencia.setIdTransferencia(null);
+                nuevas.add(transferencia);
+            }
+            liquidadasVentana.add(new BitacoraService.TransferenciaLiquidada(transferencia,
+                antesOrigen.aBigDecimal(), despuesOrigen.aBigDecimal(),
+                antesDestino.aBigDecimal(), despuesDestino.aBigDecimal(), solicitud.rolUsuario()));
+            resultados.add(new Resultado(solicitud, transferencia, null));
+        }
+
+        // Solo el neto: las entidades bloqueadas reciben su saldo final y Hibernate emite un UPDATE por cuenta
+        int actualizadas = 0;
+        for (CuentaBancaria cuenta : cuentas.values()) {
+            Dinero saldoFinal = saldos.get(cuenta.getNumeroCuenta());
+            if (!saldoFinal.equals(cuenta.saldoEnDinero())) {
+                cuenta.setSaldoActual(saldoFinal.aBigDecimal());
+                cuenta.setFechaActualizacion(ahora);
+                cacheCuentas.invalidar(cuenta);
+                actualizadas++;
+            }
+        }
+
+        // Las nuevas necesitan su ID antes de registrarse en bitácora
+        transferenciaRepository.saveAll(nuevas);
+        if (!liquidadasVentana.isEmpty()) {
+            bitacoraService.registrarTransferenciasEjecutadas(liquidadasVentana);
+        }
+        cuentasActualizadas.addAndGet(actualizadas);
+        return resultados;
+    }
+
+    /**
+     * Bloquea en una sola consulta las transferencias a aprobar que sigan en espera
+     */
+    private Map<Long, Transferencia> bloquearAprobaciones(List<Solicitud> ventana) {
+        Set<Long> ids = new TreeSet<>();
+        for (Solicitud solicitud : ventana) {
+            if (solicitud.esAprobacion()) {
+                ids.add(solicitud.idTransferencia());
+            }
+        }
+        Map<Long, Transferencia> aprobaciones = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Transferencia transferencia : transferenciaRepository.findByIdTransferenciaInAndEstadoTransferencia(
+                    ids, Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION)) {
+                aprobaciones.put(transferencia.getIdTransferencia(), transferencia);
+            }
+        }
+        return aprobaciones;
+    }
+
+    /**
+     * Reglas de EjecutorTransferencias salvo el saldo, que se verifica contra el saldo simulado
+     */
+    private String validar(Solicitud solicitud, Transferencia transferencia, Map<String, CuentaBancaria> cuentas) {
+        if (solicitud.esAprobacion() && transferencia.haVencido()) {
+            return "La transferencia venció por falta de aprobación";
+        }
+        if (transferencia.getCuentaOrigen().equals(transferencia.getCuentaDestino())) {
+            return "La cuenta origen y destino deben ser distintas";
+        }
+        CuentaBancaria origen = cuentas.get(transferencia.getCuentaOrigen());
+        CuentaBancaria destino = cuentas.get(transferencia.getCuentaDestino());
+        if (origen == null) {
+            return "Cuenta origen no encontrada";
+        }
+        if (destino == null) {
+            return "Cuenta destino no encontrada";
+        }
+        if (!origen.estaDisponibleParaOperaciones() || !destino.estaDisponibleParaOperaciones()) {
+            return "Las cuentas origen y destino deben estar activas";
+        }
+        if (origen.getMoneda() != destino.getMoneda()) {
+            return "Las cuentas origen y destino deben tener la misma moneda";
+        }
+        if (!Dinero.esMontoValido(transferencia.getMonto())) {
+            return "El monto debe ser mayor a cero y tener a lo sumo dos decimales";
+        }
+        return null;
+    }
+
+    private void ejecutarIndividualmente(List<Solicitud> ventana) {
+        for (Solicitud solicitud : ventana) {
+            individuales.incrementAndGet();
+            try {
+                Transferencia transferencia = solicitud.esAprobacion()
+                    ? ejecutorTransferencias.aprobar(solicitud.idTransferencia(), solicitud.idUsuarioAprobador(), solicitud.rolUsuario())
+                    : ejecutorTransferencias.ejecutar(solicitud.transferencia(), solicitud.rolUsuario());
+                solicitud.resultado().complete(transferencia);
+            } catch (RuntimeException e) {
+                solicitud.resultado().completeExceptionally(e);
+            }
+        }
+    }
+
+    private boolean aplicaLiquidacion(String rolUsuario) {
+        if (!activa || rolUsuario == null) {
+            return false;
+        }
+        try {
+            return roles.contains(Enums.RolSistema.valueOf(rolUsuario));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean reservarCupo() {
+        if (encoladas.incrementAndGet() > capacidad) {
+            encoladas.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private CompletableFuture<Transferencia> inmediata(Supplier<Transferencia> ejecucion) {
+        try {
+            return CompletableFuture.completedFuture(ejecucion.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public int getEncoladas() {
+        return encoladas.get();
+    }
+
+    public long getVentanas() {
+        return ventanas.get();
+    }
+
+    public long getLiquidadas() {
+        return liquidadas.get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+
+    public long getCuentasActualizadas() {
+        return cuentasActualizadas.get();
+    }
+
+    public long getIndividuales() {
+        return individuales.get();
+    }
+
+    /**
+     * Transferencia nueva (transferencia) o aprobación de una pendiente (idTransferencia)
+     */
+    private record Solicitud(Transferencia transferencia, Long idTransferencia, Long idUsuarioAprobador,
+                             String rolUsuario, CompletableFuture<Transferencia> resultado) {
+        boolean esAprobacion() {
+            return idTransferencia != null;
+        }
+    }
+
+    private record Resultado(Solicitud solicitud, Transferencia transferencia, RuntimeException error) {
+    }
+}
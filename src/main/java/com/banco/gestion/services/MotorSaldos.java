@@ -0,0 +1,167 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.repositories.CuentaBancariaRepository;
+import com.banco.gestion.utils.Enums;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de mutación de saldos
+ * Aplica créditos y débitos con UPDATE condicionales atómicos en SQL
+ * (saldo = saldo - ? WHERE saldo >= ?) en lugar de leer-modificar-guardar,
+ * y serializa dentro del proceso las operaciones sobre una misma cuenta con
+ * candados por franjas que se liberan al terminar la transacción.
+ * Los candados se esperan a lo sumo app.saldos.espera-candado-ms: una transacción que toma
+ * franjas en orden inverso al de otra (o franjas compartidas por cuentas distintas) falla con
+ * ConcurrencyFailureException en lugar de quedar en un interbloqueo que la base de datos no ve.
+ * Para operar sobre varias cuentas se reservan antes todas sus franjas, en orden ascendente
+ */
+@Component
+public class MotorSaldos {
+
+    private final CuentaBancariaRepository cuentaRepository;
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+    private final long esperaCandadoMs;
+
+    public MotorSaldos(CuentaBancariaRepository cuentaRepository,
+                       @Value("${app.saldos.franjas:256}") int cantidadFranjas,
+                       @Value("${app.saldos.espera-candado-ms:3000}") long esperaCandadoMs) {
+        if (cantidadFranjas <= 0 || Integer.bitCount(cantidadFranjas) != 1) {
+            throw new IllegalArgumentException("La cantidad de franjas debe ser una potencia de dos");
+        }
+        if (esperaCandadoMs <= 0) {
+            throw new IllegalArgumentException("La espera de los candados de saldo debe ser positiva");
+        }
+        this.cuentaRepository = cuentaRepository;
+        this.esperaCandadoMs = esperaCandadoMs;
+        this.franjas = new ReentrantLock[cantidadFranjas];
+        for (int i = 0; i < cantidadFranjas; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        this.mascara = cantidadFranjas - 1;
+    }
+
+    /**
+     * Acreditar un monto a la cuenta
+     * Regla: la cuenta debe existir y estar activa
+     */
+    public void acreditar(Long idCuenta, BigDecimal monto) {
+        bloquearHastaFinDeTransaccion(idCuenta);
+        int filas = cuentaRepository.acreditarSaldo(idCuenta, monto, Enums.EstadoCuenta.ACTIVA, LocalDateTime.now());
+        if (filas == 0) {
+            throw new IllegalArgumentException(explicarRechazo(idCuenta, monto, false));
+        }
+    }
+
+    /**
+     * Debitar un monto de la cuenta
+     * Regla: la cuenta debe existir, estar activa y tener saldo suficiente
+     */
+    public void debitar(Long idCuenta, BigDecimal monto) {
+        bloquearHastaFinDeTransaccion(idCuenta);
+        int filas = cuentaRepository.debitarSaldo(idCuenta, monto, Enums.EstadoCuenta.ACTIVA, LocalDateTime.now());
+        if (filas == 0) {
+            throw new IllegalArgumentException(explicarRechazo(idCuenta, monto, true));
+        }
+    }
+
+    /**
+     * Reservar la franja de la cuenta hasta el fin de la transacción sin mutar el saldo
+     * Para cambios de estado que no deben intercalarse con créditos o débitos locales
+     */
+    public void reservar(Long idCuenta) {
+        bloquearHastaFinDeTransaccion(idCuenta);
+    }
+
+    /**
+     * Reservar las franjas de varias cuentas hasta el fin de la transacción, en orden ascendente
+     * de franja, antes de mutar cualquiera de ellas
+     */
+    public void reservar(Collection<Long> idsCuenta) {
+        bloquearHastaFinDeTransaccion(idsCuenta.stream().mapToInt(this::franja).distinct().sorted().toArray());
+    }
+
+    /**
+     * Solo se consulta la cuenta cuando el UPDATE no afectó filas, para informar el motivo
+     */
+    private String explicarRechazo(Long idCuenta, BigDecimal monto, boolean esDebito) {
+        CuentaBancaria cuenta = cuentaRepository.findById(idCuenta).orElse(null);
+        if (cuenta == null) {
+            return "Cuenta no encontrada";
+        }
+        if (!cuenta.estaDisponibleParaOperaciones()) {
+            return "La cuenta no está disponible para operaciones";
+        }
+        if (esDebito && !cuenta.tieneSaldoSuficiente(monto)) {
+            return "Saldo insuficiente para realizar el retiro";
+        }
+        return "No fue posible actualizar el saldo de la cuenta";
+    }
+
+    /**
+     * Toma el candado de la franja de la cuenta y lo libera al completar la transacción,
+     * de modo que el bloqueo de fila en la base de datos y el candado local duran lo mismo
+     */
+    private void bloquearHastaFinDeTransaccion(Long idCuenta) {
+        bloquearHastaFinDeTransaccion(new int[] {franja(idCuenta)});
+    }
+
+    /**
+     * Las franjas llegan ordenadas y sin repetir; si alguna no se obtiene a tiempo se liberan
+     * las tomadas en esta llamada (las de llamadas anteriores siguen hasta el fin de la transacción)
+     */
+    private void bloquearHastaFinDeTransaccion(int[] indices) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Las mutaciones de saldo requieren una transacción activa");
+        }
+        int tomadas = 0;
+        try {
+            for (int indice : indices) {
+                if (!franjas[indice].tryLock(esperaCandadoMs, TimeUnit.MILLISECONDS)) {
+                    throw new ConcurrencyFailureException("Tiempo de espera agotado para el candado de saldo de la cuenta");
+                }
+                tomadas++;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    for (int indice : indices) {
+                        franjas[indice].unlock();
+                    }
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            liberar(indices, tomadas);
+            throw new IllegalStateException("Espera del candado de saldo interrumpida", e);
+        } catch (RuntimeException e) {
+            liberar(indices, tomadas);
+            throw e;
+        }
+    }
+
+    private void liberar(int[] indices, int tomadas) {
+        for (int i = tomadas - 1; i >= 0; i--) {
+            franjas[indices[i]].unlock();
+        }
+    }
+
+    private int franja(Long idCuenta) {
+        if (idCuenta == null) {
+            throw new IllegalArgumentException("El ID de la cuenta es obligatorio");
+        }
+        long h = idCuenta * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
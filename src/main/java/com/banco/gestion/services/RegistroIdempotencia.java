@@ -0,0 +1,243 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.ClaveIdempotencia;
+import com.banco.gestion.models.OperacionIdempotente;
+import com.banco.gestion.repositories.OperacionIdempotenteRepository;
+import com.banco.gestion.utils.CacheLocal;
+import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Registro de claves de idempotencia para operaciones monetarias
+ * El cliente envía una clave por solicitud, única para su usuario; el resultado de la primera ejecución se guarda en
+ * operaciones_idempotentes en la misma transacción que la operación y se mantiene en una caché
+ * local acotada con expiración. Un reintento con la misma clave recibe el resultado guardado
+ * sin tocar las cuentas. Las solicitudes con la misma clave se serializan con candados por
+ * franjas dentro del proceso; entre instancias decide la clave primaria (usuario, clave) de la tabla.
+ * Una clave vencida que la purga aún no eliminó se reemplaza al registrarla de nuevo.
+ * Las operaciones rechazadas no se guardan: un reintento vuelve a evaluarlas
+ */
+@Slf4j
+@Component
+public class RegistroIdempotencia {
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 64;
+    private static final int TAMANO_LOTE_PURGA = 1000;
+
+    private final OperacionIdempotenteRepository operacionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheLocal<ClaveIdempotencia, OperacionIdempotente> cache;
+    private final Duration retencion;
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+
+    public RegistroIdempotencia(OperacionIdempotenteRepository operacionRepository,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${app.idempotencia.cache.capacidad:100000}") int capacidad,
+                                @Value("${app.idempotencia.cache.ttl-segundos:600}") long ttlSegundos,
+                                @Value("${app.idempotencia.retencion-horas:24}") long retencionHoras,
+                                @Value("${app.idempotencia.franjas:64}") int cantidadFranjas) {
+        if (retencionHoras <= 0 || cantidadFranjas <= 0 || Integer.bitCount(cantidadFranjas) != 1) {
+            throw new IllegalArgumentException("Configuración de idempotencia inválida");
+        }
+        this.operacionRepository = operacionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.cache = new CacheLocal<>("idempotencia", capacidad, ttlSegundos, TimeUnit.SECONDS);
+        this.retencion = Duration.ofHours(retencionHoras);
+        this.franjas = new ReentrantLock[cantidadFranjas];
+        for (int i = 0; i < cantidadFranjas; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        this.mascara = cantidadFranjas - 1;
+    }
+
+    /**
+     * Ejecutar la acción en una transacción que también registra la clave
+     * Sin clave la acción se ejecuta sin más
+     */
+    public <T> T ejecutarEnTransaccion(Long idUsuario, String clave, Enums.TipoOperacionIdempotente tipo, String huella,
+                                       Class<T> tipoResultado, Supplier<T> accion) {
+        return ejecutar(idUsuario, clave, tipo, huella, tipoResultado, () -> transactionTemplate.execute(status -> {
+            T resultado = accion.get();
+            registrar(idUsuario, clave, tipo, huella, resultado);
+            return resultado;
+        }));
+    }
+
+    /**
+     * Ejecutar una acción que maneja su propia transacción
+     * La acción debe llamar a registrar() dentro de esa transacción (por ejemplo en cada intento)
+     */
+    public <T> T ejecutar(Long idUsuario, String clave, Enums.TipoOperacionIdempotente tipo, String huella,
+                          Class<T> tipoResultado, Supplier<T> accion) {
+        if (clave == null) {
+            return accion.get();
+        }
+        validarClave(idUsuario, clave);
+        Optional<T> previo = consultar(idUsuario, clave, tipo, huella, tipoResultado);
+        if (previo.isPresent()) {
+            return previo.get();
+        }
+
+        ReentrantLock candado = franjas[franja(idUsuario, clave)];
+        candado.lock();
+        try {
+            previo = consultar(idUsuario, clave, tipo, huella, tipoResultado);
+            if (previo.isPresent()) {
+                return previo.get();
+            }
+            return accion.get();
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia registró la misma clave primero: se responde con su resultado
+            return consultar(idUsuario, clave, tipo, huella, tipoResultado).orElseThrow(() -> e);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Resultado guardado para la clave, desde la caché o la tabla
+     * Falla si la clave se usó con otra operación o con otros parámetros
+     */
+    public <T> Optional<T> consultar(Long idUsuario, String clave, Enums.TipoOperacionIdempotente tipo, String huella,
+                                     Class<T> tipoResultado) {
+        if (clave == null) {
+            return Optional.empty();
+        }
+        ClaveIdempotencia id = new ClaveIdempotencia(idUsuario, clave);
+        OperacionIdempotente operacion = cache.obtenerSiPresente(id);
+        if (operacion == null) {
+            operacion = operacionRepository.findById(id)
+                .filter(o -> o.getFechaExpiracion().isAfter(LocalDateTime.now()))
+                .orElse(null);
+            if (operacion == null) {
+                return Optional.empty();
+            }
+            cache.poner(id, operacion);
+        }
+        if (operacion.getTipoOperacion() != tipo || !operacion.getHuella().equals(huella)) {
+            throw new IllegalArgumentException("La clave de idempotencia ya se usó con otra solicitud");
+        }
+        return Optional.of(leer(operacion.getResultado(), tipoResultado));
+    }
+
+    /**
+     * Registrar el resultado en la transacción en curso; queda en caché al confirmarla
+     * La inserción se envía de inmediato para que una clave duplicada falle aquí y no al confirmar;
+     * antes se borra la fila de la misma clave si ya venció, que de otro modo violaría la clave primaria
+     */
+    public void registrar(Long idUsuario, String clave, Enums.TipoOperacionIdempotente tipo, String huella,
+                          Object resultado) {
+        if (clave == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("El registro de idempotencia requiere una transacción activa");
+        }
+        ClaveIdempotencia id = new ClaveIdempotencia(idUsuario, clave);
+        LocalDateTime ahora = LocalDateTime.now();
+        operacionRepository.eliminarVencida(idUsuario, clave, ahora);
+        OperacionIdempotente operacion = new OperacionIdempotente(id, tipo, huella, escribir(resultado),
+            ahora.plus(retencion));
+        operacionRepository.saveAndFlush(operacion);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.poner(id, operacion);
+            }
+        });
+    }
+
+    /**
+     * Huella compacta (22 caracteres) de los parámetros que identifican la solicitud
+     */
+    public static String huella(Object... partes) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (Object parte : partes) {
+                sha.update(String.valueOf(parte).getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) 0x1F);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(sha.digest(), 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Eliminar por lotes las claves vencidas
+     */
+    @Scheduled(fixedDelayString = "${app.idempotencia.intervalo-purga-ms:60000}")
+    public void purgar() {
+        int eliminadas;
+        int total = 0;
+        do {
+            eliminadas = transactionTemplate.execute(status ->
+                operacionRepository.purgarVencidas(LocalDateTime.now(), TAMANO_LOTE_PURGA));
+            total += eliminadas;
+        } while (eliminadas == TAMANO_LOTE_PURGA);
+        if (total > 0) {
+            log.debug("Claves de idempotencia vencidas eliminadas: {}", total);
+        }
+    }
+
+    public List<CacheLocal.Estadisticas> estadisticas() {
+        return List.of(cache.estadisticas());
+    }
+
+    private void validarClave(Long idUsuario, String clave) {
+        if (idUsuario == null) {
+            throw new IllegalArgumentException("La clave de idempotencia requiere un usuario identificado");
+        }
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y "
+                + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+    }
+
+    private String escribir(Object resultado) {
+        try {
+            return objectMapper.writeValueAsString(resultado);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No fue posible serializar el resultado idempotente", e);
+        }
+    }
+
+    private <T> T leer(String json, Class<T> tipoResultado) {
+        try {
+            return objectMapper.readValue(json, tipoResultado);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No fue posible leer el resultado idempotente", e);
+        }
+    }
+
+    private int franja(Long idUsuario, String clave) {
+        int h = (31 * idUsuario.hashCode() + clave.hashCode()) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,111 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.BitacoraOutbox;
+import com.banco.gestion.repositories.BitacoraOutboxRepository;
+import com.banco.gestion.repositories.BitacoraRepository;
+import com.banco.gestion.utils.EventosJfr;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relevo de la bandeja de salida de la bitácora
+ * Lee bitacora_outbox en orden de ID, publica cada lote en bitacora_operaciones con un
+ * bulkWrite de reemplazos (upsert) y elimina las filas entregadas. El _id del documento se
+ * deriva de la fila (segundos de creación + ID de outbox), así que reenviar un lote tras una
+ * falla reemplaza los mismos documentos en lugar de duplicarlos
+ */
+@Slf4j
+@Component
+public class RelevoBitacora {
+
+    private final BitacoraOutboxRepository outboxRepository;
+    private final BitacoraRepository bitacoraRepository;
+    private final int tamanoLote;
+    private final AtomicLong entregados = new AtomicLong();
+
+    public RelevoBitacora(BitacoraOutboxRepository outboxRepository,
+                          BitacoraRepository bitacoraRepository,
+                          @Value("${app.bitacora.outbox.tamano-lote:500}") int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote del relevo de bitácora debe ser positivo");
+        }
+        this.outboxRepository = outboxRepository;
+        this.bitacoraRepository = bitacoraRepository;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Vaciar la bandeja de salida; mientras los lotes salgan completos se sigue sin esperar
+     * Si MongoDB falla, las filas quedan en la tabla y se reintentan en la siguiente ejecución
+     */
+    @Scheduled(fixedDelayString = "${app.bitacora.outbox.intervalo-ms:200}")
+    public void relevar() {
+        try {
+            int entregadosLote;
+            do {
+                entregadosLote = relevarLote();
+            } while (entregadosLote == tamanoLote);
+        } catch (RuntimeException e) {
+            log.error("No fue posible relevar la bandeja de salida de bitácora, se reintentará", e);
+        }
+    }
+
+    private int relevarLote() {
+        List<BitacoraOutbox> lote = outboxRepository.findAllByOrderByIdOutboxAsc(PageRequest.of(0, tamanoLote));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        List<Document> documentos = new ArrayList<>(lote.size());
+        List<Long> ids = new ArrayList<>(lote.size());
+        for (BitacoraOutbox fila : lote) {
+            Document documento = Document.parse(fila.getDocumento());
+            documento.put("_id", idDocumento(fila));
+            documentos.add(documento);
+            ids.add(fila.getIdOutbox());
+        }
+
+        EventosJfr.EscrituraBitacora evento = new EventosJfr.EscrituraBitacora();
+        evento.begin();
+        boolean exitosa = false;
+        try {
+            bitacoraRepository.reemplazarDocumentos(documentos);
+            exitosa = true;
+        } finally {
+            evento.terminar("relevo", "mongo", documentos.size(), exitosa);
+        }
+        outboxRepository.deleteAllByIdInBatch(ids);
+        entregados.addAndGet(lote.size());
+        return lote.size();
+    }
+
+    /**
+     * ObjectId determinista: 4 bytes de segundos de creación y 8 bytes del ID de outbox
+     * Mantiene el orden temporal del _id y es estable entre reintentos
+     */
+    static ObjectId idDocumento(BitacoraOutbox fila) {
+        ByteBuffer bytes = ByteBuffer.allocate(12);
+        bytes.putInt((int) fila.getFechaCreacion().atZone(ZoneId.systemDefault()).toEpochSecond());
+        bytes.putLong(fila.getIdOutbox());
+        return new ObjectId(bytes.array());
+    }
+
+    public long getPendientes() {
+        return outboxRepository.count();
+    }
+
+    public long getEntregados() {
+        return entregados.get();
+    }
+}
@@ -0,0 +1,149 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.repositories.TransferenciaRepository;
+import com.banco.gestion.utils.Enums;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Servicio de Transferencias
+ * Las transferencias de Empleado Empresa por encima del umbral quedan en espera de aprobación
+ * con su vencimiento programado; el resto, y las aprobaciones, pasan por
+ * LiquidacionNetaTransferencias, que difiere a la siguiente ventana las de los roles
+ * empresariales configurados y ejecuta las demás de inmediato
+ */
+@Service
+public class TransferenciaService {
+
+    private final LiquidacionNetaTransferencias liquidacion;
+    private final TransferenciaRepository transferenciaRepository;
+    private final ExpiracionTransferenciasService expiracionService;
+    private final ColaAprobaciones colaAprobaciones;
+    private final BitacoraService bitacoraService;
+    private final CacheCuentas cacheCuentas;
+    private final TransactionTemplate transactionTemplate;
+    private final BigDecimal umbralAprobacion;
+
+    public TransferenciaService(LiquidacionNetaTransferencias liquidacion,
+                                TransferenciaRepository transferenciaRepository,
+                                ExpiracionTransferenciasService expiracionService,
+                                ColaAprobaciones colaAprobaciones,
+                                BitacoraService bitacoraService,
+                                CacheCuentas cacheCuentas,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${app.transferencias.aprobacion.umbral:10000000}") BigDecimal umbralAprobacion) {
+        if (umbralAprobacion.signum() < 0) {
+            throw new IllegalArgumentException("El umbral de aprobación de transferencias no puede ser negativo");
+        }
+        this.liquidacion = liquidacion;
+        this.transferenciaRepository = transferenciaRepository;
+        this.expiracionService = expiracionService;
+        this.colaAprobaciones = colaAprobaciones;
+        this.bitacoraService = bitacoraService;
+        this.cacheCuentas = cacheCuentas;
+        this.transactionTemplate = transactionTemplate;
+        this.umbralAprobacion = umbralAprobacion;
+    }
+
+    /**
+     * Crear una transferencia: queda en espera de aprobación si la crea un Empleado Empresa
+     * por encima del umbral, y en otro caso se ejecuta
+     */
+    public CompletableFuture<Transferencia> crear(String cuentaOrigen, String cuentaDestino, BigDecimal monto,
+                                                  Long idUsuarioCreador, String rolUsuario) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setCuentaOrigen(cuentaOrigen);
+        transferencia.setCuentaDestino(cuentaDestino);
+        transferencia.setMonto(monto);
+        transferencia.setIdUsuarioCreador(idUsuarioCreador);
+        if (requiereAprobacion(monto, rolUsuario)) {
+            return CompletableFuture.completedFuture(transactionTemplate.execute(estado -> dejarEnEspera(transferencia)));
+        }
+        return liquidacion.ejecutar(transferencia, rolUsuario);
+    }
+
+    /**
+     * Aprobar y ejecutar una transferencia en espera de aprobación
+     */
+    public CompletableFuture<Transferencia> aprobar(Long idTransferencia, Long idUsuarioAprobador, String rolAprobador) {
+        return liquidacion.aprobar(idTransferencia, idUsuarioAprobador, rolAprobador);
+    }
+
+    /**
+     * Rechazar una transferencia en espera de aprobación y cancelar su vencimiento
+     */
+    public Transferencia rechazar(Long idTransferencia, Long idUsuarioAprobador, String rolAprobador, String razon) {
+        return transactionTemplate.execute(estado -> {
+            List<Transferencia> pendientes = transferenciaRepository.findByIdTransferenciaInAndEstadoTransferencia(
+                List.of(idTransferencia), Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION);
+            if (pendientes.isEmpty()) {
+                throw new IllegalArgumentException("La transferencia no existe o ya no está en espera de aprobación");
+            }
+            Transferencia transferencia = pendientes.get(0);
+            transferencia.setEstadoTransferencia(Enums.EstadoTransferencia.RECHAZADA);
+            transferencia.setIdUsuarioAprobador(idUsuarioAprobador);
+            transferencia.setFechaActualizacion(LocalDateTime.now());
+
+            bitacoraService.registrarTransferenciaRechazada(transferencia, razon, rolAprobador);
+            colaAprobaciones.transferenciasResueltas(List.of(idTransferencia));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    expiracionService.cancelar(idTransferencia);
+                }
+            });
+            return transferencia;
+        });
+    }
+
+    /**
+     * Obtener transferencia por ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<Transferencia> obtenerPorId(Long idTransferencia) {
+        return transferenciaRepository.findById(idTransferencia);
+    }
+
+    /**
+     * Cliente titular de la cuenta, o null si no existe; para una cuenta empresarial es la empresa
+     */
+    public Long titularDeCuenta(String numeroCuenta) {
+        CacheCuentas.InstantaneaCuenta cuenta = cacheCuentas.obtenerPorNumero(numeroCuenta);
+        return cuenta.existe() ? cuenta.idTitular() : null;
+    }
+
+    private boolean requiereAprobacion(BigDecimal monto, String rolUsuario) {
+        return Enums.RolSistema.EMPLEADO_EMPRESA.name().equals(rolUsuario)
+            && monto != null && monto.compareTo(umbralAprobacion) > 0;
+    }
+
+    /**
+     * El saldo se valida al aprobar; aquí solo lo que no puede cambiar mientras espera
+     */
+    private Transferencia dejarEnEspera(Transferencia transferencia) {
+        if (transferencia.getCuentaOrigen().equals(transferencia.getCuentaDestino())) {
+            throw new IllegalArgumentException("La cuenta origen y destino deben ser distintas");
+        }
+        if (titularDeCuenta(transferencia.getCuentaDestino()) == null) {
+            throw new IllegalArgumentException("Cuenta destino no encontrada");
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        transferencia.setEstadoTransferencia(Enums.EstadoTransferencia.EN_ESPERA_DE_APROBACION);
+        transferencia.setFechaCreacion(ahora);
+        transferencia.setFechaActualizacion(ahora);
+        transferenciaRepository.save(transferencia);
+        expiracionService.programar(transferencia);
+        return transferencia;
+    }
+}
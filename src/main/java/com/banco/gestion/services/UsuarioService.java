@@ -1,16 +1,20 @@
 package com.banco.gestion.services;
 
+import com.banco.gestion.config.OperacionMedida;
 import com.banco.gestion.models.Usuario;
 import com.banco.gestion.repositories.UsuarioRepository;
 import com.banco.gestion.utils.Enums;
+import com.banco.gestion.utils.EventosJfr;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Servicio de Usuarios
@@ -22,11 +26,19 @@ import java.util.Optional;
 public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final HashContrasenas hashContrasenas;
+    private final CacheAutorizacion cacheAutorizacion;
+    private final CacheLogin cacheLogin;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Crear un nuevo usuario
+     * El hash de la contraseña se calcula fuera de transacción, sin retener una conexión, y el
+     * usuario se guarda después en una transacción propia. Si el llamador ya tiene una
+     * transacción, todo se une a ella
      */
+    @OperacionMedida
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Usuario crearUsuario(Usuario usuario) {
         // Validar que sea mayor de 18 años
         if (!usuario.esMayorDeEdad()) {
@@ -34,13 +46,53 @@ public class UsuarioService {
         }
 
         // Encriptar contraseña
-        usuario.setContrasena(passwordEncoder.encode(usuario.getContrasena()));
+        usuario.setContrasena(hashContrasenas.codificar(usuario.getContrasena()));
+
+        return transactionTemplate.execute(estado -> {
+            Usuario guardado = usuarioRepository.save(usuario);
+            // Descarta una posible instantánea "no encontrado" para el nuevo ID
+            cacheAutorizacion.invalidar(guardado.getIdUsuario());
+            cacheLogin.registrar(guardado);
+            return guardado;
+        });
+    }
 
-        return usuarioRepository.save(usuario);
+    /**
+     * Crear varios usuarios (aprovisionamiento masivo)
+     * Los hashes se calculan en paralelo en el pool de contraseñas, fuera de transacción, y los
+     * usuarios se guardan después en una sola transacción: si alguno falla no se crea ninguno
+     */
+    @OperacionMedida
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Usuario> crearUsuarios(List<Usuario> usuarios) {
+        if (usuarios.isEmpty()) {
+            throw new IllegalArgumentException("El lote de usuarios está vacío");
+        }
+        for (int i = 0; i < usuarios.size(); i++) {
+            if (!usuarios.get(i).esMayorDeEdad()) {
+                throw new IllegalArgumentException("El usuario " + (i + 1) + " del lote debe ser mayor de 18 años");
+            }
+        }
+
+        List<String> hashes = hashContrasenas.codificarTodas(usuarios.stream().map(Usuario::getContrasena).toList());
+        for (int i = 0; i < usuarios.size(); i++) {
+            usuarios.get(i).setContrasena(hashes.get(i));
+        }
+
+        return transactionTemplate.execute(estado -> {
+            List<Usuario> guardados = usuarioRepository.saveAll(usuarios);
+            for (Usuario guardado : guardados) {
+                cacheAutorizacion.invalidar(guardado.getIdUsuario());
+                cacheLogin.registrar(guardado);
+            }
+            return guardados;
+        });
     }
 
     /**
      * Obtener usuario por nombre de usuario
+     * Consulta siempre la tabla: el filtro de login de esta instancia puede no conocer un usuario
+     * creado en otra hasta su próxima reconstrucción
      */
     public Optional<Usuario> obtenerPorNombreUsuario(String nombreUsuario) {
         return usuarioRepository.findByNombreUsuario(nombreUsuario);
@@ -63,6 +115,7 @@ public class UsuarioService {
     /**
      * Listar usuarios por rol
      */
+    @Transactional(readOnly = true)
     public List<Usuario> listarPorRol(Enums.RolSistema rolSistema) {
         return usuarioRepository.findByRolSistema(rolSistema);
     }
@@ -70,6 +123,7 @@ public class UsuarioService {
     /**
      * Listar usuarios por estado
      */
+    @Transactional(readOnly = true)
     public List<Usuario> listarPorEstado(Enums.EstadoUsuario estadoUsuario) {
         return usuarioRepository.findByEstadoUsuario(estadoUsuario);
     }
@@ -77,58 +131,98 @@ public class UsuarioService {
     /**
      * Cambiar estado de usuario
      */
+    @OperacionMedida
     public Usuario cambiarEstado(Long idUsuario, Enums.EstadoUsuario nuevoEstado) {
         Usuario usuario = usuarioRepository.findById(idUsuario)
             .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
         usuario.setEstadoUsuario(nuevoEstado);
+        cacheAutorizacion.invalidar(idUsuario);
+        cacheLogin.invalidar(usuario);
         return usuarioRepository.save(usuario);
     }
 
     /**
      * Cambiar contraseña
+     * Como al crear, el hash se calcula fuera de transacción y el cambio se guarda después
      */
+    @OperacionMedida
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Usuario cambiarContrasena(Long idUsuario, String nuevaContrasena) {
-        Usuario usuario = usuarioRepository.findById(idUsuario)
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-        usuario.setContrasena(passwordEncoder.encode(nuevaContrasena));
-        return usuarioRepository.save(usuario);
+        String hash = hashContrasenas.codificar(nuevaContrasena);
+        return transactionTemplate.execute(estado -> {
+            Usuario usuario = usuarioRepository.findById(idUsuario)
+                .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
+            usuario.setContrasena(hash);
+            cacheAutorizacion.invalidar(idUsuario);
+            cacheLogin.invalidar(usuario);
+            return usuarioRepository.save(usuario);
+        });
     }
 
     /**
      * Validar que el usuario pueda operar
+     * Se resuelve desde la caché de autorización, sin abrir transacción en los aciertos.
+     * Las verificaciones emiten el evento JFR banco.VerificacionAutorizacion
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean puedeOperar(Long idUsuario) {
-        Optional<Usuario> usuario = usuarioRepository.findById(idUsuario);
-        return usuario.isPresent() && usuario.get().puedeOperarr();
+        EventosJfr.VerificacionAutorizacion evento = new EventosJfr.VerificacionAutorizacion();
+        evento.begin();
+        CacheAutorizacion.InstantaneaAutorizacion autorizacion = cacheAutorizacion.obtener(idUsuario);
+        boolean permitida = autorizacion.puedeOperar();
+        evento.terminar(idUsuario, "puedeOperar", autorizacion.rol(), permitida);
+        return permitida;
     }
 
     /**
      * Validar acceso por rol
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean tieneRol(Long idUsuario, Enums.RolSistema rolRequerido) {
-        Optional<Usuario> usuario = usuarioRepository.findById(idUsuario);
-        return usuario.isPresent() && usuario.get().getRolSistema() == rolRequerido;
+        EventosJfr.VerificacionAutorizacion evento = new EventosJfr.VerificacionAutorizacion();
+        evento.begin();
+        CacheAutorizacion.InstantaneaAutorizacion autorizacion = cacheAutorizacion.obtener(idUsuario);
+        boolean permitida = autorizacion.tieneRol(rolRequerido);
+        evento.terminar(idUsuario, "tieneRol", autorizacion.rol(), permitida);
+        return permitida;
     }
 
     /**
      * Validar acceso por múltiples roles
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean tieneAlgunRol(Long idUsuario, Enums.RolSistema... rolesPermitidos) {
-        Optional<Usuario> usuario = usuarioRepository.findById(idUsuario);
-        if (usuario.isEmpty()) {
-            return false;
-        }
+        EventosJfr.VerificacionAutorizacion evento = new EventosJfr.VerificacionAutorizacion();
+        evento.begin();
+        CacheAutorizacion.InstantaneaAutorizacion autorizacion = cacheAutorizacion.obtener(idUsuario);
+        boolean permitida = false;
         for (Enums.RolSistema rol : rolesPermitidos) {
-            if (usuario.get().getRolSistema() == rol) {
-                return true;
+            if (autorizacion.tieneRol(rol)) {
+                permitida = true;
+                break;
             }
         }
-        return false;
+        evento.terminar(idUsuario, "tieneAlgunRol", autorizacion.rol(), permitida);
+        return permitida;
+    }
+
+    /**
+     * Validar acceso por un conjunto de roles (preferiblemente un EnumSet constante)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean tieneAlgunRol(Long idUsuario, Set<Enums.RolSistema> rolesPermitidos) {
+        EventosJfr.VerificacionAutorizacion evento = new EventosJfr.VerificacionAutorizacion();
+        evento.begin();
+        CacheAutorizacion.InstantaneaAutorizacion autorizacion = cacheAutorizacion.obtener(idUsuario);
+        boolean permitida = autorizacion.tieneAlgunRol(rolesPermitidos);
+        evento.terminar(idUsuario, "tieneAlgunRol", autorizacion.rol(), permitida);
+        return permitida;
     }
 
     /**
      * Obtener todos los usuarios
      */
+    @Transactional(readOnly = true)
     public List<Usuario> obtenerTodos() {
         return usuarioRepository.findAll();
     }
@@ -136,10 +230,13 @@ public class UsuarioService {
     /**
      * Eliminar usuario (cambiar a estado INACTIVO)
      */
+    @OperacionMedida
     public void desactivarUsuario(Long idUsuario) {
         Usuario usuario = usuarioRepository.findById(idUsuario)
             .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
         usuario.setEstadoUsuario(Enums.EstadoUsuario.INACTIVO);
+        cacheAutorizacion.invalidar(idUsuario);
+        cacheLogin.invalidar(usuario);
         usuarioRepository.save(usuario);
     }
 }
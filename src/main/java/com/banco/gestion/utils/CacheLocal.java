@@ -0,0 +1,173 @@
+package com.banco.gestion.utils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché local en memoria con tamaño máximo, tiempo de vida e invalidación explícita
+ * Lleva contadores de aciertos, fallos y desalojos para exponer su efectividad.
+ * Antes de cargar una clave se instala una marca propia; el valor cargado solo reemplaza
+ * a esa marca, así que si la clave se invalidó (o se puso otro valor) mientras se cargaba
+ * no se reinstala un dato obsoleto. La invalidación de una clave no afecta a las demás
+ */
+public class CacheLocal<K, V> {
+
+    private final String nombre;
+    private final int capacidadMaxima;
+    private final long vidaNanos;
+    private final ConcurrentHashMap<K, Entrada<V>> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public CacheLocal(String nombre, int capacidadMaxima, long vida, TimeUnit unidad) {
+        if (capacidadMaxima <= 0 || vida <= 0) {
+            throw new IllegalArgumentException("La capacidad y el tiempo de vida de la caché deben ser positivos");
+        }
+        this.nombre = nombre;
+        this.capacidadMaxima = capacidadMaxima;
+        this.vidaNanos = unidad.toNanos(vida);
+        this.entradas = new ConcurrentHashMap<>(Math.min(capacidadMaxima, 1 << 16));
+    }
+
+    /**
+     * Obtener el valor de la clave, cargándolo si no está o expiró
+     * Los valores null no se guardan
+     */
+    public V obtener(K clave, Function<? super K, ? extends V> cargador) {
+        V valor = obtenerSiPresente(clave);
+        if (valor != null) {
+            return valor;
+        }
+
+        Entrada<V> marca = instalarMarca(clave);
+        boolean guardado = false;
+        try {
+            valor = cargador.apply(clave);
+            if (valor != null && marca != null) {
+                guardado = entradas.replace(clave, marca, new Entrada<>(valor, System.nanoTime() + vidaNanos));
+            }
+        } finally {
+            if (marca != null && !guardado) {
+                entradas.remove(clave, marca);
+            }
+        }
+        return valor;
+    }
+
+    /**
+     * Obtener el valor solo si está en caché y vigente
+     */
+    public V obtenerSiPresente(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada != null && !entrada.esMarca()) {
+            if (entrada.expiraEn - System.nanoTime() > 0) {
+                aciertos.increment();
+                return entrada.valor;
+            }
+            if (entradas.remove(clave, entrada)) {
+                desalojos.increment();
+            }
+        }
+        fallos.increment();
+        return null;
+    }
+
+    public void poner(K clave, V valor) {
+        if (entradas.size() >= capacidadMaxima) {
+            desalojar();
+        }
+        entradas.put(clave, new Entrada<>(valor, System.nanoTime() + vidaNanos));
+    }
+
+    /**
+     * Elimina la entrada o la marca de carga de la clave; una carga en curso no se guardará
+     */
+    public void invalidar(K clave) {
+        entradas.remove(clave);
+    }
+
+    public void invalidarTodo() {
+        entradas.clear();
+    }
+
+    public Estadisticas estadisticas() {
+        return new Estadisticas(nombre, aciertos.sum(), fallos.sum(), desalojos.sum(), entradas.size());
+    }
+
+    /**
+     * Reemplaza lo que haya en la clave (nada, una marca de otra carga o un valor expirado)
+     * por una marca nueva. Devuelve null si otro hilo instaló un valor vigente entretanto,
+     * en cuyo caso el valor cargado se devuelve sin guardarlo
+     */
+    private Entrada<V> instalarMarca(K clave) {
+        if (entradas.size() >= capacidadMaxima) {
+            desalojar();
+        }
+        Entrada<V> marca = new Entrada<>(null, System.nanoTime() + vidaNanos);
+        Entrada<V> actual = entradas.putIfAbsent(clave, marca);
+        if (actual == null) {
+            return marca;
+        }
+        if ((actual.esMarca() || actual.expiraEn - System.nanoTime() <= 0) && entradas.replace(clave, actual, marca)) {
+            return marca;
+        }
+        return null;
+    }
+
+    /**
+     * Elimina primero las entradas expiradas y, si no basta, entradas arbitrarias
+     * hasta dejar un 10% de holgura
+     */
+    private void desalojar() {
+        long ahora = System.nanoTime();
+        entradas.entrySet().removeIf(e -> {
+            boolean expirada = e.getValue().expiraEn - ahora <= 0;
+            if (expirada) {
+                desalojos.increment();
+            }
+            return expirada;
+        });
+
+        int objetivo = capacidadMaxima - Math.max(1, capacidadMaxima / 10);
+        Iterator<K> claves = entradas.keySet().iterator();
+        while (entradas.size() > objetivo && claves.hasNext()) {
+            claves.next();
+            claves.remove();
+            desalojos.increment();
+        }
+    }
+
+    /**
+     * Se compara por identidad para que replace y remove solo actúen sobre la entrada que se leyó.
+     * Una entrada sin valor es la marca de una carga en curso
+     */
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long expiraEn;
+
+        private Entrada(V valor, long expiraEn) {
+            this.valor = valor;
+            this.expiraEn = expiraEn;
+        }
+
+        private boolean esMarca() {
+            return valor == null;
+        }
+    }
+
+    /**
+     * Instantánea de los contadores de la caché
+     */
+    public record Estadisticas(String nombre, long aciertos, long fallos, long desalojos, int tamano) {
+
+        public double tasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0.0 : (double) aciertos / total;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.banco.gestion.utils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Cola de trabajo en memoria indexada por ID y particionada
+ * Mantiene los elementos ordenados por fecha de creación (y por ID ante empates) en un índice
+ * global y en uno por partición, de modo que listar los más antiguos de una partición cuesta
+ * O(límite) sin recorrer la cola completa. Las escrituras se serializan para mantener los tres
+ * índices consistentes; las lecturas no toman candados
+ */
+public class ColaTrabajoIndexada<V> {
+
+    private static final Comparator<Elemento<?>> ORDEN =
+        Comparator.<Elemento<?>, LocalDateTime>comparing(Elemento::fecha).thenComparingLong(Elemento::id);
+
+    private final Map<Long, Elemento<V>> porId = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Elemento<V>>> porParticion = new ConcurrentHashMap<>();
+    private final NavigableSet<Elemento<V>> global = new ConcurrentSkipListSet<>(ORDEN);
+
+    /**
+     * Agregar o reemplazar el elemento con el ID indicado
+     */
+    public synchronized void poner(long id, long particion, LocalDateTime fecha, V valor) {
+        quitarInterno(id);
+        Elemento<V> elemento = new Elemento<>(id, particion, fecha, valor);
+        porId.put(id, elemento);
+        global.add(elemento);
+        porParticion.computeIfAbsent(particion, p -> new ConcurrentSkipListSet<>(ORDEN)).add(elemento);
+    }
+
+    /**
+     * Quitar el elemento; devuelve su valor o null si no estaba
+     */
+    public synchronized V quitar(long id) {
+        Elemento<V> elemento = quitarInterno(id);
+        return elemento == null ? null : elemento.valor();
+    }
+
+    public V obtener(long id) {
+        Elemento<V> elemento = porId.get(id);
+        return elemento == null ? null : elemento.valor();
+    }
+
+    /**
+     * Los elementos más antiguos de la partición, o de toda la cola si la partición es null
+     */
+    public List<V> primeros(Long particion, int limite) {
+        NavigableSet<Elemento<V>> indice = particion == null ? global : porParticion.get(particion);
+        List<V> valores = new ArrayList<>(Math.min(limite, 256));
+        if (indice != null) {
+            for (Elemento<V> elemento : indice) {
+                if (valores.size() >= limite) {
+                    break;
+                }
+                valores.add(elemento.valor());
+            }
+        }
+        return valores;
+    }
+
+    public int tamano() {
+        return porId.size();
+    }
+
+    public synchronized void vaciar() {
+        porId.clear();
+        porParticion.clear();
+        global.clear();
+    }
+
+    private Elemento<V> quitarInterno(long id) {
+        Elemento<V> anterior = porId.remove(id);
+        if (anterior != null) {
+            global.remove(anterior);
+            NavigableSet<Elemento<V>> particion = porParticion.get(anterior.particion());
+            if (particion != null) {
+                particion.remove(anterior);
+                if (particion.isEmpty()) {
+                    porParticion.remove(anterior.particion());
+                }
+            }
+        }
+        return anterior;
+    }
+
+    private record Elemento<V>(long id, long particion, LocalDateTime fecha, V valor) {
+    }
+}
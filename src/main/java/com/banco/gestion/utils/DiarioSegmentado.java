@@ -0,0 +1,330 @@
+package com.banco.gestion.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario local de solo anexado sobre archivos de segmento mapeados en memoria
+ * Cada registro se guarda como [longitud:int][crc32c:int][datos]; una longitud 0 marca el final
+ * de lo escrito en el segmento (los segmentos se crean rellenos de ceros).
+ * Anexar solo copia bytes en memoria; sincronizar() fuerza a disco lo pendiente (commit en grupo).
+ * La lectura avanza con un puntero persistido: leer() entrega registros sin consumirlos y
+ * confirmarLectura() los da por procesados y elimina los segmentos ya agotados.
+ * Al reabrir se empieza siempre un segmento nuevo, de modo que una cola rota por una caída
+ * queda en un segmento anterior y se descarta al verificar su checksum.
+ * Se protege con un ReentrantLock y no con synchronized: sincronizar() y la rotación hacen E/S
+ * de disco, y un hilo virtual que espera dentro de synchronized fija su hilo portador
+ */
+public class DiarioSegmentado implements Closeable {
+
+    private static final int CABECERA = 8;
+    private static final String EXTENSION = ".diario";
+    private static final String ARCHIVO_PUNTERO = "puntero";
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final ReentrantLock candado = new ReentrantLock();
+
+    private long segmentoEscritura;
+    private FileChannel canalEscritura;
+    private MappedByteBuffer mapaEscritura;
+    private boolean sucio;
+
+    private long segmentoLectura;
+    private int posicionLectura;
+    private long segmentoTentativo;
+    private int posicionTentativa;
+    private long segmentoMapeado = -1;
+    private MappedByteBuffer mapaLectura;
+
+    private long corruptos;
+
+    public DiarioSegmentado(Path directorio, int tamanoSegmento) throws IOException {
+        if (tamanoSegmento <= CABECERA) {
+            throw new IllegalArgumentException("El tamaño de segmento del diario es demasiado pequeño");
+        }
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        Files.createDirectories(directorio);
+
+        TreeSet<Long> existentes = listarSegmentos();
+        segmentoEscritura = existentes.isEmpty() ? 0 : existentes.last() + 1;
+        abrirSegmentoEscritura();
+
+        long[] puntero = leerPuntero();
+        if (puntero != null) {
+            segmentoLectura = puntero[0];
+            posicionLectura = (int) puntero[1];
+        } else {
+            segmentoLectura = existentes.isEmpty() ? segmentoEscritura : existentes.first();
+            posicionLectura = 0;
+        }
+        segmentoTentativo = segmentoLectura;
+        posicionTentativa = posicionLectura;
+    }
+
+    /**
+     * Anexar un registro; rota a un segmento nuevo si no cabe en el actual
+     */
+    public void anexar(byte[] datos) {
+        if (datos.length == 0 || datos.length > tamanoSegmento - CABECERA) {
+            throw new IllegalArgumentException("Registro de " + datos.length + " bytes fuera de rango para el diario");
+        }
+        candado.lock();
+        try {
+            try {
+                if (mapaEscritura.remaining() < CABECERA + datos.length) {
+                    rotar();
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(datos);
+                int posicion = mapaEscritura.position();
+                // Los datos y el checksum se escriben antes que la longitud que los hace visibles
+                mapaEscritura.position(posicion + 4);
+                mapaEscritura.putInt((int) crc.getValue());
+                mapaEscritura.put(datos);
+                mapaEscritura.putInt(posicion, datos.length);
+                sucio = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("No fue posible anexar al diario", e);
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Forzar a disco lo anexado desde la última sincronización
+     */
+    public void sincronizar() {
+        candado.lock();
+        try {
+            if (sucio) {
+                mapaEscritura.force();
+                sucio = false;
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Leer hasta maximo registros desde el puntero sin consumirlos
+     * Una nueva llamada sin confirmar vuelve a empezar desde el puntero
+     */
+    public List<byte[]> leer(int maximo) {
+        candado.lock();
+        try {
+            List<byte[]> registros = new ArrayList<>(Math.min(maximo, 1024));
+            long segmento = segmentoLectura;
+            int posicion = posicionLectura;
+
+            while (registros.size() < maximo) {
+                ByteBuffer mapa = mapaLectura(segmento);
+                boolean finSegmento = true;
+                boolean corrupto = false;
+                if (mapa != null && posicion + CABECERA <= mapa.capacity()) {
+                    int longitud = mapa.getInt(posicion);
+                    if (longitud > 0 && posicion + CABECERA + longitud <= mapa.capacity()) {
+                        byte[] datos = new byte[longitud];
+                        mapa.get(posicion + CABECERA, datos);
+                        CRC32C crc = new CRC32C();
+                        crc.update(datos);
+                        if ((int) crc.getValue() == mapa.getInt(posicion + 4)) {
+                            registros.add(datos);
+                            posicion += CABECERA + longitud;
+                            finSegmento = false;
+                        } else {
+                            corrupto = true;
+                        }
+                    } else if (longitud != 0) {
+                        corrupto = true;
+                    }
+                }
+
+                if (finSegmento) {
+                    if (corrupto) {
+                        corruptos++;
+                        // El resto del segmento activo no es confiable: se sigue escribiendo en uno nuevo
+                        if (segmento == segmentoEscritura) {
+                            rotarSinExcepcion();
+                        }
+                    }
+                    if (segmento >= segmentoEscritura) {
+                        break;
+                    }
+                    segmento++;
+                    posicion = 0;
+                }
+            }
+
+            segmentoTentativo = segmento;
+            posicionTentativa = posicion;
+            return registros;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Dar por procesados los registros entregados por la última lectura
+     */
+    public void confirmarLectura() {
+        candado.lock();
+        try {
+            try {
+                long anterior = segmentoLectura;
+                segmentoLectura = segmentoTentativo;
+                posicionLectura = posicionTentativa;
+                guardarPuntero();
+                for (long segmento = anterior; segmento < segmentoLectura; segmento++) {
+                    if (segmento == segmentoMapeado) {
+                        segmentoMapeado = -1;
+                        mapaLectura = null;
+                    }
+                    Files.deleteIfExists(rutaSegmento(segmento));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No fue posible confirmar la lectura del diario", e);
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Indica si hay registros anexados que aún no se confirmaron como leídos
+     */
+    public boolean hayPendientes() {
+        candado.lock();
+        try {
+            return segmentoLectura < segmentoEscritura || posicionLectura < mapaEscritura.position();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Registros descartados por checksum o longitud inválidos
+     */
+    public long getCorruptos() {
+        candado.lock();
+        try {
+            return corruptos;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        candado.lock();
+        try {
+            sincronizar();
+            canalEscritura.close();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    private void rotar() throws IOException {
+        mapaEscritura.force();
+        sucio = false;
+        canalEscritura.close();
+        segmentoEscritura++;
+        abrirSegmentoEscritura();
+    }
+
+    private void rotarSinExcepcion() {
+        try {
+            rotar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No fue posible rotar el segmento del diario", e);
+        }
+    }
+
+    private void abrirSegmentoEscritura() throws IOException {
+        canalEscritura = FileChannel.open(rutaSegmento(segmentoEscritura),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapaEscritura = canalEscritura.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+    }
+
+    /**
+     * El segmento activo se lee desde el mismo mapa que se escribe; los anteriores, de solo lectura
+     */
+    private ByteBuffer mapaLectura(long segmento) {
+        if (segmento == segmentoEscritura) {
+            return mapaEscritura.duplicate();
+        }
+        if (segmento != segmentoMapeado) {
+            Path ruta = rutaSegmento(segmento);
+            if (!Files.exists(ruta)) {
+                return null;
+            }
+            try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+                mapaLectura = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                segmentoMapeado = segmento;
+            } catch (IOException e) {
+                throw new UncheckedIOException("No fue posible leer el segmento " + ruta, e);
+            }
+        }
+        return mapaLectura;
+    }
+
+    private TreeSet<Long> listarSegmentos() throws IOException {
+        TreeSet<Long> segmentos = new TreeSet<>();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.map(p -> p.getFileName().toString())
+                .filter(nombre -> nombre.endsWith(EXTENSION))
+                .forEach(nombre -> segmentos.add(Long.parseLong(nombre.substring(0, nombre.length() - EXTENSION.length()))));
+        }
+        return segmentos;
+    }
+
+    private Path rutaSegmento(long segmento) {
+        return directorio.resolve(String.format("%016d%s", segmento, EXTENSION));
+    }
+
+    private long[] leerPuntero() throws IOException {
+        Path ruta = directorio.resolve(ARCHIVO_PUNTERO);
+        if (!Files.exists(ruta)) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        if (bytes.remaining() < 16) {
+            return null;
+        }
+        return new long[] {bytes.getLong(), bytes.getLong()};
+    }
+
+    /**
+     * Escribe el puntero en un archivo temporal y lo reemplaza de forma atómica
+     */
+    private void guardarPuntero() throws IOException {
+        Path temporal = directorio.resolve(ARCHIVO_PUNTERO + ".tmp");
+        ByteBuffer bytes = ByteBuffer.allocate(16).putLong(segmentoLectura).putLong(posicionLectura).flip();
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                canal.write(bytes);
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, directorio.resolve(ARCHIVO_PUNTERO),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,141 @@
+package com.banco.gestion.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Valor monetario de punto fijo
+ * Representa el monto como un long de unidades menores (centavos) de la moneda,
+ * de modo que comparar, sumar y restar no crea objetos intermedios como BigDecimal.
+ * La aritmética verifica desbordamiento y no permite mezclar monedas
+ */
+@JsonSerialize(using = Dinero.Serializador.class)
+@JsonDeserialize(using = Dinero.Deserializador.class)
+public record Dinero(long unidadesMenores, Enums.Moneda moneda) implements Comparable<Dinero> {
+
+    /**
+     * Máxima cantidad de decimales entre las monedas soportadas
+     */
+    public static final int DECIMALES_MAXIMOS = 2;
+
+    public Dinero {
+        Objects.requireNonNull(moneda, "La moneda es obligatoria");
+    }
+
+    public static Dinero cero(Enums.Moneda moneda) {
+        return new Dinero(0L, moneda);
+    }
+
+    /**
+     * Convertir un BigDecimal; falla si tiene más decimales de los que admite la moneda
+     */
+    public static Dinero de(BigDecimal monto, Enums.Moneda moneda) {
+        Objects.requireNonNull(monto, "El monto es obligatorio");
+        try {
+            return new Dinero(monto.movePointRight(moneda.getDecimales()).longValueExact(), moneda);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("El monto " + monto.toPlainString()
+                + " no es representable en " + moneda.name(), e);
+        }
+    }
+
+    /**
+     * Validar que un monto sea positivo y no tenga más decimales de los permitidos
+     */
+    public static boolean esMontoValido(BigDecimal monto) {
+        return monto != null && monto.signum() > 0 && monto.stripTrailingZeros().scale() <= DECIMALES_MAXIMOS;
+    }
+
+    public BigDecimal aBigDecimal() {
+        return BigDecimal.valueOf(unidadesMenores, moneda.getDecimales());
+    }
+
+    public Dinero sumar(Dinero otro) {
+        verificarMoneda(otro);
+        return new Dinero(Math.addExact(unidadesMenores, otro.unidadesMenores), moneda);
+    }
+
+    public Dinero restar(Dinero otro) {
+        verificarMoneda(otro);
+        return new Dinero(Math.subtractExact(unidadesMenores, otro.unidadesMenores), moneda);
+    }
+
+    public Dinero negar() {
+        return new Dinero(Math.negateExact(unidadesMenores), moneda);
+    }
+
+    public boolean esPositivo() {
+        return unidadesMenores > 0;
+    }
+
+    public boolean esNegativo() {
+        return unidadesMenores < 0;
+    }
+
+    public boolean esCero() {
+        return unidadesMenores == 0;
+    }
+
+    /**
+     * Indica si este valor alcanza para cubrir el monto (this >= monto)
+     */
+    public boolean cubre(Dinero monto) {
+        verificarMoneda(monto);
+        return unidadesMenores >= monto.unidadesMenores;
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        verificarMoneda(otro);
+        return Long.compare(unidadesMenores, otro.unidadesMenores);
+    }
+
+    @Override
+    public String toString() {
+        return aBigDecimal().toPlainString() + " " + moneda.name();
+    }
+
+    private void verificarMoneda(Dinero otro) {
+        if (moneda != otro.moneda) {
+            throw new IllegalArgumentException("No se pueden operar montos en " + moneda.name() + " y " + otro.moneda.name());
+        }
+    }
+
+    /**
+     * Serializa como {"monto": 1234.50, "moneda": "COP"}
+     */
+    public static class Serializador extends JsonSerializer<Dinero> {
+        @Override
+        public void serialize(Dinero valor, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField("monto", valor.aBigDecimal());
+            gen.writeStringField("moneda", valor.moneda().name());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializador extends JsonDeserializer<Dinero> {
+        @Override
+        public Dinero deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonNode nodo = parser.getCodec().readTree(parser);
+            JsonNode monto = nodo.get("monto");
+            JsonNode moneda = nodo.get("moneda");
+            if (monto == null || moneda == null) {
+                throw JsonMappingException.from(parser, "Dinero requiere los campos monto y moneda");
+            }
+            return Dinero.de(new BigDecimal(monto.asText()), Enums.Moneda.valueOf(moneda.asText()));
+        }
+    }
+}
@@ -90,19 +90,28 @@ public class Enums {
      * Monedas Soportadas
      */
     public enum Moneda {
-        COP("Peso Colombiano"),
-        USD("Dólar Estadounidense"),
-        EUR("Euro");
+        COP("Peso Colombiano", 2),
+        USD("Dólar Estadounidense", 2),
+        EUR("Euro", 2);
 
         private final String descripcion;
+        private final int decimales;
 
-        Moneda(String descripcion) {
+        Moneda(String descripcion, int decimales) {
             this.descripcion = descripcion;
+            this.decimales = decimales;
         }
 
         public String getDescripcion() {
             return descripcion;
         }
+
+        /**
+         * Cantidad de decimales de la unidad menor (centavos)
+         */
+        public int getDecimales() {
+            return decimales;
+        }
     }
 
     /**
@@ -178,7 +187,9 @@ public class Enums {
         BLOQUEO_CUENTA("Bloqueo de Cuenta"),
         CANCELACION_CUENTA("Cancelación de Cuenta"),
         CREACION_USUARIO("Creación de Usuario"),
-        CAMBIO_ESTADO_USUARIO("Cambio de Estado de Usuario");
+        CAMBIO_ESTADO_USUARIO("Cambio de Estado de Usuario"),
+        DEPOSITO_LOTE("Depósito en Lote"),
+        CAUSACION_INTERESES("Causación de Intereses");
 
         private final String descripcion;
 
@@ -190,4 +201,104 @@ public class Enums {
             return descripcion;
         }
     }
+
+    /**
+     * Políticas de contrapresión de la cola asíncrona de bitácora
+     */
+    public enum PoliticaContrapresion {
+        BLOQUEAR("Bloquear al llamador hasta que haya espacio"),
+        SINCRONO("Escribir directamente en MongoDB"),
+        DESCARTAR("Descartar el registro"),
+        DIARIO("Anexar al diario local para reproducirlo después");
+
+        private final String descripcion;
+
+        PoliticaContrapresion(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Resultado de validar una cuenta para una operación
+     */
+    public enum ResultadoValidacionCuenta {
+        VALIDA("Cuenta disponible y con saldo suficiente"),
+        NO_ENCONTRADA("Cuenta no encontrada"),
+        NO_DISPONIBLE("Cuenta bloqueada o cancelada"),
+        SALDO_INSUFICIENTE("Saldo insuficiente"),
+        MONTO_INVALIDO("Monto con más decimales de los que admite la moneda");
+
+        private final String descripcion;
+
+        ResultadoValidacionCuenta(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Operaciones monetarias protegidas con clave de idempotencia
+     */
+    public enum TipoOperacionIdempotente {
+        DEPOSITO("Depósito"),
+        RETIRO("Retiro"),
+        TRANSFERENCIA("Transferencia");
+
+        private final String descripcion;
+
+        TipoOperacionIdempotente(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Resultado de cada línea de un depósito en lote
+     */
+    public enum EstadoLineaLote {
+        APLICADA("Depósito aplicado"),
+        FORMATO_INVALIDO("Línea con formato inválido"),
+        MONTO_INVALIDO("Monto no positivo o con más decimales de los permitidos"),
+        CUENTA_NO_ENCONTRADA("Cuenta no encontrada"),
+        CUENTA_NO_DISPONIBLE("Cuenta bloqueada o cancelada"),
+        ERROR("No fue posible aplicar la línea o su bloque");
+
+        private final String descripcion;
+
+        EstadoLineaLote(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Estado de una partición de la causación diaria de intereses
+     */
+    public enum EstadoAvanceCausacion {
+        EN_CURSO("Partición pendiente o interrumpida"),
+        COMPLETADA("Partición causada por completo");
+
+        private final String descripcion;
+
+        EstadoAvanceCausacion(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package com.banco.gestion.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.math.BigDecimal;
+
+/**
+ * Eventos de JDK Flight Recorder de las operaciones bancarias
+ * Permiten cruzar las muestras de CPU, bloqueos y GC de una grabación con la operación, cuenta o
+ * rol que se estaba atendiendo. Con JFR inactivo, begin/shouldCommit no hacen trabajo apreciable.
+ * Uso: evento.begin() al iniciar y evento.terminar(...) en un finally
+ */
+public final class EventosJfr {
+
+    public static final String CATEGORIA = "Banco";
+
+    private EventosJfr() {
+    }
+
+    /**
+     * Cota inferior, en potencia de 10, del rango del monto: 0 para montos menores a 1,
+     * 1 para [1, 10), 10 para [10, 100), etc. Agrupa sin exponer el monto exacto
+     */
+    public static long rangoMonto(BigDecimal monto) {
+        if (monto == null || monto.compareTo(BigDecimal.ONE) < 0) {
+            return 0;
+        }
+        int digitosEnteros = monto.precision() - monto.scale();
+        return digitosEnteros > 18 ? Long.MAX_VALUE : (long) Math.pow(10, digitosEnteros - 1);
+    }
+
+    @Name("banco.OperacionCuenta")
+    @Label("Operación de cuenta")
+    @Description("Apertura, depósito, retiro, bloqueo o cancelación de una cuenta bancaria")
+    @Category({CATEGORIA, "Cuentas"})
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class OperacionCuenta extends Event {
+
+        @Label("ID de cuenta")
+        public long idCuenta;
+
+        @Label("Operación")
+        public String operacion;
+
+        @Label("Rango de monto")
+        @Description("Cota inferior en potencia de 10 del monto; 0 si no aplica o es menor a 1")
+        public long rangoMonto;
+
+        @Label("Exitosa")
+        public boolean exitosa;
+
+        public void terminar(Long idCuenta, String operacion, BigDecimal monto, boolean exitosa) {
+            end();
+            if (shouldCommit()) {
+                this.idCuenta = idCuenta == null ? 0 : idCuenta;
+                this.operacion = operacion;
+                this.rangoMonto = rangoMonto(monto);
+                this.exitosa = exitosa;
+                commit();
+            }
+        }
+    }
+
+    @Name("banco.EscrituraBitacora")
+    @Label("Escritura de bitácora")
+    @Description("Escritura de un lote de registros de bitácora en MongoDB o en el diario local")
+    @Category({CATEGORIA, "Bitácora"})
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class EscrituraBitacora extends Event {
+
+        @Label("Origen")
+        @Description("escritor, sincrono o relevo")
+        public String origen;
+
+        @Label("Destino")
+        @Description("mongo o diario")
+        public String destino;
+
+        @Label("Tamaño de lote")
+        public int tamanoLote;
+
+        @Label("Exitosa")
+        public boolean exitosa;
+
+        public void terminar(String origen, String destino, int tamanoLote, boolean exitosa) {
+            end();
+            if (shouldCommit()) {
+                this.origen = origen;
+                this.destino = destino;
+                this.tamanoLote = tamanoLote;
+                this.exitosa = exitosa;
+                commit();
+            }
+        }
+    }
+
+    @Name("banco.VerificacionAutorizacion")
+    @Label("Verificación de autorización")
+    @Description("Validación de estado o rol de un usuario en UsuarioService")
+    @Category({CATEGORIA, "Usuarios"})
+    @StackTrace(false)
+    @Threshold("100 us")
+    public static final class VerificacionAutorizacion extends Event {
+
+        @Label("ID de usuario")
+        public long idUsuario;
+
+        @Label("Verificación")
+        public String verificacion;
+
+        @Label("Rol")
+        @Description("Rol del usuario verificado; vacío si no existe")
+        public String rol;
+
+        @Label("Permitida")
+        public boolean permitida;
+
+        public void terminar(Long idUsuario, String verificacion, Enums.RolSistema rol, boolean permitida) {
+            end();
+            if (shouldCommit()) {
+                this.idUsuario = idUsuario == null ? 0 : idUsuario;
+                this.verificacion = verificacion;
+                this.rol = rol == null ? "" : rol.name();
+                this.permitida = permitida;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.banco.gestion.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom de cadenas, seguro para agregar y consultar desde varios hilos
+ * puedeContener=false garantiza que la cadena nunca se agregó; true puede ser un falso positivo
+ * con la probabilidad indicada al crearlo, mientras no se agreguen más elementos de los esperados.
+ * Usa k posiciones por doble hash (h1 + i·h2) sobre dos hashes de 64 bits de los bytes UTF-8
+ */
+public class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray palabras;
+    private final long bits;
+    private final int funciones;
+    private final LongAdder agregados = new LongAdder();
+
+    public FiltroBloom(long elementosEsperados, double probabilidadFalsoPositivo) {
+        if (elementosEsperados <= 0 || probabilidadFalsoPositivo <= 0 || probabilidadFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("El filtro de Bloom requiere elementos esperados positivos "
+                + "y una probabilidad de falso positivo entre 0 y 1");
+        }
+        long bitsNecesarios = (long) Math.ceil(-elementosEsperados * Math.log(probabilidadFalsoPositivo) / (LN2 * LN2));
+        int cantidadPalabras = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bitsNecesarios + 63) >>> 6));
+        this.palabras = new AtomicLongArray(cantidadPalabras);
+        this.bits = (long) cantidadPalabras << 6;
+        this.funciones = Math.max(1, (int) Math.round((double) bits / elementosEsperados * LN2));
+    }
+
+    public void agregar(String valor) {
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < funciones; i++) {
+            long posicion = Long.remainderUnsigned(h1 + i * h2, bits);
+            int palabra = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            long actual = palabras.get(palabra);
+            while ((actual & mascara) == 0 && !palabras.compareAndSet(palabra, actual, actual | mascara)) {
+                actual = palabras.get(palabra);
+            }
+        }
+        agregados.increment();
+    }
+
+    public boolean puedeContener(String valor) {
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+        long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < funciones; i++) {
+            long posicion = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((palabras.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a de 64 bits con semilla, seguido de la mezcla final de SplitMix64 para repartir los bits
+     */
+    private static long hash(byte[] bytes, long semilla) {
+        long h = 0xCBF29CE484222325L ^ semilla;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    public int getFunciones() {
+        return funciones;
+    }
+
+    public long getAgregados() {
+        return agregados.sum();
+    }
+
+    /**
+     * Probabilidad de falso positivo estimada con los elementos agregados hasta ahora
+     */
+    public double getProbabilidadFalsoPositivo() {
+        return Math.pow(1 - Math.exp(-funciones * (double) agregados.sum() / bits), funciones);
+    }
+}
@@ -0,0 +1,164 @@
+package com.banco.gestion.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporización jerárquica
+ * Programa vencimientos por clave con costo O(1) y los entrega en lote al avanzar el reloj.
+ * Cada nivel tiene 2^bitsRanura ranuras; un nivel cubre 2^bitsRanura veces el rango del anterior
+ * y sus entradas se redistribuyen (cascada) hacia niveles inferiores al acercarse su vencimiento.
+ * Los plazos se redondean hacia arriba al tick, por lo que una clave nunca vence antes de tiempo
+ */
+public class RuedaTemporizacion<T> {
+
+    private final long tickMs;
+    private final int bitsRanura;
+    private final int mascara;
+    private final int niveles;
+    private final List<Entrada<T>>[][] ranuras;
+    private final Map<T, Entrada<T>> programadas = new HashMap<>();
+    private final List<T> vencidasPendientes = new ArrayList<>();
+    private long tickActual;
+
+    @SuppressWarnings("unchecked")
+    public RuedaTemporizacion(long tickMs, int bitsRanura, int niveles, long ahoraMs) {
+        if (tickMs <= 0 || bitsRanura <= 0 || niveles <= 0 || (long) bitsRanura * niveles >= 62) {
+            throw new IllegalArgumentException("Configuración de rueda de temporización inválida");
+        }
+        this.tickMs = tickMs;
+        this.bitsRanura = bitsRanura;
+        this.mascara = (1 << bitsRanura) - 1;
+        this.niveles = niveles;
+        this.ranuras = new List[niveles][1 << bitsRanura];
+        for (int nivel = 0; nivel < niveles; nivel++) {
+            for (int i = 0; i <= mascara; i++) {
+                ranuras[nivel][i] = new ArrayList<>();
+            }
+        }
+        this.tickActual = ahoraMs / tickMs;
+    }
+
+    /**
+     * Programar el vencimiento de una clave; si ya estaba programada se reemplaza
+     */
+    public synchronized void programar(T clave, long vencimientoMs) {
+        Entrada<T> anterior = programadas.remove(clave);
+        if (anterior != null) {
+            anterior.cancelada = true;
+        }
+
+        long tick = Math.floorDiv(vencimientoMs + tickMs - 1, tickMs);
+        if (tick <= tickActual) {
+            vencidasPendientes.add(clave);
+            return;
+        }
+        Entrada<T> entrada = new Entrada<>(clave, tick);
+        programadas.put(clave, entrada);
+        insertar(entrada);
+    }
+
+    /**
+     * Cancelar el vencimiento de una clave
+     * La entrada se descarta de forma diferida cuando su ranura se procesa
+     */
+    public synchronized boolean cancelar(T clave) {
+        Entrada<T> entrada = programadas.remove(clave);
+        if (entrada != null) {
+            entrada.cancelada = true;
+            return true;
+        }
+        return vencidasPendientes.remove(clave);
+    }
+
+    /**
+     * Avanzar el reloj hasta el instante indicado y devolver las claves vencidas
+     */
+    public synchronized List<T> avanzar(long ahoraMs) {
+        List<T> vencidas = new ArrayList<>(vencidasPendientes);
+        vencidasPendientes.clear();
+
+        long objetivo = ahoraMs / tickMs;
+        while (tickActual < objetivo) {
+            tickActual++;
+            cascada();
+
+            List<Entrada<T>> ranura = ranuras[0][(int) (tickActual & mascara)];
+            if (ranura.isEmpty()) {
+                continue;
+            }
+            List<Entrada<T>> entradas = new ArrayList<>(ranura);
+            ranura.clear();
+            for (Entrada<T> entrada : entradas) {
+                if (entrada.cancelada) {
+                    continue;
+                }
+                if (entrada.tick <= tickActual) {
+                    programadas.remove(entrada.clave);
+                    vencidas.add(entrada.clave);
+                } else {
+                    insertar(entrada);
+                }
+            }
+        }
+        return vencidas;
+    }
+
+    public synchronized int tamano() {
+        return programadas.size() + vencidasPendientes.size();
+    }
+
+    /**
+     * Redistribuye las ranuras de los niveles superiores cuyo límite coincide con el tick actual,
+     * empezando por el nivel más alto para que nada caiga en una ranura ya procesada
+     */
+    private void cascada() {
+        int nivelMaximo = 0;
+        while (nivelMaximo + 1 < niveles
+                && (tickActual & ((1L << (bitsRanura * (nivelMaximo + 1))) - 1)) == 0) {
+            nivelMaximo++;
+        }
+        for (int nivel = nivelMaximo; nivel >= 1; nivel--) {
+            List<Entrada<T>> ranura = ranuras[nivel][(int) ((tickActual >>> (bitsRanura * nivel)) & mascara)];
+            if (ranura.isEmpty()) {
+                continue;
+            }
+            List<Entrada<T>> entradas = new ArrayList<>(ranura);
+            ranura.clear();
+            for (Entrada<T> entrada : entradas) {
+                if (!entrada.cancelada) {
+                    insertar(entrada);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ubica la entrada en el nivel más bajo cuyo rango cubre su plazo restante;
+     * plazos mayores que el rango total se ubican en el último nivel y se reubican en cascada
+     */
+    private void insertar(Entrada<T> entrada) {
+        long delta = entrada.tick - tickActual;
+        int nivel = 0;
+        long limite = 1L << bitsRanura;
+        while (nivel < niveles - 1 && delta >= limite) {
+            nivel++;
+            limite <<= bitsRanura;
+        }
+        long tickRanura = delta >= limite ? tickActual + limite - 1 : entrada.tick;
+        ranuras[nivel][(int) ((tickRanura >>> (bitsRanura * nivel)) & mascara)].add(entrada);
+    }
+
+    private static final class Entrada<T> {
+        private final T clave;
+        private final long tick;
+        private boolean cancelada;
+
+        private Entrada(T clave, long tick) {
+            this.clave = clave;
+            this.tick = tick;
+        }
+    }
+}
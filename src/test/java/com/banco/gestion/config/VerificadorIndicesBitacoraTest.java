@@ -0,0 +1,94 @@
+package com.banco.gestion.config;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Planes de las consultas @Query de BitacoraRepository contra MongoDB embebido
+ * Se omite si el binario de MongoDB no está en ~/.embedmongo y no se puede descargar
+ */
+@DataMongoTest(properties = {
+    "de.flapdoodle.mongodb.embedded.version=6.0.5",
+    "spring.data.mongodb.auto-index-creation=true",
+    "app.bitacora.verificar-indices=true"
+})
+@Import(VerificadorIndicesBitacora.class)
+class VerificadorIndicesBitacoraTest {
+
+    private static final String VERSION_MONGO = "6.0.5";
+    private static final String SERVIDOR_DESCARGAS = "fastdl.mongodb.org";
+
+    @BeforeAll
+    static void exigirMongoEmbebido() {
+        assumeTrue(binarioDescargado() || descargaAlcanzable(),
+            "MongoDB " + VERSION_MONGO + " no está descargado y " + SERVIDOR_DESCARGAS + " no responde");
+    }
+
+    @Autowired
+    private VerificadorIndicesBitacora verificador;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void todasLasConsultasUsanIndices() {
+        insertarRegistro();
+
+        assertThat(verificador.consultasConEscaneoCompleto()).isEmpty();
+    }
+
+    @Test
+    void unFiltroSinIndiceResuelveConEscaneoCompleto() {
+        insertarRegistro();
+
+        Document plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(BitacoraOperacion.class))
+            .find(new Document("descripcion", "sin índice"))
+            .explain();
+
+        assertThat(plan.get("queryPlanner", Document.class).get("winningPlan").toString()).contains("COLLSCAN");
+    }
+
+    private void insertarRegistro() {
+        mongoTemplate.insert(new Document("idUsuario", 1L)
+            .append("tipoOperacion", "VERIFICACION")
+            .append("fechaHoraOperacion", LocalDateTime.now()), mongoTemplate.getCollectionName(BitacoraOperacion.class));
+    }
+
+    private static boolean binarioDescargado() {
+        Path archivos = Path.of(System.getProperty("user.home"), ".embedmongo", "archives");
+        if (!Files.isDirectory(archivos)) {
+            return false;
+        }
+        try (Stream<Path> contenido = Files.walk(archivos)) {
+            return contenido.anyMatch(ruta -> ruta.getFileName().toString().contains(VERSION_MONGO));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean descargaAlcanzable() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(SERVIDOR_DESCARGAS, 443), 2000);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.BitacoraOperacion;
+import com.banco.gestion.repositories.BitacoraOutboxRepository;
+import com.banco.gestion.repositories.BitacoraRepository;
+import com.banco.gestion.utils.Enums;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Bandeja de salida de la bitácora y su relevo, con MongoDB simulado
+ */
+@DataJpaTest(showSql = false, properties = {
+    "app.bitacora.outbox.tamano-lote=2",
+    "app.bitacora.outbox.intervalo-ms=3600000"
+})
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BandejaSalidaBitacora.class, RelevoBitacora.class, BandejaSalidaBitacoraTest.Conversor.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BandejaSalidaBitacoraTest {
+
+    @MockBean
+    private BitacoraRepository bitacoraRepository;
+
+    @Autowired
+    private BandejaSalidaBitacora bandeja;
+
+    @Autowired
+    private RelevoBitacora relevo;
+
+    @Autowired
+    private BitacoraOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+
+    @BeforeEach
+    void preparar() {
+        outboxRepository.deleteAll();
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void guardarExigeLaTransaccionDelLlamador() {
+        assertThatThrownBy(() -> bandeja.guardar(registro("sin transacción")))
+            .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void soloQuedanLosRegistrosDeTransaccionesConfirmadas() {
+        transaccion.executeWithoutResult(estado -> {
+            bandeja.guardar(registro("revertido"));
+            estado.setRollbackOnly();
+        });
+        transaccion.executeWithoutResult(estado -> bandeja.guardar(registro("confirmado")));
+
+        assertThat(outboxRepository.findAll())
+            .singleElement()
+            .satisfies(fila -> assertThat(fila.getDocumento()).contains("confirmado"));
+    }
+
+    @Test
+    void elRelevoPublicaPorLotesEnOrdenYVaciaLaBandeja() {
+        guardarConfirmados("r1", "r2", "r3", "r4", "r5");
+
+        relevo.relevar();
+
+        List<List<Document>> lotes = lotesPublicados(3);
+        assertThat(lotes).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(lotes.stream().flatMap(List::stream).map(d -> d.getString("descripcion")))
+            .containsExactly("r1", "r2", "r3", "r4", "r5");
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(relevo.getEntregados()).isEqualTo(5);
+    }
+
+    @Test
+    void unaFallaDeMongoConservaLasFilasYElReenvioUsaLosMismosId() {
+        guardarConfirmados("r1", "r2");
+        doThrow(new DataAccessResourceFailureException("MongoDB no disponible"))
+            .doNothing()
+            .when(bitacoraRepository).reemplazarDocumentos(anyList());
+
+        relevo.relevar();
+        assertThat(outboxRepository.count()).isEqualTo(2);
+
+        relevo.relevar();
+        assertThat(outboxRepository.count()).isZero();
+
+        List<List<Document>> intentos = lotesPublicados(2);
+        assertThat(intentos.get(1)).extracting(d -> d.get("_id"))
+            .containsExactlyElementsOf(intentos.get(0).stream().map(d -> d.get("_id")).toList());
+    }
+
+    private void guardarConfirmados(String... descripciones) {
+        doNothing().when(bitacoraRepository).reemplazarDocumentos(anyList());
+        transaccion.executeWithoutResult(estado -> {
+            for (String descripcion : descripciones) {
+                bandeja.guardar(registro(descripcion));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Document>> lotesPublicados(int llamadas) {
+        ArgumentCaptor<List<Document>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(bitacoraRepository, times(llamadas)).reemplazarDocumentos(lotes.capture());
+        return lotes.getAllValues();
+    }
+
+    private static BitacoraOperacion registro(String descripcion) {
+        return new BitacoraOperacion(Enums.TipoOperacion.TRANSFERENCIA_EJECUTADA, 1L, "EMPLEADO_EMPRESA", "1001",
+            null, descripcion);
+    }
+
+    /**
+     * El mismo conversor que arma Spring Boot, sin conexión a MongoDB
+     */
+    @TestConfiguration
+    static class Conversor {
+
+        @Bean
+        MongoConverter mongoConverter() {
+            MongoCustomConversions conversiones = new MongoCustomConversions(List.of());
+            MongoMappingContext contexto = new MongoMappingContext();
+            contexto.setSimpleTypeHolder(conversiones.getSimpleTypeHolder());
+            contexto.afterPropertiesSet();
+            MappingMongoConverter conversor = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contexto);
+            conversor.setCustomConversions(conversiones);
+            conversor.afterPropertiesSet();
+            return conversor;
+        }
+    }
+}
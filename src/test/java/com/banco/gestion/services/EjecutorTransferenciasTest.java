@@ -0,0 +1,186 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.CuentaBancaria;
+import com.banco.gestion.models.Transferencia;
+import com.banco.gestion.repositories.CuentaBancariaRepository;
+import com.banco.gestion.repositories.TransferenciaRepository;
+import com.banco.gestion.utils.Enums;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Transferencias concurrentes en sentidos opuestos contra H2: sin deadlock y con el dinero conservado
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EjecutorTransferencias.class, CacheCuentas.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EjecutorTransferenciasTest {
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+    private static final int HILOS = 8;
+    private static final int TRANSFERENCIAS_POR_HILO = 25;
+
+    @MockBean
+    private BitacoraService bitacoraService;
+
+    @MockBean
+    private ExpiracionTransferenciasService expiracionService;
+
+    @MockBean
+    private ColaAprobaciones colaAprobaciones;
+
+    @MockBean
+    private RegistroIdempotencia registroIdempotencia;
+
+    @Autowired
+    private EjecutorTransferencias ejecutor;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaRepository;
+
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+
+    private final ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void preparar() {
+        transferenciaRepository.deleteAll();
+        cuentaRepository.deleteAll();
+        // Sin clave de idempotencia el registro solo ejecuta la acción
+        when(registroIdempotencia.ejecutar(any(), isNull(), any(), any(), any(), any()))
+            .thenAnswer(invocacion -> ((Supplier<Object>) invocacion.getArgument(5)).get());
+    }
+
+    @AfterEach
+    void cerrar() {
+        hilos.shutdownNow();
+    }
+
+    @Test
+    void transferenciasCruzadasConservanElDineroSinDeadlock() throws Exception {
+        cuenta("A-001");
+        cuenta("B-001");
+
+        List<Future<?>> resultados = lanzar(hilo -> hilo % 2 == 0
+            ? new String[] {"A-001", "B-001"}
+            : new String[] {"B-001", "A-001"});
+
+        esperar(resultados);
+        assertThat(saldo("A-001")).isEqualByComparingTo(SALDO_INICIAL);
+        assertThat(saldo("B-001")).isEqualByComparingTo(SALDO_INICIAL);
+        assertThat(transferenciaRepository.count()).isEqualTo((long) HILOS * TRANSFERENCIAS_POR_HILO);
+    }
+
+    @Test
+    void unCicloDeTresCuentasConservaElDineroSinDeadlock() throws Exception {
+        String[] cuentas = {"A-001", "B-001", "C-001"};
+        for (String numero : cuentas) {
+            cuenta(numero);
+        }
+
+        List<Future<?>> resultados = lanzar(hilo -> new String[] {cuentas[hilo % 3], cuentas[(hilo + 1) % 3]});
+
+        esperar(resultados);
+        BigDecimal total = BigDecimal.ZERO;
+        for (String numero : cuentas) {
+            total = total.add(saldo(numero));
+        }
+        assertThat(total).isEqualByComparingTo(SALDO_INICIAL.multiply(BigDecimal.valueOf(cuentas.length)));
+        assertThat(transferenciaRepository.count()).isEqualTo((long) HILOS * TRANSFERENCIAS_POR_HILO);
+    }
+
+    @Test
+    void saldoInsuficienteNoMueveDinero() {
+        cuenta("A-001");
+        cuenta("B-001");
+
+        assertThatThrownBy(() -> ejecutor.ejecutar(transferencia("A-001", "B-001", new BigDecimal("1000.01")),
+            Enums.RolSistema.CLIENTE_PERSONA_NATURAL.name()))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(saldo("A-001")).isEqualByComparingTo(SALDO_INICIAL);
+        assertThat(saldo("B-001")).isEqualByComparingTo(SALDO_INICIAL);
+        assertThat(transferenciaRepository.count()).isZero();
+    }
+
+    /**
+     * Todos los hilos arrancan a la vez; cada uno repite la transferencia de su sentido
+     */
+    private List<Future<?>> lanzar(IntFunction<String[]> sentido) {
+        CyclicBarrier salida = new CyclicBarrier(HILOS);
+        List<Future<?>> resultados = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            String[] cuentas = sentido.apply(i);
+            resultados.add(hilos.submit(() -> {
+                salida.await();
+                for (int j = 0; j < TRANSFERENCIAS_POR_HILO; j++) {
+                    ejecutor.ejecutar(transferencia(cuentas[0], cuentas[1], MONTO), Enums.RolSistema.EMPLEADO_EMPRESA.name());
+                }
+                return null;
+            }));
+        }
+        return resultados;
+    }
+
+    /**
+     * Un deadlock no resuelto se manifiesta como un hilo que no termina a tiempo
+     */
+    private static void esperar(List<Future<?>> resultados) throws Exception {
+        for (Future<?> resultado : resultados) {
+            resultado.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private void cuenta(String numero) {
+        CuentaBancaria cuenta = new CuentaBancaria();
+        cuenta.setNumeroCuenta(numero);
+        cuenta.setTipoCuenta(Enums.TipoCuenta.AHORROS);
+        cuenta.setIdTitular(1L);
+        cuenta.setSaldoActual(SALDO_INICIAL);
+        cuentaRepository.save(cuenta);
+    }
+
+    private BigDecimal saldo(String numero) {
+        return cuentaRepository.findByNumeroCuenta(numero).orElseThrow().getSaldoActual();
+    }
+
+    private static Transferencia transferencia(String origen, String destino, BigDecimal monto) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setCuentaOrigen(origen);
+        transferencia.setCuentaDestino(destino);
+        transferencia.setMonto(monto);
+        transferencia.setIdUsuarioCreador(1L);
+        return transferencia;
+    }
+}
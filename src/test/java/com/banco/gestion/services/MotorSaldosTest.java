@@ -0,0 +1,160 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.repositories.CuentaBancariaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Candados por franjas del motor de saldos; la transacción se simula con la sincronización de
+ * TransactionSynchronizationManager, que es lo que libera los candados
+ */
+class MotorSaldosTest {
+
+    private static final BigDecimal MONTO = new BigDecimal("10.00");
+    private static final long ESPERA_MS = 100;
+
+    private final CuentaBancariaRepository cuentaRepository = mock(CuentaBancariaRepository.class);
+    private final ExecutorService hilos = Executors.newFixedThreadPool(2);
+    private MotorSaldos motor;
+
+    @BeforeEach
+    void preparar() {
+        when(cuentaRepository.acreditarSaldo(anyLong(), any(), any(), any())).thenReturn(1);
+        motor = new MotorSaldos(cuentaRepository, 4, ESPERA_MS);
+    }
+
+    @AfterEach
+    void cerrar() {
+        hilos.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            terminarTransaccion();
+        }
+    }
+
+    @Test
+    void sinTransaccionNoSeMutaElSaldo() {
+        assertThatThrownBy(() -> motor.acreditar(1L, MONTO)).isInstanceOf(IllegalStateException.class);
+        verify(cuentaRepository, never()).acreditarSaldo(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void unIdNuloSeRechaza() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThatThrownBy(() -> motor.acreditar(null, MONTO)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> motor.reservar(Arrays.asList(1L, null)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unaFranjaOcupadaFallaPorTiempoYSeLiberaAlTerminarLaTransaccion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        motor.reservar(1L);
+
+        assertThatThrownBy(() -> enOtraTransaccion(() -> motor.acreditar(1L, MONTO)).get())
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(ConcurrencyFailureException.class);
+        verify(cuentaRepository, never()).acreditarSaldo(anyLong(), any(), any(), any());
+
+        terminarTransaccion();
+
+        assertThatCode(() -> enOtraTransaccion(() -> motor.acreditar(1L, MONTO)).get()).doesNotThrowAnyException();
+        verify(cuentaRepository).acreditarSaldo(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void unaReservaFallidaNoRetieneLasFranjasQueAlcanzoATomar() throws Exception {
+        List<Long> cuentas = LongStream.rangeClosed(1, 16).boxed().toList();
+        TransactionSynchronizationManager.initSynchronization();
+        motor.reservar(cuentas.get(cuentas.size() - 1));
+
+        assertThatThrownBy(() -> enOtraTransaccion(() -> motor.reservar(cuentas)).get())
+            .hasCauseInstanceOf(ConcurrencyFailureException.class);
+        terminarTransaccion();
+
+        assertThatCode(() -> enOtraTransaccion(() -> motor.reservar(cuentas)).get()).doesNotThrowAnyException();
+    }
+
+    @Test
+    void reservasEnOrdenOpuestoNoSeInterbloquean() throws Exception {
+        List<Long> ascendente = LongStream.rangeClosed(1, 16).boxed().toList();
+        List<Long> descendente = new ArrayList<>(ascendente);
+        Collections.reverse(descendente);
+        CyclicBarrier salida = new CyclicBarrier(2);
+
+        List<Future<?>> resultados = new ArrayList<>();
+        for (List<Long> cuentas : List.of(ascendente, descendente)) {
+            resultados.add(hilos.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    salida.await(5, TimeUnit.SECONDS);
+                    TransactionSynchronizationManager.initSynchronization();
+                    try {
+                        motor.reservar(cuentas);
+                    } finally {
+                        terminarTransaccion();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> resultado : resultados) {
+            assertThatCode(() -> resultado.get(30, TimeUnit.SECONDS)).doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    void laConfiguracionDeFranjasDebeSerPotenciaDeDos() {
+        assertThatThrownBy(() -> new MotorSaldos(cuentaRepository, 3, ESPERA_MS))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MotorSaldos(cuentaRepository, 4, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new MotorSaldos(cuentaRepository, 1, ESPERA_MS)).isNotNull();
+    }
+
+    private Future<?> enOtraTransaccion(Runnable accion) {
+        return hilos.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                accion.run();
+            } finally {
+                terminarTransaccion();
+            }
+        });
+    }
+
+    private static void terminarTransaccion() {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization sincronizacion : sincronizaciones) {
+            sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.banco.gestion.services;
+
+import com.banco.gestion.models.ClaveIdempotencia;
+import com.banco.gestion.models.OperacionIdempotente;
+import com.banco.gestion.repositories.OperacionIdempotenteRepository;
+import com.banco.gestion.utils.Enums;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Claves de idempotencia contra H2: reintentos, alcance por usuario y claves vencidas
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RegistroIdempotenciaTest {
+
+    private static final Enums.TipoOperacionIdempotente DEPOSITO = Enums.TipoOperacionIdempotente.DEPOSITO;
+
+    @Autowired
+    private OperacionIdempotenteRepository operacionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RegistroIdempotencia registro;
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @BeforeEach
+    void preparar() {
+        operacionRepository.deleteAll();
+        registro = new RegistroIdempotencia(operacionRepository, new TransactionTemplate(transactionManager),
+            new ObjectMapper(), 100, 600, 24, 4);
+    }
+
+    @Test
+    void unReintentoDevuelveElResultadoOriginalSinEjecutarDeNuevo() {
+        String primero = depositar(1L, "clave-1", "h1");
+        String reintento = depositar(1L, "clave-1", "h1");
+
+        assertThat(reintento).isEqualTo(primero);
+        assertThat(ejecuciones).hasValue(1);
+        assertThat(operacionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void laMismaClaveDeOtroUsuarioEsOtraOperacion() {
+        String deUno = depositar(1L, "clave-compartida", "h1");
+        String deOtro = depositar(2L, "clave-compartida", "h1");
+
+        assertThat(deOtro).isNotEqualTo(deUno);
+        assertThat(ejecuciones).hasValue(2);
+        assertThat(operacionRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void reutilizarLaClaveConOtrosParametrosFalla() {
+        depositar(1L, "clave-1", "h1");
+
+        assertThatThrownBy(() -> depositar(1L, "clave-1", "h2"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ejecuciones).hasValue(1);
+    }
+
+    @Test
+    void unaClaveVencidaSinPurgarSeReemplaza() {
+        operacionRepository.save(new OperacionIdempotente(new ClaveIdempotencia(1L, "clave-1"), DEPOSITO, "h-vieja",
+            "\"resultado viejo\"", LocalDateTime.now().minusMinutes(1)));
+
+        String resultado = depositar(1L, "clave-1", "h1");
+
+        assertThat(resultado).isEqualTo("resultado-1");
+        assertThat(operacionRepository.findById(new ClaveIdempotencia(1L, "clave-1")))
+            .get()
+            .extracting(OperacionIdempotente::getHuella)
+            .isEqualTo("h1");
+    }
+
+    @Test
+    void unaAccionRechazadaNoRegistraLaClave() {
+        assertThatThrownBy(() -> registro.ejecutarEnTransaccion(1L, "clave-1", DEPOSITO, "h1", String.class, () -> {
+            throw new IllegalArgumentException("Saldo insuficiente");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(operacionRepository.count()).isZero();
+        assertThat(depositar(1L, "clave-1", "h1")).isEqualTo("resultado-1");
+    }
+
+    @Test
+    void laPurgaEliminaSoloLasClavesVencidas() {
+        operacionRepository.save(new OperacionIdempotente(new ClaveIdempotencia(1L, "vencida"), DEPOSITO, "h",
+            "\"x\"", LocalDateTime.now().minusMinutes(1)));
+        depositar(1L, "vigente", "h");
+
+        registro.purgar();
+
+        assertThat(operacionRepository.findAll())
+            .extracting(OperacionIdempotente::getClave)
+            .containsExactly("vigente");
+    }
+
+    private String depositar(Long idUsuario, String clave, String huella) {
+        return registro.ejecutarEnTransaccion(idUsuario, clave, DEPOSITO, huella, String.class,
+            () -> "resultado-" + ejecuciones.incrementAndGet());
+    }
+}
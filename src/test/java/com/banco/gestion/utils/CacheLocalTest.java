@@ -0,0 +1,74 @@
+package com.banco.gestion.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Caché local: invalidaciones durante una carga, por clave
+ */
+class CacheLocalTest {
+
+    private final CacheLocal<String, String> cache = new CacheLocal<>("prueba", 100, 1, TimeUnit.MINUTES);
+
+    @Test
+    void guardaElValorCargado() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertThat(cache.obtener("a", c -> "valor-" + cargas.incrementAndGet())).isEqualTo("valor-1");
+        assertThat(cache.obtener("a", c -> "valor-" + cargas.incrementAndGet())).isEqualTo("valor-1");
+        assertThat(cargas).hasValue(1);
+    }
+
+    @Test
+    void invalidarLaClaveDuranteLaCargaDescartaElValor() {
+        String valor = cache.obtener("a", c -> {
+            cache.invalidar("a");
+            return "obsoleto";
+        });
+
+        assertThat(valor).isEqualTo("obsoleto");
+        assertThat(cache.obtenerSiPresente("a")).isNull();
+    }
+
+    @Test
+    void invalidarOtraClaveDuranteLaCargaNoDescartaElValor() {
+        cache.obtener("a", c -> {
+            cache.invalidar("b");
+            return "vigente";
+        });
+
+        assertThat(cache.obtenerSiPresente("a")).isEqualTo("vigente");
+    }
+
+    @Test
+    void ponerDuranteLaCargaPrevaleceSobreElValorCargado() {
+        cache.obtener("a", c -> {
+            cache.poner("a", "nuevo");
+            return "cargado";
+        });
+
+        assertThat(cache.obtenerSiPresente("a")).isEqualTo("nuevo");
+    }
+
+    @Test
+    void unaCargaFallidaNoDejaMarca() {
+        assertThatThrownBy(() -> cache.obtener("a", c -> {
+            throw new IllegalStateException("sin conexión");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.estadisticas().tamano()).isZero();
+        assertThat(cache.obtener("a", c -> "recuperado")).isEqualTo("recuperado");
+        assertThat(cache.obtenerSiPresente("a")).isEqualTo("recuperado");
+    }
+
+    @Test
+    void unaCargaNulaNoSeGuarda() {
+        assertThat(cache.obtener("a", c -> null)).isNull();
+        assertThat(cache.estadisticas().tamano()).isZero();
+    }
+}
@@ -0,0 +1,123 @@
+package com.banco.gestion.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Diario de solo anexado: lectura sin consumo, rotación, reapertura y registros corruptos
+ */
+class DiarioSegmentadoTest {
+
+    private static final int CABECERA = 8;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void leerNoConsumeHastaConfirmar() throws IOException {
+        try (DiarioSegmentado diario = new DiarioSegmentado(directorio, 4096)) {
+            diario.anexar(bytes("uno"));
+            diario.anexar(bytes("dos"));
+
+            assertThat(textos(diario.leer(10))).containsExactly("uno", "dos");
+            assertThat(textos(diario.leer(10))).containsExactly("uno", "dos");
+            assertThat(diario.hayPendientes()).isTrue();
+
+            diario.confirmarLectura();
+
+            assertThat(diario.hayPendientes()).isFalse();
+            assertThat(diario.leer(10)).isEmpty();
+        }
+    }
+
+    @Test
+    void rotaSegmentosYEliminaLosConsumidos() throws IOException {
+        // Dos registros de 20 bytes por segmento
+        try (DiarioSegmentado diario = new DiarioSegmentado(directorio, 2 * (CABECERA + 20))) {
+            for (int i = 0; i < 5; i++) {
+                diario.anexar(bytes(String.format("registro-%011d", i)));
+            }
+            assertThat(segmentos()).hasSize(3);
+
+            assertThat(textos(diario.leer(10))).hasSize(5).first().isEqualTo("registro-00000000000");
+            diario.confirmarLectura();
+
+            assertThat(segmentos()).hasSize(1);
+            assertThat(diario.hayPendientes()).isFalse();
+        }
+    }
+
+    @Test
+    void alReabrirContinuaDesdeElPunteroConfirmado() throws IOException {
+        try (DiarioSegmentado diario = new DiarioSegmentado(directorio, 4096)) {
+            diario.anexar(bytes("uno"));
+            diario.anexar(bytes("dos"));
+            diario.anexar(bytes("tres"));
+            diario.sincronizar();
+            assertThat(textos(diario.leer(1))).containsExactly("uno");
+            diario.confirmarLectura();
+        }
+
+        try (DiarioSegmentado diario = new DiarioSegmentado(directorio, 4096)) {
+            assertThat(diario.hayPendientes()).isTrue();
+            diario.anexar(bytes("cuatro"));
+
+            assertThat(textos(diario.leer(10))).containsExactly("dos", "tres", "cuatro");
+        }
+    }
+
+    @Test
+    void unRegistroCorruptoSeDescartaConElRestoDeSuSegmento() throws IOException {
+        try (DiarioSegmentado diario = new DiarioSegmentado(directorio, 4096)) {
+            diario.anexar(bytes("sano"));
+            diario.anexar(bytes("roto"));
+            diario.anexar(bytes("posterior"));
+        }
+        // Un byte de datos del segundo registro, como una escritura a medias antes de una caída
+        try (FileChannel canal = FileChannel.open(segmentos().get(0), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {'X'}), CABECERA + 4 + CABECERA);
+        }
+
+        try (DiarioSegmentado diario = new DiarioSegmentado(directorio, 4096)) {
+            diario.anexar(bytes("nuevo"));
+
+            assertThat(textos(diario.leer(10))).containsExactly("sano", "nuevo");
+            assertThat(diario.getCorruptos()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void rechazaRegistrosVaciosOMayoresQueUnSegmento() throws IOException {
+        try (DiarioSegmentado diario = new DiarioSegmentado(directorio, 64)) {
+            assertThatThrownBy(() -> diario.anexar(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> diario.anexar(new byte[64])).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(p -> p.getFileName().toString().endsWith(".diario")).sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> textos(List<byte[]> registros) {
+        return registros.stream().map(r -> new String(r, StandardCharsets.UTF_8)).toList();
+    }
+}